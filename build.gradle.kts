@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -13,7 +14,8 @@ dependencies {
     // Test framework
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
-    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    // Launcher API for suite-level listeners (src/test/resources/META-INF/services)
+    testImplementation("org.junit.platform:junit-platform-launcher")
     
     // Appium dependencies
     implementation("io.appium:java-client:9.0.0")
@@ -24,6 +26,8 @@ dependencies {
     // JSON processing for configuration
     implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml:2.15.2")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile:2.15.2")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-csv:2.15.2")
     
     // Logging
     implementation("org.slf4j:slf4j-api:2.0.9")
@@ -34,10 +38,79 @@ dependencies {
     
     // TestNG (alternative to JUnit, commonly used with Appium)
     testImplementation("org.testng:testng:7.8.0")
+
+    // Page locators generated at compile time (page-processor), read by PageMetadata
+    testAnnotationProcessor(project(":page-processor"))
+    jmhAnnotationProcessor(project(":page-processor"))
 }
 
 tasks.test {
     useJUnitPlatform()
+
+    // Parallel execution across the devices configured in appium-config.yml:
+    // ./gradlew test -Pparallel=true -Pparallelism=<number of devices>
+    val parallel = project.findProperty("parallel")?.toString()?.toBoolean() ?: false
+    val parallelism = project.findProperty("parallelism")?.toString() ?: "1"
+    systemProperty("junit.jupiter.execution.parallel.enabled", parallel)
+    systemProperty("junit.jupiter.execution.parallel.mode.default", "concurrent")
+    systemProperty("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+    systemProperty("junit.jupiter.execution.parallel.config.strategy", "fixed")
+    systemProperty("junit.jupiter.execution.parallel.config.fixed.parallelism", parallelism)
+
+    // Sharding of @StreamingTestData(sharded = true) rows across CI workers:
+    // ./gradlew test -PshardIndex=<0-based worker index> -PshardCount=<number of workers>
+    systemProperty("test.shard.index", project.findProperty("shardIndex")?.toString() ?: "0")
+    systemProperty("test.shard.count", project.findProperty("shardCount")?.toString() ?: "1")
+}
+
+// Precompile bundled YAML/JSON test data into binary Smile, read by TestDataUtils instead of the text:
+// ./gradlew precompileTestData test
+val precompiledTestData = layout.buildDirectory.dir("precompiled-test-data")
+val precompileTestData by tasks.registering(JavaExec::class) {
+    val sourceDir = file("src/test/resources/test-data")
+    val outputDir = precompiledTestData.map { it.dir("test-data") }
+    dependsOn(tasks.testClasses)
+    onlyIf { sourceDir.isDirectory }
+    inputs.dir(sourceDir).optional()
+    outputs.dir(outputDir)
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("org.example.utils.TestDataCompiler")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(sourceDir.absolutePath, outputDir.get().asFile.absolutePath)
+    })
+}
+
+sourceSets.test {
+    runtimeClasspath += files(precompiledTestData)
+}
+
+// Framework overhead benchmarks (src/jmh/java), run against the in-process stub server:
+// ./gradlew jmh
+jmh {
+    // The framework classes (pages, utils, stub server) live in the test source set
+    includeTests.set(true)
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-${project.version}.json"))
+}
+
+// Run every benchmark once, without forking or warm-up, to check that they still work (part of `check`):
+// ./gradlew jmhSmoke
+val jmhSmoke by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Runs each JMH benchmark for a single short iteration and fails on benchmark errors."
+    val jmhJar = tasks.named<Jar>("jmhJar")
+    dependsOn(jmhJar)
+    classpath = files(jmhJar.flatMap { it.archiveFile })
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-f", "0", "-wi", "0", "-i", "1", "-r", "100ms", "-foe", "true")
+}
+
+tasks.check {
+    dependsOn(jmhSmoke)
 }
 
 java {
@@ -0,0 +1,13 @@
+plugins {
+    id("java-library")
+}
+
+group = "org.example"
+version = "1.0-SNAPSHOT"
+
+// Annotation processor generating the locators of page objects at compile time (see PageLocatorProcessor).
+// It only reads annotation mirrors, so it does not depend on Appium or Selenium.
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
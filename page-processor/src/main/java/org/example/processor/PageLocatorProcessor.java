@@ -0,0 +1,221 @@
+package org.example.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PageLocatorProcessor class generates a {@code <Page>_Locators} class next to
+ * every page object with {@code @iOSXCUITFindBy} WebElement fields. The
+ * generated class holds the AppiumBy locator of each field as a constant and
+ * supplies them by field name, so the page runtime (PageMetadata) does not
+ * read the annotations reflectively:
+ * <pre>
+ * public final class HomePage_Locators implements Supplier&lt;Map&lt;String, By&gt;&gt; {
+ *     public static final By WELCOME_LABEL = AppiumBy.accessibilityId("Welcome");
+ *     ...
+ * }
+ * </pre>
+ * Pages with fields the runtime leaves to PageFactory (lists, other locator
+ * annotations) get no generated class.
+ */
+@SupportedAnnotationTypes(PageLocatorProcessor.IOS_FIND_BY)
+public class PageLocatorProcessor extends AbstractProcessor {
+
+    static final String IOS_FIND_BY = "io.appium.java_client.pagefactory.iOSXCUITFindBy";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+    private static final String[] PAGE_FACTORY_PACKAGES = {
+            "io.appium.java_client.pagefactory.",
+            "org.openqa.selenium.support.",
+    };
+
+    /**
+     * Locator strategies in the order PageFieldLocator applies them
+     */
+    private static final String[][] STRATEGIES = {
+            {"accessibility", "accessibilityId"},
+            {"id", "id"},
+            {"className", "className"},
+            {"iOSNsPredicate", "iOSNsPredicateString"},
+            {"iOSClassChain", "iOSClassChain"},
+            {"xpath", "xpath"},
+    };
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> pages = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element field : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (field.getKind() == ElementKind.FIELD) {
+                    pages.add((TypeElement) field.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement page : pages) {
+            Map<String, String> locators = locatorsOf(page);
+            if (locators != null) {
+                write(page, locators);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the locator expression of every @iOSXCUITFindBy WebElement field
+     * 
+     * @return Field name to AppiumBy expression, or null if the page has fields
+     *         that must be left to PageFactory
+     */
+    private Map<String, String> locatorsOf(TypeElement page) {
+        Map<String, String> locators = new LinkedHashMap<>();
+        for (Element member : page.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD) {
+                continue;
+            }
+            VariableElement field = (VariableElement) member;
+            AnnotationMirror findBy = null;
+            boolean otherLocator = false;
+            for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+                String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+                if (IOS_FIND_BY.equals(name)) {
+                    findBy = mirror;
+                } else if (isPageFactoryAnnotation(name)) {
+                    otherLocator = true;
+                }
+            }
+            if (findBy == null && !otherLocator) {
+                continue;
+            }
+            String locator = findBy != null ? locatorOf(findBy) : null;
+            if (otherLocator || locator == null || !WEB_ELEMENT.equals(field.asType().toString())
+                    || field.getModifiers().contains(Modifier.STATIC)
+                    || field.getModifiers().contains(Modifier.FINAL)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Page field " + field.getSimpleName() + " needs PageFactory, not generating locators", field);
+                return null;
+            }
+            locators.put(field.getSimpleName().toString(), locator);
+        }
+        return locators;
+    }
+
+    private static boolean isPageFactoryAnnotation(String name) {
+        for (String prefix : PAGE_FACTORY_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String locatorOf(AnnotationMirror findBy) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : findBy.getElementValues().entrySet()) {
+            if (entry.getValue().getValue() instanceof String) {
+                values.put(entry.getKey().getSimpleName().toString(), (String) entry.getValue().getValue());
+            }
+        }
+        for (String[] strategy : STRATEGIES) {
+            String value = values.get(strategy[0]);
+            if (value != null && !value.isEmpty()) {
+                return "AppiumBy." + strategy[1] + "(\"" + escape(value) + "\")";
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement page, Map<String, String> locators) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(page).getQualifiedName().toString();
+        String simpleName = page.getSimpleName() + "_Locators";
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(
+                packageName.isEmpty() ? simpleName : packageName + "." + simpleName, page).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import io.appium.java_client.AppiumBy;\n");
+            writer.write("import org.openqa.selenium.By;\n\n");
+            writer.write("import java.util.LinkedHashMap;\n");
+            writer.write("import java.util.Map;\n");
+            writer.write("import java.util.function.Supplier;\n\n");
+            writer.write("/**\n * Locators of the {@link " + page.getSimpleName()
+                    + "} page fields, generated by PageLocatorProcessor\n */\n");
+            writer.write("public final class " + simpleName + " implements Supplier<Map<String, By>> {\n\n");
+            for (Map.Entry<String, String> locator : locators.entrySet()) {
+                writer.write("    public static final By " + constantName(locator.getKey()) + " = "
+                        + locator.getValue() + ";\n");
+            }
+            writer.write("\n    @Override\n    public Map<String, By> get() {\n");
+            writer.write("        Map<String, By> locators = new LinkedHashMap<>();\n");
+            for (String field : locators.keySet()) {
+                writer.write("        locators.put(\"" + field + "\", " + constantName(field) + ");\n");
+            }
+            writer.write("        return locators;\n    }\n}\n");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate " + simpleName + ": " + e.getMessage(), page);
+        }
+    }
+
+    /**
+     * welcomeLabel becomes WELCOME_LABEL
+     */
+    private static String constantName(String fieldName) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                name.append('_');
+            }
+            name.append(Character.toUpperCase(c));
+        }
+        return name.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    escaped.append(c);
+                    break;
+            }
+        }
+        return escaped.toString();
+    }
+}
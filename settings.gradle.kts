@@ -1 +1,4 @@
-rootProject.name = "MobileAutomationExample"
\ No newline at end of file
+rootProject.name = "MobileAutomationExample"
+
+// Compile-time page locator generation, used as the test annotation processor
+include("page-processor")
@@ -0,0 +1,34 @@
+package org.example.benchmarks;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.example.pages.BasePage;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Minimal page object for the stub UIKitCatalog home screen, used to measure
+ * page construction and PageFactory proxy lookups.
+ */
+public class CatalogPage extends BasePage {
+
+    @iOSXCUITFindBy(accessibility = "Alert Views")
+    private WebElement alertViewsCell;
+
+    @iOSXCUITFindBy(accessibility = "Buttons")
+    private WebElement buttonsCell;
+
+    @iOSXCUITFindBy(className = "XCUIElementTypeNavigationBar")
+    private WebElement navigationBar;
+
+    public CatalogPage(AppiumDriver driver) {
+        super(driver);
+    }
+
+    public boolean isAlertViewsCellDisplayed() {
+        return isElementDisplayed(alertViewsCell);
+    }
+
+    public String getNavigationBarName() {
+        return navigationBar.getAttribute("name");
+    }
+}
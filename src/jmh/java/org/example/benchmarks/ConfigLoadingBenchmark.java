@@ -0,0 +1,44 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.example.config.AppiumConfig;
+import org.example.config.ConfigManager;
+import org.example.config.DeviceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures configuration loading: parsing appium-config.yml the way
+ * ConfigManager does, and the per-call cost of reading values through the
+ * ConfigManager singleton.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigLoadingBenchmark {
+
+    @Benchmark
+    public AppiumConfig parseConfiguration() throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("appium-config.yml")) {
+            return mapper.readValue(in, AppiumConfig.class);
+        }
+    }
+
+    @Benchmark
+    public String readConfigValue() {
+        return ConfigManager.getInstance().getAppiumServerUrl();
+    }
+
+    @Benchmark
+    public List<DeviceConfig> resolveDevices() {
+        return ConfigManager.getInstance().getDevices();
+    }
+}
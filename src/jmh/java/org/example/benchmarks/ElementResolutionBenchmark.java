@@ -0,0 +1,51 @@
+package org.example.benchmarks;
+
+import io.appium.java_client.AppiumBy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving and querying an element through a PageFactory proxy
+ * field with the same commands issued directly on the driver. The difference
+ * is the overhead the page object layer adds per element access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ElementResolutionBenchmark {
+
+    private CatalogPage page;
+
+    @Setup(Level.Trial)
+    public void createPage(StubSessionState state) {
+        page = new CatalogPage(state.driver);
+    }
+
+    @Benchmark
+    public boolean proxyFieldIsDisplayed() {
+        return page.isAlertViewsCellDisplayed();
+    }
+
+    @Benchmark
+    public boolean directFindIsDisplayed(StubSessionState state) {
+        return state.driver.findElement(AppiumBy.accessibilityId("Alert Views")).isDisplayed();
+    }
+
+    @Benchmark
+    public String proxyFieldAttribute() {
+        return page.getNavigationBarName();
+    }
+
+    @Benchmark
+    public String directFindAttribute(StubSessionState state) {
+        return state.driver.findElement(AppiumBy.className("XCUIElementTypeNavigationBar")).getAttribute("name");
+    }
+}
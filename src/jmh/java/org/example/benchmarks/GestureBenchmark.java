@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.example.utils.ElementUtils;
+import org.example.utils.GestureTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures gesture overhead: building and encoding a W3C pointer sequence for
+ * every gesture, against encoding a cached GestureTemplate, and complete
+ * ElementUtils gestures (the window size is looked up once per session).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GestureBenchmark {
+
+    private static final Dimension WINDOW_SIZE = new Dimension(430, 932);
+
+    private ElementUtils elementUtils;
+
+    @Setup(Level.Trial)
+    public void createElementUtils(StubSessionState state) {
+        elementUtils = new ElementUtils(state.driver);
+    }
+
+    @Benchmark
+    public Map<String, Object> buildSwipeSequence() {
+        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+        Sequence swipe = new Sequence(finger, 1);
+
+        swipe.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), 215, 745));
+        swipe.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+        swipe.addAction(finger.createPointerMove(Duration.ofMillis(1000), PointerInput.Origin.viewport(), 215, 186));
+        swipe.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+
+        return swipe.encode();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> encodeSwipeTemplate() {
+        return GestureTemplate.SCROLL_DOWN.encode(WINDOW_SIZE, 0, 0);
+    }
+
+    @Benchmark
+    public void tap() {
+        // Taps the stub's "Buttons" row, which does not navigate away
+        elementUtils.tap(215, 222);
+    }
+
+    @Benchmark
+    public void swipeLeft() {
+        elementUtils.swipeLeft();
+    }
+}
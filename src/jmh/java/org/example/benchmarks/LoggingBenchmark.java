@@ -0,0 +1,107 @@
+package org.example.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost of one page action log statement on the calling thread,
+ * with four threads logging concurrently as in a parallel run: through a
+ * synchronous file appender, and through a bounded AsyncAppender in front of
+ * the same file appender. Both file appenders use the buffered writes of
+ * logback.xml (immediateFlush false), and the async queue blocks when it is
+ * full instead of dropping events, so both cases log every event and neither
+ * gains by losing some. Under sustained load the async case is bounded by its
+ * single worker thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void createLoggers() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        context = new LoggerContext();
+
+        syncLogger = context.getLogger("sync");
+        syncLogger.setAdditive(false);
+        syncLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        syncLogger.addAppender(fileAppender("sync.log"));
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(false);
+        async.addAppender(fileAppender("async.log"));
+        async.start();
+        asyncLogger = context.getLogger("async");
+        asyncLogger.setAdditive(false);
+        asyncLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        asyncLogger.addAppender(async);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopLoggers() throws IOException {
+        context.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void synchronousAppender() {
+        syncLogger.info("Entering search text: {}", "benchmark");
+    }
+
+    @Benchmark
+    public void asynchronousAppender() {
+        asyncLogger.info("Entering search text: {}", "benchmark");
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(String fileName) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(fileName);
+        appender.setFile(directory.resolve(fileName).toString());
+        appender.setImmediateFlush(false);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.benchmarks;
+
+import org.example.pages.AlertViewsPage;
+import org.example.pages.HomePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of constructing page objects: WebDriverWait creation,
+ * element initialization (lazy binding from the cached PageMetadata, or
+ * PageFactory.initElements when lazy_page_init is disabled) and constructor
+ * logging. No WebDriver command is sent during construction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageConstructionBenchmark {
+
+    @Benchmark
+    public HomePage constructHomePage(StubSessionState state) {
+        return new HomePage(state.driver);
+    }
+
+    @Benchmark
+    public AlertViewsPage constructAlertViewsPage(StubSessionState state) {
+        return new AlertViewsPage(state.driver);
+    }
+
+    @Benchmark
+    public CatalogPage constructCatalogPage(StubSessionState state) {
+        return new CatalogPage(state.driver);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.benchmarks;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.stub.StubApp;
+import org.example.stub.StubAppiumServer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+
+/**
+ * Benchmark state holding a driver session against a private, zero-latency
+ * stub server, so that measurements contain only framework and client
+ * overhead rather than device round-trips.
+ */
+@State(Scope.Benchmark)
+public class StubSessionState {
+
+    public StubAppiumServer server;
+    public AppiumDriver driver;
+
+    @Setup(Level.Trial)
+    public void startSession() {
+        server = new StubAppiumServer(StubApp.fromResource("stub/uikit-catalog.xml"));
+        server.start();
+
+        XCUITestOptions options = new XCUITestOptions()
+                .setDeviceName("Benchmark")
+                .setAutomationName("XCUITest");
+        driver = new IOSDriver(server.getUrl(), options);
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopSession() {
+        if (driver != null) {
+            driver.quit();
+        }
+        server.stop();
+    }
+}
@@ -4,9 +4,12 @@ import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.options.XCUITestOptions;
 import org.example.config.ConfigManager;
+import org.example.pages.BasePage;
+import org.example.pages.PageRegistry;
 import org.example.utils.DriverManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,12 +21,16 @@ import java.time.Duration;
  * Base test class that provides common setup and teardown functionality for iOS
  * automation tests.
  * This class handles driver initialization, configuration loading, and cleanup.
+ * Page objects are obtained from {@link #pages}, the session's page registry.
+ * Each test is timed by the {@link TestTimingExtension}.
  */
+@ExtendWith(TestTimingExtension.class)
 public abstract class BaseTest {
 
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
     protected AppiumDriver driver;
     protected ConfigManager configManager;
+    protected PageRegistry pages;
 
     @BeforeEach
     public void setUp() throws MalformedURLException {
@@ -35,8 +42,11 @@ public abstract class BaseTest {
         // Initialize driver
         driver = DriverManager.getDriver();
 
+        // Pages of this session, reused across navigation
+        pages = PageRegistry.forDriver(driver);
+
         // Set implicit wait
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(configManager.getImplicitWait()));
 
         logger.info("Test environment setup completed");
     }
@@ -46,8 +56,8 @@ public abstract class BaseTest {
         logger.info("Tearing down test environment...");
 
         if (driver != null) {
-            driver.quit();
-            DriverManager.resetDriver();
+            // Return the session to the pool (or quit it when pooling is disabled)
+            DriverManager.releaseDriver();
         }
 
         logger.info("Test environment teardown completed");
@@ -62,6 +72,26 @@ public abstract class BaseTest {
         return driver;
     }
 
+    /**
+     * Get the page registry of the current session
+     * 
+     * @return PageRegistry instance
+     */
+    protected PageRegistry getPages() {
+        return pages;
+    }
+
+    /**
+     * Navigate to a screen over the cheapest known path
+     * 
+     * @param page Page class of the screen
+     * @param <T>  Page type
+     * @return Page of the screen, ready for use
+     */
+    protected <T extends BasePage> T navigateTo(Class<T> page) {
+        return pages.getNavigator().navigateTo(page);
+    }
+
     /**
      * Get the configuration manager instance
      * 
@@ -0,0 +1,57 @@
+package org.example.base;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.sift.SiftingAppender;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for logback.xml.
+ * Verifies that the logging configuration loads without warnings and that the
+ * per-device log files are bounded.
+ */
+public class LogbackConfigTest {
+
+    private LoggerContext context;
+
+    @BeforeEach
+    public void configure() throws Exception {
+        context = new LoggerContext();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(getClass().getClassLoader().getResource("logback.xml"));
+    }
+
+    @AfterEach
+    public void stop() {
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("The configuration loads without warnings or errors")
+    public void testNoWarnings() {
+        int highest = new StatusUtil(context).getHighestLevel(0);
+
+        assertThat(highest).as("%s", context.getStatusManager().getCopyOfStatusList()).isLessThan(Status.WARN);
+    }
+
+    @Test
+    @DisplayName("Device log files are limited in number and closed when idle")
+    public void testDeviceFilesBounded() {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        AsyncAppender async = (AsyncAppender) root.getAppender("ASYNC_DEVICE_FILES");
+        SiftingAppender deviceFiles = (SiftingAppender) async.getAppender("DEVICE_FILES");
+
+        assertThat(deviceFiles.getMaxAppenderCount()).isEqualTo(32);
+        assertThat(deviceFiles.getTimeout().getMilliseconds()).isEqualTo(10 * 60 * 1000L);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.base;
+
+import org.example.config.ConfigManager;
+import org.example.utils.SessionWarmup;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.time.Duration;
+
+/**
+ * Launcher session listener registered with the JUnit Platform (see
+ * META-INF/services). Warms up a session on every configured device when the
+ * launcher session opens, before the first test is discovered or run, so that
+ * the WebDriverAgent build and the app installation are not charged to the
+ * first test.
+ */
+public class SessionWarmupListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        ConfigManager config = ConfigManager.getInstance();
+        if (config.isSessionWarmup()) {
+            SessionWarmup.runOnce(Duration.ofSeconds(config.getSessionWarmupTimeout()));
+        }
+    }
+}
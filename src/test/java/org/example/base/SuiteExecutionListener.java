@@ -0,0 +1,82 @@
+package org.example.base;
+
+import org.example.config.ConfigManager;
+import org.example.metrics.CommandMetrics;
+import org.example.metrics.TimingReport;
+import org.example.pages.NavigationGraph;
+import org.example.utils.ScreenshotRetention;
+import org.example.utils.ScreenshotWriter;
+import org.example.utils.SharedHttpClientFactory;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Suite-level listener registered with the JUnit Platform launcher (see
+ * META-INF/services). Handles work that belongs to the whole test run rather
+ * than to a single test, such as applying the screenshot retention policy,
+ * flushing screenshots that are still being written in the background and
+ * exporting the command latency metrics, the HTTP client usage and the test
+ * timing report.
+ */
+public class SuiteExecutionListener implements TestExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuiteExecutionListener.class);
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        // Apply screenshot retention in the background instead of delaying the first test
+        ScreenshotRetention retention = ScreenshotRetention.fromConfig();
+        if (retention.isEnabled()) {
+            logger.info("Applying screenshot retention in the background");
+            retention.startInBackground();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        logger.info("Test run finished, flushing pending screenshots");
+        ScreenshotWriter.flushShared(Duration.ofSeconds(60));
+
+        CommandMetrics metrics = CommandMetrics.getInstance();
+        if (metrics.hasData()) {
+            try {
+                metrics.export(Paths.get(ConfigManager.getInstance().getCommandMetricsDir()));
+            } catch (IOException e) {
+                logger.error("Failed to export command metrics: {}", e.getMessage());
+            }
+        }
+
+        NavigationGraph navigation = NavigationGraph.getInstance();
+        if (navigation.hasData()) {
+            try {
+                navigation.exportCosts(Paths.get(ConfigManager.getInstance().getCommandMetricsDir()));
+            } catch (IOException e) {
+                logger.error("Failed to export navigation costs: {}", e.getMessage());
+            }
+        }
+
+        SharedHttpClientFactory httpClients = SharedHttpClientFactory.getInstance();
+        if (httpClients.hasData()) {
+            try {
+                httpClients.exportStats(Paths.get(ConfigManager.getInstance().getCommandMetricsDir()));
+            } catch (IOException e) {
+                logger.error("Failed to export HTTP client statistics: {}", e.getMessage());
+            }
+        }
+
+        TimingReport timingReport = TimingReport.fromFinishedTests();
+        if (!timingReport.isEmpty()) {
+            try {
+                timingReport.write(Paths.get(ConfigManager.getInstance().getTimingReportDir()));
+            } catch (IOException e) {
+                logger.error("Failed to write test timing report: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.base;
+
+import org.example.metrics.CommandMetrics;
+import org.example.metrics.TestTiming;
+import org.example.metrics.TestTimings;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * JUnit 5 extension that times each test, including its @BeforeEach and
+ * @AfterEach methods, and attributes the time to phases (see
+ * {@link TestTimings}). The breakdown is logged when the test finishes and
+ * the report for the whole run is written by {@link SuiteExecutionListener}.
+ * The WebDriver commands sent by the test are attributed to it in
+ * {@link CommandMetrics} as well, and the test name is put in the logging MDC
+ * under "test".
+ */
+public class TestTimingExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestTimingExtension.class);
+    private static final String TEST_MDC_KEY = "test";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String testName = testName(context);
+        TestTimings.begin(testName);
+        CommandMetrics.getInstance().startTest(testName);
+        MDC.put(TEST_MDC_KEY, testName);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CommandMetrics.getInstance().finishTest();
+        TestTiming timing = TestTimings.end();
+        if (timing != null) {
+            logger.info("Test {} took {} ms: {}", timing.getTestName(), timing.getWallNanos() / 1_000_000,
+                    timing.describe());
+        }
+        MDC.remove(TEST_MDC_KEY);
+    }
+
+    /**
+     * Get a test's name as used in reports: the test class and method, e.g.
+     * "AlertViewsTest.testAlertViewsPageDisplayed"
+     */
+    private static String testName(ExtensionContext context) {
+        String className = context.getTestClass().map(Class::getSimpleName).orElse("");
+        String methodName = context.getTestMethod().map(method -> method.getName()).orElse(context.getDisplayName());
+        return className.isEmpty() ? methodName : className + "." + methodName;
+    }
+}
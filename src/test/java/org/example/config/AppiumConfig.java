@@ -1,10 +1,20 @@
 package org.example.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration class that maps to the YAML configuration file.
  * Contains all the necessary properties for Appium iOS automation.
+ * A configuration is mutable while it is loaded or built; {@link #freeze()}
+ * makes it read-only before ConfigManager publishes it, after which every
+ * setter throws and the collections are unmodifiable copies.
  */
 public class AppiumConfig {
 
@@ -38,16 +48,193 @@ public class AppiumConfig {
     @JsonProperty("explicit_wait")
     private int explicitWait;
 
+    @JsonProperty("devices")
+    private List<DeviceConfig> devices = new ArrayList<>();
+
+    @JsonProperty("session_pool_enabled")
+    private boolean sessionPoolEnabled;
+
+    @JsonProperty("session_max_uses")
+    private int sessionMaxUses = 20;
+
+    @JsonProperty("session_idle_timeout")
+    private int sessionIdleTimeout = 300;
+
+    @JsonProperty("session_reset_strategy")
+    private String sessionResetStrategy = "terminate_activate";
+
+    @JsonProperty("stub_server_enabled")
+    private boolean stubServerEnabled;
+
+    @JsonProperty("stub_app")
+    private String stubApp = "stub/uikit-catalog.xml";
+
+    @JsonProperty("stub_command_latency")
+    private int stubCommandLatency;
+
+    @JsonProperty("stub_command_latencies")
+    private Map<String, Integer> stubCommandLatencies = new HashMap<>();
+
+    @JsonProperty("element_cache_enabled")
+    private boolean elementCacheEnabled = true;
+
+    @JsonProperty("element_cache_invalidate_on")
+    private List<String> elementCacheInvalidateOn = new ArrayList<>(Collections.singletonList("click"));
+
+    @JsonProperty("screenshot_async")
+    private boolean screenshotAsync = true;
+
+    @JsonProperty("screenshot_writer_threads")
+    private int screenshotWriterThreads = 2;
+
+    @JsonProperty("screenshot_queue_capacity")
+    private int screenshotQueueCapacity = 16;
+
+    @JsonProperty("screenshot_scale")
+    private double screenshotScale = 1.0;
+
+    @JsonProperty("screenshot_format")
+    private String screenshotFormat = "png";
+
+    @JsonProperty("screenshot_dedup")
+    private boolean screenshotDedup = true;
+
+    @JsonProperty("screenshot_retention_days")
+    private int screenshotRetentionDays;
+
+    @JsonProperty("screenshot_total_size_cap")
+    private String screenshotTotalSizeCap = "";
+
+    @JsonProperty("screenshot_cleanup_threads")
+    private int screenshotCleanupThreads = 4;
+
+    @JsonProperty("config_hot_reload")
+    private boolean configHotReload;
+
+    @JsonProperty("native_gestures")
+    private boolean nativeGestures;
+
+    @JsonProperty("command_metrics_enabled")
+    private boolean commandMetricsEnabled = true;
+
+    @JsonProperty("command_metrics_dir")
+    private String commandMetricsDir = "build/reports/command-metrics";
+
+    @JsonProperty("command_metrics_pages")
+    private boolean commandMetricsPages;
+
+    @JsonProperty("timing_report_dir")
+    private String timingReportDir = "build/reports/test-timings";
+
+    @JsonProperty("session_warmup")
+    private boolean sessionWarmup;
+
+    @JsonProperty("session_warmup_timeout")
+    private int sessionWarmupTimeout = 600;
+
+    @JsonProperty("use_prebuilt_wda")
+    private boolean usePrebuiltWda = false;
+
+    @JsonProperty("derived_data_path")
+    private String derivedDataPath = "";
+
+    @JsonProperty("app_install_state_file")
+    private String appInstallStateFile = "build/app-install-state.properties";
+
+    @JsonProperty("session_create_concurrency")
+    private int sessionCreateConcurrency = 2;
+
+    @JsonProperty("session_create_attempts")
+    private int sessionCreateAttempts = 3;
+
+    @JsonProperty("session_retry_delay")
+    private int sessionRetryDelay = 2000;
+
+    @JsonProperty("session_prestart")
+    private boolean sessionPrestart;
+
+    @JsonProperty("http_client_shared")
+    private boolean httpClientShared = true;
+
+    @JsonProperty("http_client_backend")
+    private String httpClientBackend = "";
+
+    @JsonProperty("http_connect_timeout")
+    private int httpConnectTimeout = 10;
+
+    @JsonProperty("http_read_timeout")
+    private int httpReadTimeout = 300;
+
+    @JsonProperty("http_keep_alive_timeout")
+    private int httpKeepAliveTimeout = 300;
+
+    @JsonProperty("http_connection_pool_size")
+    private int httpConnectionPoolSize = 0;
+
+    @JsonProperty("lazy_page_init")
+    private boolean lazyPageInit = true;
+
+    @JsonProperty("navigation_deep_links")
+    private boolean navigationDeepLinks;
+
+    @JsonProperty("navigation_app_activation")
+    private boolean navigationAppActivation = true;
+
+    @JsonIgnore
+    private boolean frozen;
+
     // Default constructor
     public AppiumConfig() {
     }
 
+    /**
+     * Make this configuration read-only, including its devices
+     * 
+     * @return This configuration
+     */
+    public AppiumConfig freeze() {
+        if (frozen) {
+            return this;
+        }
+        List<DeviceConfig> frozenDevices = new ArrayList<>();
+        if (devices != null) {
+            for (DeviceConfig device : devices) {
+                frozenDevices.add(device.freeze());
+            }
+        }
+        devices = Collections.unmodifiableList(frozenDevices);
+        stubCommandLatencies = stubCommandLatencies != null
+                ? Collections.unmodifiableMap(new HashMap<>(stubCommandLatencies))
+                : null;
+        elementCacheInvalidateOn = elementCacheInvalidateOn != null
+                ? Collections.unmodifiableList(new ArrayList<>(elementCacheInvalidateOn))
+                : null;
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Check whether this configuration has been made read-only
+     * 
+     * @return true once frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Published configuration snapshots are read-only");
+        }
+    }
+
     // Getters and setters
     public String getAppiumServerUrl() {
         return appiumServerUrl;
     }
 
     public void setAppiumServerUrl(String appiumServerUrl) {
+        checkMutable();
         this.appiumServerUrl = appiumServerUrl;
     }
 
@@ -56,6 +243,7 @@ public class AppiumConfig {
     }
 
     public void setDeviceName(String deviceName) {
+        checkMutable();
         this.deviceName = deviceName;
     }
 
@@ -64,6 +252,7 @@ public class AppiumConfig {
     }
 
     public void setPlatformVersion(String platformVersion) {
+        checkMutable();
         this.platformVersion = platformVersion;
     }
 
@@ -72,6 +261,7 @@ public class AppiumConfig {
     }
 
     public void setBundleId(String bundleId) {
+        checkMutable();
         this.bundleId = bundleId;
     }
 
@@ -80,6 +270,7 @@ public class AppiumConfig {
     }
 
     public void setUdid(String udid) {
+        checkMutable();
         this.udid = udid;
     }
 
@@ -88,6 +279,7 @@ public class AppiumConfig {
     }
 
     public void setAppPath(String appPath) {
+        checkMutable();
         this.appPath = appPath;
     }
 
@@ -96,6 +288,7 @@ public class AppiumConfig {
     }
 
     public void setNoReset(boolean noReset) {
+        checkMutable();
         this.noReset = noReset;
     }
 
@@ -104,6 +297,7 @@ public class AppiumConfig {
     }
 
     public void setFullReset(boolean fullReset) {
+        checkMutable();
         this.fullReset = fullReset;
     }
 
@@ -112,6 +306,7 @@ public class AppiumConfig {
     }
 
     public void setImplicitWait(int implicitWait) {
+        checkMutable();
         this.implicitWait = implicitWait;
     }
 
@@ -120,9 +315,406 @@ public class AppiumConfig {
     }
 
     public void setExplicitWait(int explicitWait) {
+        checkMutable();
         this.explicitWait = explicitWait;
     }
 
+    public List<DeviceConfig> getDevices() {
+        return devices;
+    }
+
+    public void setDevices(List<DeviceConfig> devices) {
+        checkMutable();
+        this.devices = devices;
+    }
+
+    public boolean isSessionPoolEnabled() {
+        return sessionPoolEnabled;
+    }
+
+    public void setSessionPoolEnabled(boolean sessionPoolEnabled) {
+        checkMutable();
+        this.sessionPoolEnabled = sessionPoolEnabled;
+    }
+
+    public int getSessionMaxUses() {
+        return sessionMaxUses;
+    }
+
+    public void setSessionMaxUses(int sessionMaxUses) {
+        checkMutable();
+        this.sessionMaxUses = sessionMaxUses;
+    }
+
+    public int getSessionIdleTimeout() {
+        return sessionIdleTimeout;
+    }
+
+    public void setSessionIdleTimeout(int sessionIdleTimeout) {
+        checkMutable();
+        this.sessionIdleTimeout = sessionIdleTimeout;
+    }
+
+    public String getSessionResetStrategy() {
+        return sessionResetStrategy;
+    }
+
+    public void setSessionResetStrategy(String sessionResetStrategy) {
+        checkMutable();
+        this.sessionResetStrategy = sessionResetStrategy;
+    }
+
+    public boolean isStubServerEnabled() {
+        return stubServerEnabled;
+    }
+
+    public void setStubServerEnabled(boolean stubServerEnabled) {
+        checkMutable();
+        this.stubServerEnabled = stubServerEnabled;
+    }
+
+    public String getStubApp() {
+        return stubApp;
+    }
+
+    public void setStubApp(String stubApp) {
+        checkMutable();
+        this.stubApp = stubApp;
+    }
+
+    public int getStubCommandLatency() {
+        return stubCommandLatency;
+    }
+
+    public void setStubCommandLatency(int stubCommandLatency) {
+        checkMutable();
+        this.stubCommandLatency = stubCommandLatency;
+    }
+
+    public Map<String, Integer> getStubCommandLatencies() {
+        return stubCommandLatencies;
+    }
+
+    public void setStubCommandLatencies(Map<String, Integer> stubCommandLatencies) {
+        checkMutable();
+        this.stubCommandLatencies = stubCommandLatencies;
+    }
+
+    public boolean isElementCacheEnabled() {
+        return elementCacheEnabled;
+    }
+
+    public void setElementCacheEnabled(boolean elementCacheEnabled) {
+        checkMutable();
+        this.elementCacheEnabled = elementCacheEnabled;
+    }
+
+    public List<String> getElementCacheInvalidateOn() {
+        return elementCacheInvalidateOn;
+    }
+
+    public void setElementCacheInvalidateOn(List<String> elementCacheInvalidateOn) {
+        checkMutable();
+        this.elementCacheInvalidateOn = elementCacheInvalidateOn;
+    }
+
+    public boolean isScreenshotAsync() {
+        return screenshotAsync;
+    }
+
+    public void setScreenshotAsync(boolean screenshotAsync) {
+        checkMutable();
+        this.screenshotAsync = screenshotAsync;
+    }
+
+    public int getScreenshotWriterThreads() {
+        return screenshotWriterThreads;
+    }
+
+    public void setScreenshotWriterThreads(int screenshotWriterThreads) {
+        checkMutable();
+        this.screenshotWriterThreads = screenshotWriterThreads;
+    }
+
+    public int getScreenshotQueueCapacity() {
+        return screenshotQueueCapacity;
+    }
+
+    public void setScreenshotQueueCapacity(int screenshotQueueCapacity) {
+        checkMutable();
+        this.screenshotQueueCapacity = screenshotQueueCapacity;
+    }
+
+    public double getScreenshotScale() {
+        return screenshotScale;
+    }
+
+    public void setScreenshotScale(double screenshotScale) {
+        checkMutable();
+        this.screenshotScale = screenshotScale;
+    }
+
+    public String getScreenshotFormat() {
+        return screenshotFormat;
+    }
+
+    public void setScreenshotFormat(String screenshotFormat) {
+        checkMutable();
+        this.screenshotFormat = screenshotFormat;
+    }
+
+    public boolean isScreenshotDedup() {
+        return screenshotDedup;
+    }
+
+    public void setScreenshotDedup(boolean screenshotDedup) {
+        checkMutable();
+        this.screenshotDedup = screenshotDedup;
+    }
+
+    public int getScreenshotRetentionDays() {
+        return screenshotRetentionDays;
+    }
+
+    public void setScreenshotRetentionDays(int screenshotRetentionDays) {
+        checkMutable();
+        this.screenshotRetentionDays = screenshotRetentionDays;
+    }
+
+    public String getScreenshotTotalSizeCap() {
+        return screenshotTotalSizeCap;
+    }
+
+    public void setScreenshotTotalSizeCap(String screenshotTotalSizeCap) {
+        checkMutable();
+        this.screenshotTotalSizeCap = screenshotTotalSizeCap;
+    }
+
+    public int getScreenshotCleanupThreads() {
+        return screenshotCleanupThreads;
+    }
+
+    public void setScreenshotCleanupThreads(int screenshotCleanupThreads) {
+        checkMutable();
+        this.screenshotCleanupThreads = screenshotCleanupThreads;
+    }
+
+    public boolean isConfigHotReload() {
+        return configHotReload;
+    }
+
+    public void setConfigHotReload(boolean configHotReload) {
+        checkMutable();
+        this.configHotReload = configHotReload;
+    }
+
+    public boolean isNativeGestures() {
+        return nativeGestures;
+    }
+
+    public void setNativeGestures(boolean nativeGestures) {
+        checkMutable();
+        this.nativeGestures = nativeGestures;
+    }
+
+    public boolean isCommandMetricsEnabled() {
+        return commandMetricsEnabled;
+    }
+
+    public void setCommandMetricsEnabled(boolean commandMetricsEnabled) {
+        checkMutable();
+        this.commandMetricsEnabled = commandMetricsEnabled;
+    }
+
+    public String getCommandMetricsDir() {
+        return commandMetricsDir;
+    }
+
+    public void setCommandMetricsDir(String commandMetricsDir) {
+        checkMutable();
+        this.commandMetricsDir = commandMetricsDir;
+    }
+
+    public boolean isCommandMetricsPages() {
+        return commandMetricsPages;
+    }
+
+    public void setCommandMetricsPages(boolean commandMetricsPages) {
+        checkMutable();
+        this.commandMetricsPages = commandMetricsPages;
+    }
+
+    public String getTimingReportDir() {
+        return timingReportDir;
+    }
+
+    public void setTimingReportDir(String timingReportDir) {
+        checkMutable();
+        this.timingReportDir = timingReportDir;
+    }
+
+    public boolean isSessionWarmup() {
+        return sessionWarmup;
+    }
+
+    public void setSessionWarmup(boolean sessionWarmup) {
+        checkMutable();
+        this.sessionWarmup = sessionWarmup;
+    }
+
+    public int getSessionWarmupTimeout() {
+        return sessionWarmupTimeout;
+    }
+
+    public void setSessionWarmupTimeout(int sessionWarmupTimeout) {
+        checkMutable();
+        this.sessionWarmupTimeout = sessionWarmupTimeout;
+    }
+
+    public boolean isUsePrebuiltWda() {
+        return usePrebuiltWda;
+    }
+
+    public void setUsePrebuiltWda(boolean usePrebuiltWda) {
+        checkMutable();
+        this.usePrebuiltWda = usePrebuiltWda;
+    }
+
+    public String getDerivedDataPath() {
+        return derivedDataPath;
+    }
+
+    public void setDerivedDataPath(String derivedDataPath) {
+        checkMutable();
+        this.derivedDataPath = derivedDataPath;
+    }
+
+    public String getAppInstallStateFile() {
+        return appInstallStateFile;
+    }
+
+    public void setAppInstallStateFile(String appInstallStateFile) {
+        checkMutable();
+        this.appInstallStateFile = appInstallStateFile;
+    }
+
+    public int getSessionCreateConcurrency() {
+        return sessionCreateConcurrency;
+    }
+
+    public void setSessionCreateConcurrency(int sessionCreateConcurrency) {
+        checkMutable();
+        this.sessionCreateConcurrency = sessionCreateConcurrency;
+    }
+
+    public int getSessionCreateAttempts() {
+        return sessionCreateAttempts;
+    }
+
+    public void setSessionCreateAttempts(int sessionCreateAttempts) {
+        checkMutable();
+        this.sessionCreateAttempts = sessionCreateAttempts;
+    }
+
+    public int getSessionRetryDelay() {
+        return sessionRetryDelay;
+    }
+
+    public void setSessionRetryDelay(int sessionRetryDelay) {
+        checkMutable();
+        this.sessionRetryDelay = sessionRetryDelay;
+    }
+
+    public boolean isSessionPrestart() {
+        return sessionPrestart;
+    }
+
+    public void setSessionPrestart(boolean sessionPrestart) {
+        checkMutable();
+        this.sessionPrestart = sessionPrestart;
+    }
+
+    public boolean isHttpClientShared() {
+        return httpClientShared;
+    }
+
+    public void setHttpClientShared(boolean httpClientShared) {
+        checkMutable();
+        this.httpClientShared = httpClientShared;
+    }
+
+    public String getHttpClientBackend() {
+        return httpClientBackend;
+    }
+
+    public void setHttpClientBackend(String httpClientBackend) {
+        checkMutable();
+        this.httpClientBackend = httpClientBackend;
+    }
+
+    public int getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    public void setHttpConnectTimeout(int httpConnectTimeout) {
+        checkMutable();
+        this.httpConnectTimeout = httpConnectTimeout;
+    }
+
+    public int getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    public void setHttpReadTimeout(int httpReadTimeout) {
+        checkMutable();
+        this.httpReadTimeout = httpReadTimeout;
+    }
+
+    public int getHttpKeepAliveTimeout() {
+        return httpKeepAliveTimeout;
+    }
+
+    public void setHttpKeepAliveTimeout(int httpKeepAliveTimeout) {
+        checkMutable();
+        this.httpKeepAliveTimeout = httpKeepAliveTimeout;
+    }
+
+    public int getHttpConnectionPoolSize() {
+        return httpConnectionPoolSize;
+    }
+
+    public void setHttpConnectionPoolSize(int httpConnectionPoolSize) {
+        checkMutable();
+        this.httpConnectionPoolSize = httpConnectionPoolSize;
+    }
+
+    public boolean isLazyPageInit() {
+        return lazyPageInit;
+    }
+
+    public void setLazyPageInit(boolean lazyPageInit) {
+        checkMutable();
+        this.lazyPageInit = lazyPageInit;
+    }
+
+    public boolean isNavigationDeepLinks() {
+        return navigationDeepLinks;
+    }
+
+    public void setNavigationDeepLinks(boolean navigationDeepLinks) {
+        checkMutable();
+        this.navigationDeepLinks = navigationDeepLinks;
+    }
+
+    public boolean isNavigationAppActivation() {
+        return navigationAppActivation;
+    }
+
+    public void setNavigationAppActivation(boolean navigationAppActivation) {
+        checkMutable();
+        this.navigationAppActivation = navigationAppActivation;
+    }
+
     @Override
     public String toString() {
         return "AppiumConfig{" +
@@ -136,6 +728,50 @@ public class AppiumConfig {
                 ", fullReset=" + fullReset +
                 ", implicitWait=" + implicitWait +
                 ", explicitWait=" + explicitWait +
+                ", devices=" + devices +
+                ", sessionPoolEnabled=" + sessionPoolEnabled +
+                ", sessionMaxUses=" + sessionMaxUses +
+                ", sessionIdleTimeout=" + sessionIdleTimeout +
+                ", sessionResetStrategy='" + sessionResetStrategy + '\'' +
+                ", stubServerEnabled=" + stubServerEnabled +
+                ", stubApp='" + stubApp + '\'' +
+                ", stubCommandLatency=" + stubCommandLatency +
+                ", stubCommandLatencies=" + stubCommandLatencies +
+                ", elementCacheEnabled=" + elementCacheEnabled +
+                ", elementCacheInvalidateOn=" + elementCacheInvalidateOn +
+                ", screenshotAsync=" + screenshotAsync +
+                ", screenshotWriterThreads=" + screenshotWriterThreads +
+                ", screenshotQueueCapacity=" + screenshotQueueCapacity +
+                ", screenshotScale=" + screenshotScale +
+                ", screenshotFormat='" + screenshotFormat + '\'' +
+                ", screenshotDedup=" + screenshotDedup +
+                ", screenshotRetentionDays=" + screenshotRetentionDays +
+                ", screenshotTotalSizeCap='" + screenshotTotalSizeCap + '\'' +
+                ", screenshotCleanupThreads=" + screenshotCleanupThreads +
+                ", configHotReload=" + configHotReload +
+                ", nativeGestures=" + nativeGestures +
+                ", commandMetricsEnabled=" + commandMetricsEnabled +
+                ", commandMetricsDir='" + commandMetricsDir + '\'' +
+                ", commandMetricsPages=" + commandMetricsPages +
+                ", timingReportDir='" + timingReportDir + '\'' +
+                ", sessionWarmup=" + sessionWarmup +
+                ", sessionWarmupTimeout=" + sessionWarmupTimeout +
+                ", usePrebuiltWda=" + usePrebuiltWda +
+                ", derivedDataPath='" + derivedDataPath + '\'' +
+                ", appInstallStateFile='" + appInstallStateFile + '\'' +
+                ", sessionCreateConcurrency=" + sessionCreateConcurrency +
+                ", sessionCreateAttempts=" + sessionCreateAttempts +
+                ", sessionRetryDelay=" + sessionRetryDelay +
+                ", sessionPrestart=" + sessionPrestart +
+                ", httpClientShared=" + httpClientShared +
+                ", httpClientBackend='" + httpClientBackend + '\'' +
+                ", httpConnectTimeout=" + httpConnectTimeout +
+                ", httpReadTimeout=" + httpReadTimeout +
+                ", httpKeepAliveTimeout=" + httpKeepAliveTimeout +
+                ", httpConnectionPoolSize=" + httpConnectionPoolSize +
+                ", lazyPageInit=" + lazyPageInit +
+                ", navigationDeepLinks=" + navigationDeepLinks +
+                ", navigationAppActivation=" + navigationAppActivation +
                 '}';
     }
 }
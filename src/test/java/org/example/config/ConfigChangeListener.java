@@ -0,0 +1,16 @@
+package org.example.config;
+
+/**
+ * Listener notified by {@link ConfigManager} after the configuration has been
+ * reloaded. Both snapshots are complete and must not be modified.
+ */
+public interface ConfigChangeListener {
+
+    /**
+     * Called after a new configuration snapshot has been published
+     * 
+     * @param previous Configuration in effect before the reload
+     * @param current  Configuration in effect now
+     */
+    void onConfigChange(AppiumConfig previous, AppiumConfig current);
+}
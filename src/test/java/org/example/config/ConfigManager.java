@@ -2,27 +2,55 @@ package org.example.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.example.metrics.TestPhase;
+import org.example.metrics.TestTimings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * ConfigManager class handles loading and managing configuration properties for
  * the automation suite.
  * It supports both YAML and JSON configuration files and provides a singleton
  * instance.
+ * The configuration is held as a snapshot that is never modified once
+ * published: a reload parses a new {@link AppiumConfig} and swaps it in through
+ * a volatile field, so reads are lock-free and always see a complete
+ * configuration. Snapshots are frozen before they are published, so callers
+ * cannot change the shared configuration. With config_hot_reload enabled, the external configuration
+ * file is watched and {@link ConfigChangeListener}s are notified after every
+ * reload.
  */
 public class ConfigManager {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigManager.class);
-    private static ConfigManager instance;
-    private AppiumConfig appiumConfig;
+    private static final String EXTERNAL_CONFIG_FILE = "config/appium-config.yml";
+
+    private volatile AppiumConfig appiumConfig;
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private ConfigWatcher watcher;
 
     private ConfigManager() {
-        loadConfiguration();
+        appiumConfig = loadConfiguration(null).freeze();
+        if (appiumConfig.isConfigHotReload()) {
+            startWatching();
+        }
+    }
+
+    /**
+     * Lazily created singleton; class initialisation makes it thread-safe
+     * without locking on every call
+     */
+    private static final class Holder {
+        private static final ConfigManager INSTANCE = new ConfigManager();
     }
 
     /**
@@ -30,43 +58,99 @@ public class ConfigManager {
      * 
      * @return ConfigManager instance
      */
-    public static synchronized ConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ConfigManager();
-        }
-        return instance;
+    public static ConfigManager getInstance() {
+        return Holder.INSTANCE;
     }
 
     /**
      * Load configuration from YAML file
+     * 
+     * @param current Configuration to keep if the file cannot be parsed, or
+     *                null to fall back to the defaults
+     * @return Newly loaded configuration
      */
-    private void loadConfiguration() {
-        try {
+    private AppiumConfig loadConfiguration(AppiumConfig current) {
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.CONFIG)) {
             ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
 
             // Try to load from external file first
-            File configFile = new File("config/appium-config.yml");
+            File configFile = new File(EXTERNAL_CONFIG_FILE);
             if (configFile.exists()) {
-                appiumConfig = mapper.readValue(configFile, AppiumConfig.class);
+                AppiumConfig config = mapper.readValue(configFile, AppiumConfig.class);
                 logger.info("Configuration loaded from external file: {}", configFile.getAbsolutePath());
+                return config;
             } else {
                 // Load from resources
-                InputStream inputStream = getClass().getClassLoader().getResourceAsStream("appium-config.yml");
-                if (inputStream != null) {
-                    appiumConfig = mapper.readValue(inputStream, AppiumConfig.class);
-                    logger.info("Configuration loaded from resources");
-                } else {
-                    // Use default configuration
-                    appiumConfig = getDefaultConfig();
-                    logger.info("Using default configuration");
+                try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("appium-config.yml")) {
+                    if (inputStream != null) {
+                        AppiumConfig config = mapper.readValue(inputStream, AppiumConfig.class);
+                        logger.info("Configuration loaded from resources");
+                        return config;
+                    }
                 }
+                // Use default configuration
+                logger.info("Using default configuration");
+                return getDefaultConfig();
             }
         } catch (IOException e) {
+            if (current != null) {
+                logger.error("Failed to reload configuration, keeping the current one: {}", e.getMessage());
+                return current;
+            }
             logger.error("Failed to load configuration, using defaults: {}", e.getMessage());
-            appiumConfig = getDefaultConfig();
+            return getDefaultConfig();
+        }
+    }
+
+    /**
+     * Watch the external configuration file and reload it when it changes
+     */
+    private synchronized void startWatching() {
+        File configFile = new File(EXTERNAL_CONFIG_FILE);
+        if (watcher != null || configFile.getAbsoluteFile().getParentFile() == null
+                || !configFile.getAbsoluteFile().getParentFile().isDirectory()) {
+            logger.debug("No external configuration directory to watch");
+            return;
+        }
+        try {
+            watcher = new ConfigWatcher(configFile.toPath(), this::reloadConfiguration);
+            watcher.start();
+        } catch (IOException e) {
+            watcher = null;
+            logger.warn("Configuration hot reload unavailable: {}", e.getMessage());
         }
     }
 
+    /**
+     * Get the current configuration snapshot. Reading several values from one
+     * snapshot guarantees they belong to the same configuration even if a
+     * reload happens concurrently. The snapshot is read-only: its setters throw
+     * and its collections are unmodifiable.
+     * 
+     * @return Current AppiumConfig
+     */
+    public AppiumConfig getConfig() {
+        return appiumConfig;
+    }
+
+    /**
+     * Register a listener to be notified after every reload
+     * 
+     * @param listener Listener to add
+     */
+    public void addChangeListener(ConfigChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener registered with {@link #addChangeListener}
+     * 
+     * @param listener Listener to remove
+     */
+    public void removeChangeListener(ConfigChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Get default configuration
      * 
@@ -84,6 +168,48 @@ public class ConfigManager {
         config.setFullReset(false);
         config.setImplicitWait(10);
         config.setExplicitWait(10);
+        config.setSessionPoolEnabled(false);
+        config.setSessionMaxUses(20);
+        config.setSessionIdleTimeout(300);
+        config.setSessionResetStrategy("terminate_activate");
+        config.setStubServerEnabled(false);
+        config.setStubApp("stub/uikit-catalog.xml");
+        config.setStubCommandLatency(0);
+        config.setElementCacheEnabled(true);
+        config.setElementCacheInvalidateOn(new ArrayList<>(Collections.singletonList("click")));
+        config.setScreenshotAsync(true);
+        config.setScreenshotWriterThreads(2);
+        config.setScreenshotQueueCapacity(16);
+        config.setScreenshotScale(1.0);
+        config.setScreenshotFormat("png");
+        config.setScreenshotDedup(true);
+        config.setScreenshotRetentionDays(0);
+        config.setScreenshotTotalSizeCap("");
+        config.setScreenshotCleanupThreads(4);
+        config.setConfigHotReload(false);
+        config.setNativeGestures(false);
+        config.setCommandMetricsEnabled(true);
+        config.setCommandMetricsDir("build/reports/command-metrics");
+        config.setCommandMetricsPages(false);
+        config.setTimingReportDir("build/reports/test-timings");
+        config.setSessionWarmup(false);
+        config.setSessionWarmupTimeout(600);
+        config.setUsePrebuiltWda(false);
+        config.setDerivedDataPath("");
+        config.setAppInstallStateFile("build/app-install-state.properties");
+        config.setSessionCreateConcurrency(2);
+        config.setSessionCreateAttempts(3);
+        config.setSessionRetryDelay(2000);
+        config.setSessionPrestart(false);
+        config.setHttpClientShared(true);
+        config.setHttpClientBackend("");
+        config.setHttpConnectTimeout(10);
+        config.setHttpReadTimeout(300);
+        config.setHttpKeepAliveTimeout(300);
+        config.setHttpConnectionPoolSize(0);
+        config.setLazyPageInit(true);
+        config.setNavigationDeepLinks(false);
+        config.setNavigationAppActivation(true);
         return config;
     }
 
@@ -129,9 +255,241 @@ public class ConfigManager {
     }
 
     /**
-     * Reload configuration from file
+     * Get the devices tests can be allocated to. Each entry of the "devices" list
+     * inherits any property it does not set from the top-level configuration.
+     * When no list is configured, the single top-level device is returned.
+     * 
+     * @return List of device configurations (never empty)
+     */
+    public List<DeviceConfig> getDevices() {
+        AppiumConfig config = appiumConfig;
+        List<DeviceConfig> devices = new ArrayList<>();
+        List<DeviceConfig> configured = config.getDevices();
+        if (configured == null || configured.isEmpty()) {
+            devices.add(resolveDevice(config, new DeviceConfig()));
+        } else {
+            for (DeviceConfig device : configured) {
+                devices.add(resolveDevice(config, device));
+            }
+        }
+        return devices;
+    }
+
+    /**
+     * Fill in unset device properties from the top-level configuration
+     * 
+     * @param config Configuration snapshot
+     * @param device Device entry from the configuration file
+     * @return New DeviceConfig with every property resolved
+     */
+    private DeviceConfig resolveDevice(AppiumConfig config, DeviceConfig device) {
+        DeviceConfig resolved = new DeviceConfig();
+        resolved.setUdid(device.getUdid() != null ? device.getUdid() : config.getUdid());
+        resolved.setDeviceName(device.getDeviceName() != null ? device.getDeviceName() : config.getDeviceName());
+        resolved.setPlatformVersion(device.getPlatformVersion() != null
+                ? device.getPlatformVersion()
+                : config.getPlatformVersion());
+        resolved.setAppiumServerUrl(device.getAppiumServerUrl() != null
+                ? device.getAppiumServerUrl()
+                : config.getAppiumServerUrl());
+        resolved.setWdaLocalPort(device.getWdaLocalPort());
+        return resolved;
+    }
+
+    public boolean isSessionPoolEnabled() {
+        return appiumConfig.isSessionPoolEnabled();
+    }
+
+    public int getSessionMaxUses() {
+        return appiumConfig.getSessionMaxUses();
+    }
+
+    public int getSessionIdleTimeout() {
+        return appiumConfig.getSessionIdleTimeout();
+    }
+
+    public String getSessionResetStrategy() {
+        return appiumConfig.getSessionResetStrategy();
+    }
+
+    public boolean isStubServerEnabled() {
+        return appiumConfig.isStubServerEnabled();
+    }
+
+    public String getStubApp() {
+        return appiumConfig.getStubApp();
+    }
+
+    public int getStubCommandLatency() {
+        return appiumConfig.getStubCommandLatency();
+    }
+
+    public Map<String, Integer> getStubCommandLatencies() {
+        Map<String, Integer> latencies = appiumConfig.getStubCommandLatencies();
+        return latencies != null ? latencies : Collections.emptyMap();
+    }
+
+    public boolean isElementCacheEnabled() {
+        return appiumConfig.isElementCacheEnabled();
+    }
+
+    public List<String> getElementCacheInvalidateOn() {
+        List<String> actions = appiumConfig.getElementCacheInvalidateOn();
+        return actions != null ? actions : Collections.emptyList();
+    }
+
+    public boolean isScreenshotAsync() {
+        return appiumConfig.isScreenshotAsync();
+    }
+
+    public int getScreenshotWriterThreads() {
+        return appiumConfig.getScreenshotWriterThreads();
+    }
+
+    public int getScreenshotQueueCapacity() {
+        return appiumConfig.getScreenshotQueueCapacity();
+    }
+
+    public double getScreenshotScale() {
+        return appiumConfig.getScreenshotScale();
+    }
+
+    public String getScreenshotFormat() {
+        return appiumConfig.getScreenshotFormat();
+    }
+
+    public boolean isScreenshotDedup() {
+        return appiumConfig.isScreenshotDedup();
+    }
+
+    public int getScreenshotRetentionDays() {
+        return appiumConfig.getScreenshotRetentionDays();
+    }
+
+    public String getScreenshotTotalSizeCap() {
+        return appiumConfig.getScreenshotTotalSizeCap();
+    }
+
+    public int getScreenshotCleanupThreads() {
+        return appiumConfig.getScreenshotCleanupThreads();
+    }
+
+    public boolean isNativeGestures() {
+        return appiumConfig.isNativeGestures();
+    }
+
+    public boolean isCommandMetricsEnabled() {
+        return appiumConfig.isCommandMetricsEnabled();
+    }
+
+    public String getCommandMetricsDir() {
+        return appiumConfig.getCommandMetricsDir();
+    }
+
+    public boolean isCommandMetricsPages() {
+        return appiumConfig.isCommandMetricsPages();
+    }
+
+    public String getTimingReportDir() {
+        return appiumConfig.getTimingReportDir();
+    }
+
+    public boolean isSessionWarmup() {
+        return appiumConfig.isSessionWarmup();
+    }
+
+    public int getSessionWarmupTimeout() {
+        return appiumConfig.getSessionWarmupTimeout();
+    }
+
+    public boolean isUsePrebuiltWda() {
+        return appiumConfig.isUsePrebuiltWda();
+    }
+
+    public String getDerivedDataPath() {
+        return appiumConfig.getDerivedDataPath();
+    }
+
+    public String getAppInstallStateFile() {
+        return appiumConfig.getAppInstallStateFile();
+    }
+
+    public int getSessionCreateConcurrency() {
+        return appiumConfig.getSessionCreateConcurrency();
+    }
+
+    public int getSessionCreateAttempts() {
+        return appiumConfig.getSessionCreateAttempts();
+    }
+
+    public int getSessionRetryDelay() {
+        return appiumConfig.getSessionRetryDelay();
+    }
+
+    public boolean isSessionPrestart() {
+        return appiumConfig.isSessionPrestart();
+    }
+
+    public boolean isHttpClientShared() {
+        return appiumConfig.isHttpClientShared();
+    }
+
+    public String getHttpClientBackend() {
+        return appiumConfig.getHttpClientBackend();
+    }
+
+    public int getHttpConnectTimeout() {
+        return appiumConfig.getHttpConnectTimeout();
+    }
+
+    public int getHttpReadTimeout() {
+        return appiumConfig.getHttpReadTimeout();
+    }
+
+    public int getHttpKeepAliveTimeout() {
+        return appiumConfig.getHttpKeepAliveTimeout();
+    }
+
+    public int getHttpConnectionPoolSize() {
+        return appiumConfig.getHttpConnectionPoolSize();
+    }
+
+    public boolean isLazyPageInit() {
+        return appiumConfig.isLazyPageInit();
+    }
+
+    public boolean isNavigationDeepLinks() {
+        return appiumConfig.isNavigationDeepLinks();
+    }
+
+    public boolean isNavigationAppActivation() {
+        return appiumConfig.isNavigationAppActivation();
+    }
+
+    /**
+     * Reload configuration from file, publish the new snapshot and notify the
+     * registered listeners
      */
     public void reloadConfiguration() {
-        loadConfiguration();
+        AppiumConfig previous;
+        AppiumConfig current;
+        synchronized (this) {
+            previous = appiumConfig;
+            current = loadConfiguration(previous).freeze();
+            appiumConfig = current;
+        }
+        if (current == previous) {
+            return;
+        }
+        for (ConfigChangeListener listener : listeners) {
+            try {
+                listener.onConfigChange(previous, current);
+            } catch (RuntimeException e) {
+                logger.error("Configuration listener failed: {}", e.getMessage());
+            }
+        }
+        if (current.isConfigHotReload()) {
+            startWatching();
+        }
     }
 }
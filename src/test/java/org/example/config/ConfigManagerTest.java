@@ -0,0 +1,105 @@
+package org.example.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ConfigManager.
+ * Verifies that published configuration snapshots are read-only, that a
+ * reload publishes a new snapshot to the listeners and that the watcher
+ * notices changes to the configuration file.
+ */
+public class ConfigManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("The published configuration and its devices are read-only")
+    public void testPublishedSnapshotIsFrozen() {
+        AppiumConfig config = ConfigManager.getInstance().getConfig();
+
+        assertThat(config.isFrozen()).isTrue();
+        assertThatThrownBy(() -> config.setImplicitWait(1)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> config.getDevices().add(new DeviceConfig()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        for (DeviceConfig device : config.getDevices()) {
+            assertThatThrownBy(() -> device.setUdid("other")).isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Freezing copies the collections, so the loaded ones cannot change the snapshot")
+    public void testFreezeCopiesCollections() {
+        AppiumConfig config = new AppiumConfig();
+        List<DeviceConfig> devices = new ArrayList<>();
+        DeviceConfig device = new DeviceConfig();
+        device.setUdid("device-1");
+        devices.add(device);
+        config.setDevices(devices);
+        config.setDeviceName("iPhone 15");
+
+        config.freeze();
+        devices.add(new DeviceConfig());
+
+        assertThat(config.getDevices()).extracting(DeviceConfig::getUdid).containsExactly("device-1");
+        assertThat(config.getDeviceName()).isEqualTo("iPhone 15");
+        assertThatThrownBy(() -> config.setDeviceName("iPhone 16")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("A reload swaps in a new frozen snapshot and notifies the listeners")
+    public void testReloadNotifiesListeners() {
+        ConfigManager manager = ConfigManager.getInstance();
+        AppiumConfig before = manager.getConfig();
+        AtomicReference<AppiumConfig> previous = new AtomicReference<>();
+        AtomicReference<AppiumConfig> current = new AtomicReference<>();
+        ConfigChangeListener listener = (from, to) -> {
+            previous.set(from);
+            current.set(to);
+        };
+        manager.addChangeListener(listener);
+        try {
+            manager.reloadConfiguration();
+        } finally {
+            manager.removeChangeListener(listener);
+        }
+
+        assertThat(previous.get()).isSameAs(before);
+        assertThat(current.get()).isSameAs(manager.getConfig()).isNotSameAs(before);
+        assertThat(current.get().isFrozen()).isTrue();
+        assertThat(current.get().getAppiumServerUrl()).isEqualTo(before.getAppiumServerUrl());
+    }
+
+    @Test
+    @DisplayName("The watcher runs its callback when the configuration file changes")
+    public void testWatcherNoticesChanges() throws Exception {
+        Path file = directory.resolve("appium-config.yml");
+        Files.write(file, "implicit_wait: 10\n".getBytes(StandardCharsets.UTF_8));
+        CountDownLatch changed = new CountDownLatch(1);
+        ConfigWatcher watcher = new ConfigWatcher(file, changed::countDown);
+        watcher.start();
+        try {
+            Files.write(directory.resolve("other.yml"), "implicit_wait: 1\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(changed.await(1, TimeUnit.SECONDS)).isFalse();
+
+            Files.write(file, "implicit_wait: 5\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(changed.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            watcher.stop();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration class for a single iOS device (simulator or physical device)
+ * that tests can be allocated to.
+ * Maps to an entry of the "devices" list in the YAML configuration file.
+ * Entries of a published configuration are frozen (read-only).
+ */
+public class DeviceConfig {
+
+    @JsonProperty("udid")
+    private String udid;
+
+    @JsonProperty("device_name")
+    private String deviceName;
+
+    @JsonProperty("platform_version")
+    private String platformVersion;
+
+    @JsonProperty("appium_server_url")
+    private String appiumServerUrl;
+
+    @JsonProperty("wda_local_port")
+    private Integer wdaLocalPort;
+
+    @JsonIgnore
+    private boolean frozen;
+
+    // Default constructor
+    public DeviceConfig() {
+    }
+
+    /**
+     * Make this device entry read-only
+     * 
+     * @return This device entry
+     */
+    DeviceConfig freeze() {
+        frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Published configuration snapshots are read-only");
+        }
+    }
+
+    // Getters and setters
+    public String getUdid() {
+        return udid;
+    }
+
+    public void setUdid(String udid) {
+        checkMutable();
+        this.udid = udid;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public void setDeviceName(String deviceName) {
+        checkMutable();
+        this.deviceName = deviceName;
+    }
+
+    public String getPlatformVersion() {
+        return platformVersion;
+    }
+
+    public void setPlatformVersion(String platformVersion) {
+        checkMutable();
+        this.platformVersion = platformVersion;
+    }
+
+    public String getAppiumServerUrl() {
+        return appiumServerUrl;
+    }
+
+    public void setAppiumServerUrl(String appiumServerUrl) {
+        checkMutable();
+        this.appiumServerUrl = appiumServerUrl;
+    }
+
+    public Integer getWdaLocalPort() {
+        return wdaLocalPort;
+    }
+
+    public void setWdaLocalPort(Integer wdaLocalPort) {
+        checkMutable();
+        this.wdaLocalPort = wdaLocalPort;
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceConfig{" +
+                "udid='" + udid + '\'' +
+                ", deviceName='" + deviceName + '\'' +
+                ", platformVersion='" + platformVersion + '\'' +
+                ", appiumServerUrl='" + appiumServerUrl + '\'' +
+                ", wdaLocalPort=" + wdaLocalPort +
+                '}';
+    }
+}
@@ -0,0 +1,364 @@
+package org.example.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.config.ConfigManager;
+import org.example.pages.BasePage;
+import org.openqa.selenium.remote.CommandPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * CommandMetrics class collects the latency of every WebDriver command sent by
+ * an {@link InstrumentedIOSDriver}. Latencies are recorded into a
+ * {@link LatencyHistogram} per command, page object class and locator (for
+ * element lookups), and summed per test. The page object is the innermost
+ * {@link BasePage} subclass on the calling thread's stack, looked up only
+ * when command_metrics_pages is enabled; the test is the one started on the
+ * calling thread (see BaseTest), or on the thread that handed the work over
+ * through {@link #inCurrentTest}.
+ * A summary is logged when each test finishes, and everything is exported as
+ * JSON and in the Prometheus text format when the test run finishes.
+ */
+public class CommandMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandMetrics.class);
+    private static final String NONE = "none";
+    private static final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    static final String JSON_FILE = "command-latency.json";
+    static final String PROMETHEUS_FILE = "command-latency.prom";
+
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Key> commandKeys = new ConcurrentHashMap<>();
+    private final Queue<TestSummary> finishedTests = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<TestSummary> currentTest = new ThreadLocal<>();
+
+    private CommandMetrics() {
+    }
+
+    private static class Holder {
+        private static final CommandMetrics INSTANCE = new CommandMetrics();
+    }
+
+    /**
+     * Get the process-wide metrics
+     * 
+     * @return CommandMetrics instance
+     */
+    public static CommandMetrics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Attribute the commands sent from the calling thread to a test
+     * 
+     * @param testName Test name
+     */
+    public void startTest(String testName) {
+        currentTest.set(new TestSummary(testName));
+    }
+
+    /**
+     * Wrap a task so that the commands it sends from another thread are
+     * attributed to the calling thread's test as well
+     * 
+     * @param task Task to run on another thread
+     * @param <T>  Result type
+     * @return Wrapped task, or the task itself outside of a test
+     */
+    public <T> Supplier<T> inCurrentTest(Supplier<T> task) {
+        TestSummary test = currentTest.get();
+        if (test == null) {
+            return task;
+        }
+        return () -> {
+            TestSummary previous = currentTest.get();
+            currentTest.set(test);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    currentTest.set(previous);
+                } else {
+                    currentTest.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Stop attributing commands to the calling thread's test and log its
+     * summary
+     */
+    public void finishTest() {
+        TestSummary test = currentTest.get();
+        currentTest.remove();
+        if (test == null) {
+            return;
+        }
+        finishedTests.add(test);
+        if (test.count > 0) {
+            logger.info("Test {} sent {} command(s) taking {} ms: {}", test.name, test.count,
+                    test.totalNanos / 1_000_000, test.describe());
+        }
+    }
+
+    /**
+     * Record the latency of a command
+     * 
+     * @param payload Command that was sent
+     * @param nanos   Time until the response was received
+     */
+    public void record(CommandPayload payload, long nanos) {
+        String command = payload.getName();
+        String locator = locatorOf(payload);
+        Key key;
+        if (ConfigManager.getInstance().isCommandMetricsPages()) {
+            key = new Key(command, currentPage(), locator);
+        } else if (NONE.equals(locator)) {
+            key = commandKeys.computeIfAbsent(command, c -> new Key(c, NONE, NONE));
+        } else {
+            key = new Key(command, NONE, locator);
+        }
+        histograms.computeIfAbsent(key, k -> new LatencyHistogram()).record(nanos);
+        TestSummary test = currentTest.get();
+        if (test != null) {
+            test.record(command, nanos);
+        }
+    }
+
+    /**
+     * Get the latencies recorded so far, slowest total first
+     * 
+     * @return Rows of command, page, locator, count and latency percentiles
+     */
+    public List<Map<String, Object>> getCommandStats() {
+        List<Map.Entry<Key, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<Key, LatencyHistogram> entry) -> entry.getValue().getTotalNanos()).reversed());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<Key, LatencyHistogram> entry : entries) {
+            LatencyHistogram histogram = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("command", entry.getKey().command);
+            row.put("page", entry.getKey().page);
+            row.put("locator", entry.getKey().locator);
+            row.put("count", histogram.getCount());
+            row.put("totalMs", millis(histogram.getTotalNanos()));
+            row.put("meanMs", millis(histogram.getMeanNanos()));
+            row.put("p50Ms", millis(histogram.getPercentileNanos(50)));
+            row.put("p90Ms", millis(histogram.getPercentileNanos(90)));
+            row.put("p99Ms", millis(histogram.getPercentileNanos(99)));
+            row.put("maxMs", millis(histogram.getMaxNanos()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Write the metrics to a directory as command-latency.json and
+     * command-latency.prom (Prometheus text format)
+     * 
+     * @param directory Output directory, created if needed
+     * @throws IOException if a file cannot be written
+     */
+    public void export(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        List<Map<String, Object>> tests = new ArrayList<>();
+        for (TestSummary test : finishedTests) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("test", test.name);
+            row.put("count", test.count);
+            row.put("totalMs", millis(test.totalNanos));
+            row.put("commands", test.describeAsMap());
+            tests.add(row);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commands", getCommandStats());
+        report.put("tests", tests);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve(JSON_FILE).toFile(), report);
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(PROMETHEUS_FILE), StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+        logger.info("Command metrics written to {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Check whether any command was recorded
+     * 
+     * @return true if there is something to export
+     */
+    public boolean hasData() {
+        return !histograms.isEmpty();
+    }
+
+    private void writePrometheus(Writer writer) throws IOException {
+        writer.write("# HELP webdriver_command_duration_seconds Latency of WebDriver commands\n");
+        writer.write("# TYPE webdriver_command_duration_seconds summary\n");
+        for (Map.Entry<Key, LatencyHistogram> entry : histograms.entrySet()) {
+            String labels = "command=\"" + escape(entry.getKey().command) + "\",page=\""
+                    + escape(entry.getKey().page) + "\",locator=\"" + escape(entry.getKey().locator) + "\"";
+            LatencyHistogram histogram = entry.getValue();
+            for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+                writer.write("webdriver_command_duration_seconds{" + labels + ",quantile=\"" + quantile + "\"} "
+                        + seconds(histogram.getPercentileNanos(quantile * 100)) + "\n");
+            }
+            writer.write("webdriver_command_duration_seconds_sum{" + labels + "} "
+                    + seconds(histogram.getTotalNanos()) + "\n");
+            writer.write("webdriver_command_duration_seconds_count{" + labels + "} " + histogram.getCount() + "\n");
+        }
+
+        writer.write("# HELP webdriver_test_command_duration_seconds Time spent in WebDriver commands per test\n");
+        writer.write("# TYPE webdriver_test_command_duration_seconds summary\n");
+        for (TestSummary test : finishedTests) {
+            for (Map.Entry<String, long[]> command : test.commands.entrySet()) {
+                String labels = "test=\"" + escape(test.name) + "\",command=\"" + escape(command.getKey()) + "\"";
+                writer.write("webdriver_test_command_duration_seconds_sum{" + labels + "} "
+                        + seconds(command.getValue()[1]) + "\n");
+                writer.write("webdriver_test_command_duration_seconds_count{" + labels + "} "
+                        + command.getValue()[0] + "\n");
+            }
+        }
+    }
+
+    /**
+     * Find the innermost page object on the calling thread's stack. Methods
+     * inherited from BasePage are attributed to the page class that called
+     * them, or to BasePage when called directly from a test.
+     */
+    private static String currentPage() {
+        Class<?> page = stackWalker.walk(frames -> {
+            Class<?> found = null;
+            Iterator<Class<?>> types = frames.<Class<?>>map(StackWalker.StackFrame::getDeclaringClass).iterator();
+            while (types.hasNext()) {
+                Class<?> type = types.next();
+                if (BasePage.class.isAssignableFrom(type)) {
+                    if (type != BasePage.class) {
+                        return type;
+                    }
+                    found = type;
+                }
+            }
+            return found;
+        });
+        return page != null ? page.getSimpleName() : NONE;
+    }
+
+    private static String locatorOf(CommandPayload payload) {
+        Object using = payload.getParameters().get("using");
+        Object value = payload.getParameters().get("value");
+        return using != null && value != null ? using + ": " + value : NONE;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1_000_000_000.0);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Key {
+        private final String command;
+        private final String page;
+        private final String locator;
+
+        Key(String command, String page, String locator) {
+            this.command = command;
+            this.page = page;
+            this.locator = locator;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return command.equals(key.command) && page.equals(key.page) && locator.equals(key.locator);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(command, page, locator);
+        }
+    }
+
+    /**
+     * Command counts and time of one test; only touched by the test's thread
+     * until the test finishes
+     */
+    private static final class TestSummary {
+        private final String name;
+        private final Map<String, long[]> commands = new LinkedHashMap<>();
+        private long count;
+        private long totalNanos;
+
+        TestSummary(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(String command, long nanos) {
+            long[] stats = commands.computeIfAbsent(command, c -> new long[3]);
+            stats[0]++;
+            stats[1] += nanos;
+            stats[2] = Math.max(stats[2], nanos);
+            count++;
+            totalNanos += nanos;
+        }
+
+        synchronized String describe() {
+            StringBuilder description = new StringBuilder();
+            commands.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1])
+                            .reversed())
+                    .forEach(entry -> {
+                        if (description.length() > 0) {
+                            description.append(", ");
+                        }
+                        long[] stats = entry.getValue();
+                        description.append(entry.getKey()).append(" ").append(stats[0]).append("x avg ")
+                                .append(stats[1] / stats[0] / 1_000_000).append(" ms");
+                    });
+            return description.toString();
+        }
+
+        Map<String, Object> describeAsMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<String, long[]> entry : commands.entrySet()) {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", entry.getValue()[0]);
+                stats.put("totalMs", millis(entry.getValue()[1]));
+                stats.put("maxMs", millis(entry.getValue()[2]));
+                result.put(entry.getKey(), stats);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.metrics;
+
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.net.URL;
+import java.util.Set;
+
+/**
+ * InstrumentedIOSDriver class is an {@link IOSDriver} that times every command
+ * it sends, including those sent on behalf of its elements, and records the
+ * latency in {@link CommandMetrics}. The time is also attributed to the
+ * {@link TestPhase#COMMAND} phase of the running test, except element lookups
+ * sent while an implicit wait is set, which may block until the element
+ * appears and are attributed to {@link TestPhase#WAIT}. The implicit wait is
+ * tracked from the timeouts this driver sets. Unlike Selenium's EventFiringDecorator,
+ * which wraps the driver in an interface proxy, it is still an AppiumDriver,
+ * so it can be used wherever the plain driver is.
+ */
+public class InstrumentedIOSDriver extends IOSDriver {
+
+    private static final Set<String> FIND_COMMANDS = Set.of(DriverCommand.FIND_ELEMENT, DriverCommand.FIND_ELEMENTS,
+            DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS);
+
+    private volatile long implicitWaitMillis;
+
+    public InstrumentedIOSDriver(URL remoteAddress, Capabilities capabilities) {
+        super(remoteAddress, capabilities);
+    }
+
+    public InstrumentedIOSDriver(URL remoteAddress, HttpClient.Factory httpClientFactory, Capabilities capabilities) {
+        super(remoteAddress, httpClientFactory, capabilities);
+    }
+
+    @Override
+    protected Response execute(CommandPayload payload) {
+        long start = System.nanoTime();
+        TestPhase phase = implicitWaitMillis > 0 && FIND_COMMANDS.contains(payload.getName())
+                ? TestPhase.WAIT
+                : TestPhase.COMMAND;
+        try (TestTimings.Timer ignored = TestTimings.time(phase)) {
+            Response response = super.execute(payload);
+            if (DriverCommand.SET_TIMEOUT.equals(payload.getName())) {
+                Object implicit = payload.getParameters().get("implicit");
+                if (implicit instanceof Number) {
+                    implicitWaitMillis = ((Number) implicit).longValue();
+                }
+            }
+            return response;
+        } finally {
+            CommandMetrics.getInstance().record(payload, System.nanoTime() - start);
+        }
+    }
+}
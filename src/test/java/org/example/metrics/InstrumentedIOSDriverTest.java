@@ -0,0 +1,75 @@
+package org.example.metrics;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.NoSuchElementException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for InstrumentedIOSDriver.
+ * Verifies against a StubAppiumServer that element lookups blocked by an
+ * implicit wait are attributed to waiting and everything else to commands.
+ */
+public class InstrumentedIOSDriverTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private InstrumentedIOSDriver driver;
+
+    @BeforeEach
+    public void startSession() {
+        XCUITestOptions options = new XCUITestOptions()
+                .setDeviceName(stub.getDevice().getDeviceName())
+                .setUdid(stub.getDevice().getUdid());
+        driver = new InstrumentedIOSDriver(stub.getServer().getUrl(), options);
+    }
+
+    @AfterEach
+    public void quitSession() {
+        TestTimings.end();
+        driver.quit();
+    }
+
+    @Test
+    @DisplayName("Lookups under an implicit wait count as waiting")
+    public void testImplicitWaitLookup() {
+        driver.manage().timeouts().implicitlyWait(Duration.ofMillis(500));
+        TestTimings.begin("implicitWait");
+
+        assertThatThrownBy(() -> driver.findElement(AppiumBy.accessibilityId("Missing")))
+                .isInstanceOf(NoSuchElementException.class);
+        driver.getPageSource();
+
+        TestTiming timing = TestTimings.end();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(timing.getPhaseNanos(TestPhase.WAIT))).isGreaterThanOrEqualTo(450);
+        assertThat(timing.getPhaseNanos(TestPhase.COMMAND)).isPositive()
+                .isLessThan(timing.getPhaseNanos(TestPhase.WAIT));
+    }
+
+    @Test
+    @DisplayName("Lookups without an implicit wait count as commands")
+    public void testLookupWithoutImplicitWait() {
+        driver.manage().timeouts().implicitlyWait(Duration.ofMillis(500));
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        TestTimings.begin("noImplicitWait");
+
+        assertThat(driver.findElements(AppiumBy.accessibilityId("Missing"))).isEmpty();
+        driver.findElement(AppiumBy.accessibilityId("Alert Views")).getText();
+
+        TestTiming timing = TestTimings.end();
+        assertThat(timing.getPhaseNanos(TestPhase.WAIT)).isZero();
+        assertThat(timing.getPhaseNanos(TestPhase.COMMAND)).isPositive();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for LatencyHistogram.
+ * Verifies the bucket layout and the accuracy of the reported percentiles.
+ */
+public class LatencyHistogramTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("An empty histogram reports zero")
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMeanNanos()).isZero();
+        assertThat(histogram.getPercentileNanos(50)).isZero();
+        assertThat(histogram.getPercentileNanos(99)).isZero();
+    }
+
+    @Test
+    @DisplayName("Percentiles are within 12.5% above the recorded values")
+    public void testPercentilesOfUniformLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(ms * MS);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getTotalNanos()).isEqualTo(500_500 * MS);
+        assertThat(histogram.getMeanNanos()).isEqualTo(500_500 * MS / 1000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(1000 * MS);
+        assertThat(histogram.getPercentileNanos(50)).isBetween(500 * MS, 500 * MS * 9 / 8);
+        assertThat(histogram.getPercentileNanos(90)).isBetween(900 * MS, 900 * MS * 9 / 8);
+        assertThat(histogram.getPercentileNanos(99)).isBetween(990 * MS, 1000 * MS);
+        assertThat(histogram.getPercentileNanos(100)).isEqualTo(1000 * MS);
+    }
+
+    @Test
+    @DisplayName("Percentiles never exceed the maximum recorded value")
+    public void testPercentileCappedAtMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5_000);
+        histogram.record(123_456_789);
+
+        assertThat(histogram.getPercentileNanos(50)).isBetween(5_000L, 5_999L);
+        assertThat(histogram.getPercentileNanos(100)).isEqualTo(123_456_789);
+    }
+
+    @Test
+    @DisplayName("Skewed latencies report the slow tail")
+    public void testSkewedLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 95; i++) {
+            histogram.record(10 * MS);
+        }
+        for (int i = 0; i < 5; i++) {
+            histogram.record(2000 * MS);
+        }
+
+        assertThat(histogram.getPercentileNanos(50)).isBetween(10 * MS, 10 * MS * 9 / 8);
+        assertThat(histogram.getPercentileNanos(95)).isBetween(10 * MS, 10 * MS * 9 / 8);
+        assertThat(histogram.getPercentileNanos(96)).isEqualTo(2000 * MS);
+    }
+
+    @Test
+    @DisplayName("Every value falls into a bucket whose upper bound is at most 12.5% above it")
+    public void testBucketBounds() {
+        for (long micros = 0; micros < 10_000_000; micros = micros < 64 ? micros + 1 : micros * 17 / 16) {
+            long upperBound = LatencyHistogram.upperBoundMicros(LatencyHistogram.indexOf(micros));
+            assertThat(upperBound).as("upper bound of %d us", micros)
+                    .isGreaterThanOrEqualTo(micros)
+                    .isLessThanOrEqualTo(micros + micros / 8);
+        }
+        assertThat(LatencyHistogram.indexOf(7)).isEqualTo(7);
+        assertThat(LatencyHistogram.indexOf(8)).isEqualTo(8);
+        assertThat(LatencyHistogram.indexOf(1023)).isGreaterThan(LatencyHistogram.indexOf(512));
+    }
+}
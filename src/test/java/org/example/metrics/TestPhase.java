@@ -0,0 +1,26 @@
+package org.example.metrics;
+
+/**
+ * Phases a test's wall-clock time is attributed to by {@link TestTimings}.
+ * Time not covered by any phase (test code, assertions, logging) is reported
+ * as "other".
+ */
+public enum TestPhase {
+    CONFIG("config load"),
+    SESSION("session creation"),
+    PAGE_INIT("page init"),
+    WAIT("waits"),
+    SLEEP("sleeps"),
+    COMMAND("commands"),
+    QUIT("session release");
+
+    private final String label;
+
+    TestPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
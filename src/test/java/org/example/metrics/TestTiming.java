@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+/**
+ * Wall-clock time of one test and its breakdown into {@link TestPhase}s
+ */
+public class TestTiming {
+
+    private final String testName;
+    private final long wallNanos;
+    private final long[] phaseNanos;
+
+    TestTiming(String testName, long wallNanos, long[] phaseNanos) {
+        this.testName = testName;
+        this.wallNanos = wallNanos;
+        this.phaseNanos = phaseNanos.clone();
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getPhaseNanos(TestPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Get the time not attributed to any phase (test code, assertions,
+     * logging)
+     * 
+     * @return Time in nanoseconds
+     */
+    public long getOtherNanos() {
+        long attributed = 0;
+        for (long nanos : phaseNanos) {
+            attributed += nanos;
+        }
+        return Math.max(0, wallNanos - attributed);
+    }
+
+    /**
+     * Describe the breakdown for logging, e.g. "session creation 2100 ms,
+     * commands 840 ms, other 35 ms"
+     * 
+     * @return Breakdown of the phases that took any time
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (TestPhase phase : TestPhase.values()) {
+            long millis = getPhaseNanos(phase) / 1_000_000;
+            if (millis > 0) {
+                description.append(phase.getLabel()).append(' ').append(millis).append(" ms, ");
+            }
+        }
+        return description.append("other ").append(getOtherNanos() / 1_000_000).append(" ms").toString();
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TestTimings class attributes the wall-clock time of each test to
+ * {@link TestPhase}s. Code measures a phase with
+ * <pre>
+ * try (TestTimings.Timer ignored = TestTimings.time(TestPhase.WAIT)) {
+ *     ...
+ * }
+ * </pre>
+ * Phases do not nest: the outermost phase on a thread gets all of its time,
+ * so the commands sent while waiting count as waiting and the session
+ * creation command counts as session creation, and the phases of a test
+ * never add up to more than its wall-clock time. Time measured on a thread
+ * that is not running a test (e.g. loading the configuration before the
+ * first test) is reported for the suite as a whole. Timing allocates nothing.
+ * The session warm-up before the first test is recorded on its own, as the
+ * wall-clock time of warming up every device.
+ */
+public final class TestTimings {
+
+    private static final ThreadLocal<Recorder> recorders = ThreadLocal.withInitial(Recorder::new);
+    private static final Queue<TestTiming> finishedTests = new ConcurrentLinkedQueue<>();
+    private static final LongAdder[] suiteNanos = new LongAdder[TestPhase.values().length];
+    private static final AtomicLong warmUpNanos = new AtomicLong();
+
+    static {
+        for (int i = 0; i < suiteNanos.length; i++) {
+            suiteNanos[i] = new LongAdder();
+        }
+    }
+
+    private TestTimings() {
+    }
+
+    /**
+     * Scope of a measured phase; closing it ends the measurement
+     */
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Start measuring a phase on the calling thread
+     * 
+     * @param phase Phase to attribute the time to
+     * @return Timer to close when the phase ends
+     */
+    public static Timer time(TestPhase phase) {
+        Recorder recorder = recorders.get();
+        recorder.start(phase);
+        return recorder;
+    }
+
+    /**
+     * Start timing a test on the calling thread
+     * 
+     * @param testName Test name
+     */
+    public static void begin(String testName) {
+        recorders.get().begin(testName);
+    }
+
+    /**
+     * Finish timing the calling thread's test
+     * 
+     * @return Timing of the test, or null if no test was started
+     */
+    public static TestTiming end() {
+        TestTiming timing = recorders.get().end();
+        if (timing != null) {
+            finishedTests.add(timing);
+        }
+        return timing;
+    }
+
+    /**
+     * Get the timings of all finished tests
+     * 
+     * @return Test timings in order of completion
+     */
+    public static List<TestTiming> getFinishedTests() {
+        return new ArrayList<>(finishedTests);
+    }
+
+    /**
+     * Get the time spent in a phase outside of any test
+     * 
+     * @param phase Phase
+     * @return Time in nanoseconds
+     */
+    public static long getSuiteNanos(TestPhase phase) {
+        return suiteNanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * Record the wall-clock time of the session warm-up
+     * 
+     * @param nanos Time in nanoseconds
+     */
+    public static void recordWarmUp(long nanos) {
+        warmUpNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Get the wall-clock time of the session warm-up
+     * 
+     * @return Time in nanoseconds, 0 if there was no warm-up
+     */
+    public static long getWarmUpNanos() {
+        return warmUpNanos.get();
+    }
+
+    /**
+     * Per-thread timing state; doubles as the timer returned by time() so
+     * that measuring a phase does not allocate
+     */
+    private static final class Recorder implements Timer {
+        private String testName;
+        private long testStart;
+        private long[] phaseNanos = new long[TestPhase.values().length];
+        private int depth;
+        private TestPhase phase;
+        private long phaseStart;
+
+        void start(TestPhase phase) {
+            if (depth++ == 0) {
+                this.phase = phase;
+                this.phaseStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (depth == 0 || --depth > 0) {
+                return;
+            }
+            long elapsed = System.nanoTime() - phaseStart;
+            if (testName != null) {
+                phaseNanos[phase.ordinal()] += elapsed;
+            } else {
+                suiteNanos[phase.ordinal()].add(elapsed);
+            }
+        }
+
+        void begin(String name) {
+            testName = name;
+            testStart = System.nanoTime();
+            phaseNanos = new long[TestPhase.values().length];
+        }
+
+        TestTiming end() {
+            if (testName == null) {
+                return null;
+            }
+            TestTiming timing = new TestTiming(testName, System.nanoTime() - testStart, phaseNanos);
+            testName = null;
+            return timing;
+        }
+    }
+}
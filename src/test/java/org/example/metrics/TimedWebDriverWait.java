@@ -0,0 +1,25 @@
+package org.example.metrics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait whose waits are attributed to {@link TestPhase#WAIT}, including
+ * the commands sent while polling
+ */
+public class TimedWebDriverWait extends WebDriverWait {
+
+    public TimedWebDriverWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.WAIT)) {
+            return super.until(isTrue);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * TimingReport class aggregates the {@link TestTiming}s of a test run and
+ * writes them as test-timings.json and test-timings.html: the total time per
+ * phase across all tests, the slowest tests with their breakdown, and the
+ * time spent outside of tests (e.g. loading the configuration), including
+ * the session warm-up before the first test.
+ */
+public class TimingReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingReport.class);
+    private static final int SLOWEST_TESTS = 20;
+
+    static final String JSON_FILE = "test-timings.json";
+    static final String HTML_FILE = "test-timings.html";
+
+    private final List<TestTiming> tests;
+    private final long[] suiteNanos = new long[TestPhase.values().length];
+    private final long warmUpNanos;
+
+    /**
+     * Constructor for TimingReport
+     * 
+     * @param tests Timings of the finished tests
+     */
+    public TimingReport(List<TestTiming> tests) {
+        this.tests = new ArrayList<>(tests);
+        this.tests.sort(Comparator.comparingLong(TestTiming::getWallNanos).reversed());
+        for (TestPhase phase : TestPhase.values()) {
+            suiteNanos[phase.ordinal()] = TestTimings.getSuiteNanos(phase);
+        }
+        this.warmUpNanos = TestTimings.getWarmUpNanos();
+    }
+
+    /**
+     * Create a report of the tests finished so far
+     * 
+     * @return TimingReport instance
+     */
+    public static TimingReport fromFinishedTests() {
+        return new TimingReport(TestTimings.getFinishedTests());
+    }
+
+    public boolean isEmpty() {
+        return tests.isEmpty();
+    }
+
+    /**
+     * Write the report files to a directory
+     * 
+     * @param directory Output directory, created if needed
+     * @throws IOException if a file cannot be written
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve(JSON_FILE).toFile(), toMap());
+        Files.write(directory.resolve(HTML_FILE), toHtml().getBytes(StandardCharsets.UTF_8));
+        logger.info("Test timing report written to {}", directory.resolve(HTML_FILE).toAbsolutePath());
+    }
+
+    /**
+     * Get the total time of each phase across all tests, slowest first
+     * 
+     * @return Phase label to time in milliseconds
+     */
+    public Map<String, Double> getPhaseTotals() {
+        long[] totals = new long[TestPhase.values().length];
+        long other = 0;
+        for (TestTiming test : tests) {
+            for (TestPhase phase : TestPhase.values()) {
+                totals[phase.ordinal()] += test.getPhaseNanos(phase);
+            }
+            other += test.getOtherNanos();
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (TestPhase phase : TestPhase.values()) {
+            entries.add(Map.entry(phase.getLabel(), totals[phase.ordinal()]));
+        }
+        entries.add(Map.entry("other", other));
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            result.put(entry.getKey(), millis(entry.getValue()));
+        }
+        return result;
+    }
+
+    private Map<String, Object> toMap() {
+        long wall = 0;
+        for (TestTiming test : tests) {
+            wall += test.getWallNanos();
+        }
+        Map<String, Object> suite = new LinkedHashMap<>();
+        for (TestPhase phase : TestPhase.values()) {
+            if (suiteNanos[phase.ordinal()] > 0) {
+                suite.put(phase.getLabel(), millis(suiteNanos[phase.ordinal()]));
+            }
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (TestTiming test : tests) {
+            rows.add(toMap(test));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("testCount", tests.size());
+        report.put("totalMs", millis(wall));
+        report.put("warmUpMs", millis(warmUpNanos));
+        report.put("phaseTotalsMs", getPhaseTotals());
+        report.put("outsideTestsMs", suite);
+        report.put("tests", rows);
+        return report;
+    }
+
+    private static Map<String, Object> toMap(TestTiming test) {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (TestPhase phase : TestPhase.values()) {
+            phases.put(phase.getLabel(), millis(test.getPhaseNanos(phase)));
+        }
+        phases.put("other", millis(test.getOtherNanos()));
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("test", test.getTestName());
+        row.put("wallMs", millis(test.getWallNanos()));
+        row.put("phasesMs", phases);
+        return row;
+    }
+
+    private String toHtml() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Test timings</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:2em}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append("td:first-child,th:first-child{text-align:left}</style></head><body>\n")
+                .append("<h1>Test timings</h1>\n<p>").append(tests.size()).append(" test(s)</p>\n");
+        if (warmUpNanos > 0) {
+            html.append("<p>Session warm-up before the first test: ").append(format(millis(warmUpNanos)))
+                    .append(" ms</p>\n");
+        }
+
+        html.append("<h2>Time per phase (all tests)</h2>\n<table><tr><th>Phase</th><th>ms</th></tr>\n");
+        for (Map.Entry<String, Double> phase : getPhaseTotals().entrySet()) {
+            html.append("<tr><td>").append(escape(phase.getKey())).append("</td><td>")
+                    .append(format(phase.getValue())).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>Slowest tests</h2>\n<table><tr><th>Test</th><th>Total ms</th>");
+        for (TestPhase phase : TestPhase.values()) {
+            html.append("<th>").append(escape(phase.getLabel())).append("</th>");
+        }
+        html.append("<th>other</th></tr>\n");
+        for (TestTiming test : tests.subList(0, Math.min(SLOWEST_TESTS, tests.size()))) {
+            html.append("<tr><td>").append(escape(test.getTestName())).append("</td><td>")
+                    .append(format(millis(test.getWallNanos()))).append("</td>");
+            for (TestPhase phase : TestPhase.values()) {
+                html.append("<td>").append(format(millis(test.getPhaseNanos(phase)))).append("</td>");
+            }
+            html.append("<td>").append(format(millis(test.getOtherNanos()))).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>Outside of tests</h2>\n<table><tr><th>Phase</th><th>ms</th></tr>\n");
+        for (TestPhase phase : TestPhase.values()) {
+            if (suiteNanos[phase.ordinal()] > 0) {
+                html.append("<tr><td>").append(escape(phase.getLabel())).append("</td><td>")
+                        .append(format(millis(suiteNanos[phase.ordinal()]))).append("</td></tr>\n");
+            }
+        }
+        return html.append("</table>\n</body></html>\n").toString();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
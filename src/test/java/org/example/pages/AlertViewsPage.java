@@ -6,10 +6,16 @@ import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * AlertViewsPage class represents the main/home screen of the iOS application.
  * This class contains all the elements and actions related to the home page.
+ * Its deep link is handled by the stub app only (navigation_deep_links is
+ * off by default).
  */
+@Screen(deepLink = "uikitcatalog://alertviews")
 public class AlertViewsPage extends BasePage {
 
     private static final Logger logger = LoggerFactory.getLogger(AlertViewsPage.class);
@@ -18,6 +24,9 @@ public class AlertViewsPage extends BasePage {
     @iOSXCUITFindBy(className = "Alert Views")
     private WebElement alertViewsLabel;
 
+    @iOSXCUITFindBy(iOSClassChain = "**/XCUIElementTypeNavigationBar/XCUIElementTypeButton[`name == 'UIKitCatalog'`]")
+    private WebElement backButton;
+
     @iOSXCUITFindBy(accessibility = "Okay / Cancel")
     private WebElement okayCancelButton;
 
@@ -40,6 +49,16 @@ public class AlertViewsPage extends BasePage {
         logger.info("AlertViewsPage initialized");
     }
 
+    /**
+     * The alert views page is ready once its alert style rows are displayed
+     * 
+     * @return Readiness anchors
+     */
+    @Override
+    protected List<WebElement> getReadinessAnchors() {
+        return Collections.singletonList(okayCancelButton);
+    }
+
     /**
      * Check if the alert views page is displayed
      * 
@@ -47,7 +66,7 @@ public class AlertViewsPage extends BasePage {
      */
     public boolean isAlertViewsPageDisplayed() {
         logger.debug("Checking if alert views page is displayed");
-        return isElementDisplayed(alertViewsLabel);
+        return waitForSnapshot(() -> isDisplayedInSnapshot("alertViewsLabel"));
     }
 
     /**
@@ -57,8 +76,8 @@ public class AlertViewsPage extends BasePage {
      */
     public String getAlertViewsText() {
         logger.debug("Getting alert views text");
-        if (isElementDisplayed(alertViewsLabel)) {
-            return alertViewsLabel.getText();
+        if (isAlertViewsPageDisplayed()) {
+            return getTextFromSnapshot("alertViewsLabel");
         }
         return "";
     }
@@ -68,13 +87,28 @@ public class AlertViewsPage extends BasePage {
      */
     public void waitForAlertViewsPageToLoad() {
         logger.info("Waiting for alert views page to load");
-        waitForSeconds(2);
+        waitForPageReady();
+    }
+
+    /**
+     * Go back to the home page with the navigation bar's back button
+     */
+    @NavigatesTo(HomePage.class)
+    public void goBack() {
+        logger.info("Clicking back button");
+        if (isElementDisplayed(backButton)) {
+            backButton.click();
+            invalidateSnapshot();
+        } else {
+            logger.warn("Back button is not displayed");
+        }
     }
 
     public void clickOkayCancelButton() {
         logger.info("Clicking Okan / Cancel button");
         if (isElementDisplayed(okayCancelButton)) {
             okayCancelButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Okay / Cancel button is not displayed");
         }
@@ -2,22 +2,63 @@ package org.example.pages;
 
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.example.config.ConfigManager;
+import org.example.metrics.TestPhase;
+import org.example.metrics.TestTimings;
+import org.example.utils.AdaptiveWait;
+import org.example.utils.CachingFieldDecorator;
+import org.example.utils.ImplicitWaitScope;
+import org.example.utils.PageElements;
+import org.example.utils.PageFieldLocator;
+import org.example.utils.PageMetadata;
+import org.example.utils.PageSnapshot;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 /**
  * Base page class that provides common functionality for all page objects.
  * This class handles page initialization and common page operations.
+ * Pages declare the anchor elements that show they are ready through
+ * {@link #getReadinessAnchors()}, and {@link #waitForPageReady()} returns as
+ * soon as all of them are displayed.
+ * Probes such as {@link #isElementDisplayedNow(WebElement)} and
+ * {@link #waitForAbsent(WebElement)} run with the implicit wait suspended, so
+ * a missing element is reported immediately.
+ * Several elements can be checked in one round-trip through a
+ * {@link PageSnapshot} of the screen; the cached snapshot is invalidated by
+ * page actions through {@link #invalidateSnapshot()}, and
+ * {@link #waitForSnapshot(BooleanSupplier)} verifies a screen with one
+ * getPageSource() call once it is shown.
+ * The @iOSXCUITFindBy WebElement fields are lazy {@link PageElements} handles
+ * described by the per-class {@link PageMetadata}; with the element cache
+ * enabled they resolve their element once per page instance. With
+ * lazy_page_init the handles are bound directly, so constructing a page
+ * neither scans annotations nor creates proxies; pages with fields only
+ * PageFactory supports, and every page without lazy_page_init, are
+ * initialized by PageFactory, through a {@link CachingFieldDecorator} that
+ * hands out the same handles when the cache is enabled.
+ * Pages are best obtained from the session's {@link PageRegistry}, which
+ * reuses them; all pages built by the registry share its wait.
  */
 public abstract class BasePage {
 
     protected static final Logger logger = LoggerFactory.getLogger(BasePage.class);
     protected AppiumDriver driver;
     protected WebDriverWait wait;
+    private PageSnapshot snapshot;
+    private PageElements pageElements;
 
     /**
      * Constructor for BasePage
@@ -26,10 +67,25 @@ public abstract class BasePage {
      */
     public BasePage(AppiumDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        // Shared by the pages of a session when built through its registry
+        this.wait = PageRegistry.waitFor(driver);
 
-        // Initialize page elements using AppiumFieldDecorator
-        PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+        // Bind page elements lazily, or initialize them using PageFactory (behind the lookup cache if enabled)
+        ConfigManager configManager = ConfigManager.getInstance();
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.PAGE_INIT)) {
+            boolean cached = configManager.isElementCacheEnabled();
+            PageMetadata metadata = configManager.isLazyPageInit() || cached ? PageMetadata.of(getClass()) : null;
+            if (metadata != null) {
+                pageElements = new PageElements(driver, metadata, cached, configManager.getElementCacheInvalidateOn());
+            }
+            if (metadata != null && configManager.isLazyPageInit() && !metadata.needsPageFactory()) {
+                metadata.bind(this, pageElements);
+            } else if (cached) {
+                PageFactory.initElements(new CachingFieldDecorator(driver, metadata, pageElements), this);
+            } else {
+                PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+            }
+        }
 
         logger.debug("Initialized page: {}", this.getClass().getSimpleName());
     }
@@ -52,13 +108,168 @@ public abstract class BasePage {
         return wait;
     }
 
+    /**
+     * Get a snapshot of the current screen, capturing one if there is no
+     * valid snapshot
+     * 
+     * @return PageSnapshot instance
+     */
+    protected PageSnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = PageSnapshot.capture(driver);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard the cached snapshot. Page actions that change the screen call
+     * this so that the next query sees the new state.
+     */
+    protected void invalidateSnapshot() {
+        snapshot = null;
+    }
+
+    /**
+     * Forget the page elements resolved so far, so that the next access looks
+     * them up again
+     */
+    protected void invalidateElementCache() {
+        if (pageElements != null) {
+            pageElements.invalidate();
+        }
+    }
+
+    /**
+     * Check if a page element is displayed according to the snapshot
+     * 
+     * @param fieldName Name of the @iOSXCUITFindBy page field
+     * @return true if element is displayed, false otherwise
+     */
+    protected boolean isDisplayedInSnapshot(String fieldName) {
+        return PageSnapshot.isFirstDisplayed(getSnapshot().findAll(findPageField(fieldName)));
+    }
+
+    /**
+     * Get the text of a page element according to the snapshot
+     * 
+     * @param fieldName Name of the @iOSXCUITFindBy page field
+     * @return Element text or empty string if not found
+     */
+    protected String getTextFromSnapshot(String fieldName) {
+        return PageSnapshot.getFirstText(getSnapshot().findAll(findPageField(fieldName)));
+    }
+
+    /**
+     * Report the visibility of every @iOSXCUITFindBy element on this page
+     * from a single fresh snapshot of the screen
+     * 
+     * @return Field name to displayed flag, in declaration order
+     */
+    public Map<String, Boolean> getElementVisibility() {
+        invalidateSnapshot();
+        PageSnapshot current = getSnapshot();
+        Map<String, Boolean> visibility = new LinkedHashMap<>();
+        for (Class<?> type = getClass(); type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (PageFieldLocator.isLocatable(field)) {
+                    visibility.putIfAbsent(field.getName(), PageSnapshot.isFirstDisplayed(current.findAll(field)));
+                }
+            }
+        }
+        return visibility;
+    }
+
+    /**
+     * Wait for a check against the snapshot to pass, capturing a fresh
+     * snapshot for every attempt. The configured implicit wait is the
+     * timeout, as for a single element lookup, so a screen that is already
+     * shown is verified with one getPageSource() call.
+     * 
+     * @param check Check using {@link #isDisplayedInSnapshot(String)} and
+     *              {@link #getTextFromSnapshot(String)}
+     * @return true if the check passed, false if the wait timed out
+     */
+    protected boolean waitForSnapshot(BooleanSupplier check) {
+        return new AdaptiveWait(ImplicitWaitScope.getConfiguredImplicitWait()).until(() -> {
+            invalidateSnapshot();
+            return check.getAsBoolean();
+        });
+    }
+
+    private Field findPageField(String fieldName) {
+        for (Class<?> type = getClass(); type != BasePage.class; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                // Keep looking in the superclass
+            }
+        }
+        throw new IllegalArgumentException("No page field named " + fieldName + " on " + getClass().getSimpleName());
+    }
+
+    /**
+     * Get the anchor elements that must be displayed for this page to be
+     * considered ready. Pages override this to declare their anchors.
+     * 
+     * @return Anchor elements (empty by default)
+     */
+    protected List<WebElement> getReadinessAnchors() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Check whether every readiness anchor of this page is displayed
+     * 
+     * @return true if the page is ready
+     */
+    public boolean isPageReady() {
+        for (WebElement anchor : getReadinessAnchors()) {
+            if (!isElementDisplayedNow(anchor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wait for the page to be ready, using the configured explicit wait as the
+     * timeout
+     * 
+     * @return true if the page became ready, false if the wait timed out
+     */
+    public boolean waitForPageReady() {
+        return waitForPageReady(Duration.ofSeconds(ConfigManager.getInstance().getExplicitWait()));
+    }
+
+    /**
+     * Wait for the page to be ready. The anchors are polled with adaptive
+     * backoff, so a page that is ready quickly is detected quickly.
+     * 
+     * @param timeout Maximum time to wait
+     * @return true if the page became ready, false if the wait timed out
+     */
+    public boolean waitForPageReady(Duration timeout) {
+        long start = System.nanoTime();
+        boolean ready;
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            ready = new AdaptiveWait(timeout).until(this::isPageReady);
+        }
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        if (ready) {
+            logger.debug("{} ready after {} ms", getClass().getSimpleName(), elapsedMs);
+        } else {
+            logger.warn("{} not ready after {} ms", getClass().getSimpleName(), elapsedMs);
+        }
+        return ready;
+    }
+
     /**
      * Wait for a specific duration
      * 
      * @param seconds Number of seconds to wait
      */
     protected void waitForSeconds(int seconds) {
-        try {
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.SLEEP)) {
             Thread.sleep(seconds * 1000L);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -80,4 +291,41 @@ public abstract class BasePage {
             return false;
         }
     }
+
+    /**
+     * Check if an element is displayed right now, without waiting for it to
+     * appear
+     * 
+     * @param element The element to check
+     * @return true if element is displayed, false otherwise
+     */
+    protected boolean isElementDisplayedNow(WebElement element) {
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            return isElementDisplayed(element);
+        }
+    }
+
+    /**
+     * Wait for an element to be absent or hidden, using the configured
+     * explicit wait as the timeout
+     * 
+     * @param element The element to check
+     * @return true if the element is gone, false if it is still displayed
+     */
+    protected boolean waitForAbsent(WebElement element) {
+        return waitForAbsent(element, Duration.ofSeconds(ConfigManager.getInstance().getExplicitWait()));
+    }
+
+    /**
+     * Wait for an element to be absent or hidden
+     * 
+     * @param element The element to check
+     * @param timeout Maximum time to wait
+     * @return true if the element is gone, false if it is still displayed
+     */
+    protected boolean waitForAbsent(WebElement element, Duration timeout) {
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            return new AdaptiveWait(timeout).until(() -> !isElementDisplayed(element));
+        }
+    }
 }
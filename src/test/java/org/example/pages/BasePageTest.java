@@ -0,0 +1,88 @@
+package org.example.pages;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.stub.StubApp;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for BasePage.
+ * Runs the pages against an in-process StubAppiumServer, whose Alert Views
+ * screen takes 150 ms to load.
+ */
+public class BasePageTest {
+
+    private static final String APP_WITH_WELCOME = "<app bundleId='com.example.app' initialScreen='Home'>"
+            + "<screen name='Home'><XCUIElementTypeApplication name='App'>"
+            + "<XCUIElementTypeStaticText name='Welcome' value='Welcome back'/>"
+            + "<XCUIElementTypeCell name='Alert Views'/>"
+            + "</XCUIElementTypeApplication></screen>"
+            + "</app>";
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private AppiumDriver driver;
+
+    @BeforeEach
+    public void createSession() {
+        driver = stub.newDriver();
+    }
+
+    @Test
+    @DisplayName("A page is ready once its anchors are displayed")
+    public void testWaitForPageReady() {
+        assertThat(new HomePage(driver).waitForPageReady(Duration.ofSeconds(2))).isTrue();
+
+        driver.findElement(AppiumBy.accessibilityId("Alert Views")).click();
+        AlertViewsPage alertViews = new AlertViewsPage(driver);
+
+        assertThat(alertViews.isPageReady()).isFalse();
+        assertThat(alertViews.waitForPageReady(Duration.ofSeconds(2))).isTrue();
+        assertThat(alertViews.isPageReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Waiting for a page that is not shown times out")
+    public void testWaitForPageReadyTimeout() {
+        long start = System.nanoTime();
+
+        assertThat(new AlertViewsPage(driver).waitForPageReady(Duration.ofMillis(300))).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isBetween(300L, 2000L);
+    }
+
+    @Test
+    @DisplayName("An action right after a screen transition waits for its element")
+    public void testActionAfterTransition() {
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
+        new HomePage(driver).clickAlertViews();
+
+        new AlertViewsPage(driver).goBack();
+
+        assertThat(driver.findElements(AppiumBy.accessibilityId("Activity Indicators"))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("A page check reads one snapshot of the screen")
+    public void testSnapshotPageCheck() {
+        stub.getServer().setApp(StubApp.fromXml(
+                new ByteArrayInputStream(APP_WITH_WELCOME.getBytes(StandardCharsets.UTF_8))));
+        HomePage homePage = new HomePage(stub.newDriver());
+
+        assertThat(homePage.isHomePageDisplayed()).isTrue();
+        assertThat(stub.getServer().getCommandCount("getPageSource")).isEqualTo(1);
+        assertThat(homePage.getWelcomeText()).isEqualTo("Welcome back");
+        assertThat(stub.getServer().getCommandCount("getPageSource")).isEqualTo(2);
+        assertThat(stub.getServer().getCommandCount("findElement")).isZero();
+    }
+}
@@ -6,10 +6,14 @@ import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * HomePage class represents the main/home screen of the iOS application.
  * This class contains all the elements and actions related to the home page.
  */
+@Screen(launch = true)
 public class HomePage extends BasePage {
 
     private static final Logger logger = LoggerFactory.getLogger(HomePage.class);
@@ -46,6 +50,16 @@ public class HomePage extends BasePage {
         logger.info("HomePage initialized");
     }
 
+    /**
+     * The home page is ready once its navigation rows are displayed
+     * 
+     * @return Readiness anchors
+     */
+    @Override
+    protected List<WebElement> getReadinessAnchors() {
+        return Collections.singletonList(alertViewsButton);
+    }
+
     /**
      * Check if the home page is displayed
      * 
@@ -53,7 +67,7 @@ public class HomePage extends BasePage {
      */
     public boolean isHomePageDisplayed() {
         logger.debug("Checking if home page is displayed");
-        return isElementDisplayed(welcomeLabel);
+        return waitForSnapshot(() -> isDisplayedInSnapshot("welcomeLabel"));
     }
 
     /**
@@ -63,6 +77,7 @@ public class HomePage extends BasePage {
         logger.info("Clicking Get Started button");
         if (isElementDisplayed(getStartedButton)) {
             getStartedButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Get Started button is not displayed");
         }
@@ -75,6 +90,7 @@ public class HomePage extends BasePage {
         logger.info("Clicking Settings button");
         if (isElementDisplayed(settingsButton)) {
             settingsButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Settings button is not displayed");
         }
@@ -87,6 +103,7 @@ public class HomePage extends BasePage {
         logger.info("Clicking Profile button");
         if (isElementDisplayed(profileButton)) {
             profileButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Profile button is not displayed");
         }
@@ -102,6 +119,7 @@ public class HomePage extends BasePage {
         if (isElementDisplayed(searchField)) {
             searchField.clear();
             searchField.sendKeys(searchText);
+            invalidateSnapshot();
         } else {
             logger.warn("Search field is not displayed");
         }
@@ -114,6 +132,7 @@ public class HomePage extends BasePage {
         logger.info("Clicking Menu button");
         if (isElementDisplayed(menuButton)) {
             menuButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Menu button is not displayed");
         }
@@ -122,10 +141,12 @@ public class HomePage extends BasePage {
     /**
      * Click on the Alert Views button
      */
+    @NavigatesTo(AlertViewsPage.class)
     public void clickAlertViews() {
         logger.info("Clicking Alert Views button");
         if (isElementDisplayed(alertViewsButton)) {
             alertViewsButton.click();
+            invalidateSnapshot();
         } else {
             logger.warn("Alert Views button is not displayed");
         }
@@ -138,8 +159,8 @@ public class HomePage extends BasePage {
      */
     public String getWelcomeText() {
         logger.debug("Getting welcome text");
-        if (isElementDisplayed(welcomeLabel)) {
-            return welcomeLabel.getText();
+        if (isHomePageDisplayed()) {
+            return getTextFromSnapshot("welcomeLabel");
         }
         return "";
     }
@@ -149,6 +170,6 @@ public class HomePage extends BasePage {
      */
     public void waitForHomePageToLoad() {
         logger.info("Waiting for home page to load");
-        waitForSeconds(2);
+        waitForPageReady();
     }
 }
@@ -0,0 +1,26 @@
+package org.example.pages;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public, parameterless page method that leads to another screen, e.g.
+ * <pre>
+ * &#64;NavigatesTo(AlertViewsPage.class)
+ * public void clickAlertViews() { ... }
+ * </pre>
+ * Such methods are the transitions of the {@link NavigationGraph}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface NavigatesTo {
+
+    /**
+     * Page shown after the method returns
+     */
+    Class<? extends BasePage> value();
+}
@@ -0,0 +1,368 @@
+package org.example.pages;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * NavigationGraph class describes how the screens of the app are connected.
+ * The screens are page classes and the edges are the ways to get from one to
+ * another:
+ * <ul>
+ * <li>transitions, the page methods annotated with {@link NavigatesTo}</li>
+ * <li>deep links, opening a screen with a {@link Screen#deepLink()} from
+ * anywhere</li>
+ * <li>app activation, relaunching the app to reach its
+ * {@link Screen#launch()} screen from anywhere</li>
+ * </ul>
+ * Pages are added with every page they lead to, so including the target of a
+ * navigation is enough to discover the screens around it. Every edge starts
+ * with an estimated cost and then uses the measured time of following it
+ * (action plus page readiness), smoothed over the run, so the
+ * {@link Navigator} routes over the path that is actually the fastest.
+ * An edge that fails or does not reach its screen is costed as at least
+ * {@link #FAILURE_COST_MS}, so routes avoid it until it has proven itself
+ * again. The graph is shared by all sessions of the run.
+ */
+public class NavigationGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(NavigationGraph.class);
+
+    static final String COSTS_FILE = "navigation.json";
+
+    /**
+     * Estimated costs (ms) of edges that have not been followed yet
+     */
+    static final double TRANSITION_ESTIMATE_MS = 1000;
+    static final double DEEP_LINK_ESTIMATE_MS = 2000;
+    static final double ACTIVATION_ESTIMATE_MS = 4000;
+
+    /**
+     * Cost (ms) recorded for a failed edge, unless the failure took longer
+     */
+    static final double FAILURE_COST_MS = 30_000;
+
+    /**
+     * Weight of a new measurement in an edge's cost
+     */
+    private static final double SMOOTHING = 0.3;
+
+    private static final NavigationGraph instance = new NavigationGraph();
+
+    private final Set<Class<? extends BasePage>> screens = ConcurrentHashMap.newKeySet();
+    private final Map<Class<? extends BasePage>, List<Edge>> transitions = new ConcurrentHashMap<>();
+    private final List<Edge> shortcuts = new CopyOnWriteArrayList<>();
+
+    /**
+     * Get the graph shared by all sessions
+     * 
+     * @return NavigationGraph instance
+     */
+    public static NavigationGraph getInstance() {
+        return instance;
+    }
+
+    /**
+     * Add a page and every page reachable through its transitions
+     * 
+     * @param pageClass Page object class
+     */
+    public synchronized void include(Class<? extends BasePage> pageClass) {
+        List<Class<? extends BasePage>> pending = new ArrayList<>();
+        pending.add(pageClass);
+        while (!pending.isEmpty()) {
+            Class<? extends BasePage> page = pending.remove(pending.size() - 1);
+            if (!screens.add(page)) {
+                continue;
+            }
+            List<Edge> edges = new CopyOnWriteArrayList<>();
+            for (Method method : page.getMethods()) {
+                NavigatesTo navigatesTo = method.getAnnotation(NavigatesTo.class);
+                if (navigatesTo == null) {
+                    continue;
+                }
+                if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())) {
+                    throw new IllegalArgumentException("@NavigatesTo method " + page.getSimpleName() + "."
+                            + method.getName() + " must be a parameterless instance method");
+                }
+                edges.add(new Edge(Edge.Kind.TRANSITION, page, navigatesTo.value(), method, null,
+                        TRANSITION_ESTIMATE_MS));
+                pending.add(navigatesTo.value());
+            }
+            transitions.put(page, edges);
+
+            Screen screen = page.getAnnotation(Screen.class);
+            if (screen != null && !screen.deepLink().isEmpty()) {
+                shortcuts.add(new Edge(Edge.Kind.DEEP_LINK, null, page, null, screen.deepLink(),
+                        DEEP_LINK_ESTIMATE_MS));
+            }
+            if (screen != null && screen.launch()) {
+                shortcuts.add(new Edge(Edge.Kind.ACTIVATION, null, page, null, null, ACTIVATION_ESTIMATE_MS));
+            }
+            logger.debug("Navigation graph: added {} with {} transition(s)", page.getSimpleName(), edges.size());
+        }
+    }
+
+    /**
+     * Get the screens added so far
+     * 
+     * @return Unmodifiable set of page classes
+     */
+    public Set<Class<? extends BasePage>> getScreens() {
+        return Collections.unmodifiableSet(screens);
+    }
+
+    /**
+     * Find the cheapest path between two screens (Dijkstra)
+     * 
+     * @param from   Current screen, or null if it is unknown (then only
+     *               shortcuts can start the path)
+     * @param to     Target screen
+     * @param usable Edges the route may use, e.g. no deep links or no edges
+     *               that already failed in the session
+     * @return Edges to follow in order, empty if already there, or null if the
+     *         target cannot be reached
+     */
+    List<Edge> route(Class<? extends BasePage> from, Class<? extends BasePage> to, Predicate<Edge> usable) {
+        // HashMaps, as an unknown start screen is a null key
+        Map<Class<?>, Double> costs = new HashMap<>();
+        Map<Class<?>, Edge> via = new HashMap<>();
+        Map<Class<?>, Class<?>> previous = new HashMap<>();
+        PriorityQueue<Step> queue = new PriorityQueue<>(Comparator.comparingDouble(step -> step.cost));
+        costs.put(from, 0.0);
+        queue.add(new Step(from, 0.0));
+        while (!queue.isEmpty()) {
+            Step step = queue.poll();
+            if (step.cost > costs.get(step.screen)) {
+                continue;
+            }
+            if (Objects.equals(step.screen, to)) {
+                break;
+            }
+            for (Edge edge : edgesFrom(step.screen, usable)) {
+                double cost = step.cost + edge.getCostMs();
+                Double known = costs.get(edge.getTo());
+                if (known == null || cost < known) {
+                    costs.put(edge.getTo(), cost);
+                    via.put(edge.getTo(), edge);
+                    previous.put(edge.getTo(), step.screen);
+                    queue.add(new Step(edge.getTo(), cost));
+                }
+            }
+        }
+        if (!costs.containsKey(to)) {
+            return null;
+        }
+        LinkedList<Edge> path = new LinkedList<>();
+        for (Class<?> screen = to; !Objects.equals(screen, from); screen = previous.get(screen)) {
+            path.addFirst(via.get(screen));
+        }
+        return path;
+    }
+
+    private List<Edge> edgesFrom(Class<?> screen, Predicate<Edge> usable) {
+        List<Edge> edges = new ArrayList<>();
+        if (screen != null) {
+            for (Edge transition : transitions.getOrDefault(screen, Collections.emptyList())) {
+                if (usable.test(transition)) {
+                    edges.add(transition);
+                }
+            }
+        }
+        for (Edge shortcut : shortcuts) {
+            if (shortcut.getTo() != screen && usable.test(shortcut)) {
+                edges.add(shortcut);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Check whether any edge has been followed
+     * 
+     * @return true if there are measured costs to export
+     */
+    public boolean hasData() {
+        for (Edge edge : edges()) {
+            if (edge.getCount() > 0 || edge.getFailures() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the cost of every edge
+     * 
+     * @return Rows of edge, kind, cost, number of times followed and number of
+     *         failures
+     */
+    public List<Map<String, Object>> getCosts() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Edge edge : edges()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("edge", edge.toString());
+            row.put("kind", edge.getKind().name().toLowerCase());
+            row.put("costMs", Math.round(edge.getCostMs() * 100.0) / 100.0);
+            row.put("count", edge.getCount());
+            row.put("failures", edge.getFailures());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Write the edge costs to a directory as navigation.json
+     * 
+     * @param directory Output directory, created if needed
+     * @throws IOException if the file cannot be written
+     */
+    public void exportCosts(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve(COSTS_FILE).toFile(), getCosts());
+    }
+
+    private List<Edge> edges() {
+        List<Edge> edges = new ArrayList<>();
+        for (List<Edge> pageEdges : transitions.values()) {
+            edges.addAll(pageEdges);
+        }
+        edges.addAll(shortcuts);
+        return edges;
+    }
+
+    private static final class Step {
+        private final Class<?> screen;
+        private final double cost;
+
+        Step(Class<?> screen, double cost) {
+            this.screen = screen;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * One way to reach a screen, with its smoothed cost
+     */
+    static final class Edge {
+
+        enum Kind {
+            TRANSITION,
+            DEEP_LINK,
+            ACTIVATION
+        }
+
+        private final Kind kind;
+        private final Class<? extends BasePage> from;
+        private final Class<? extends BasePage> to;
+        private final Method method;
+        private final String url;
+        private double costMs;
+        private int count;
+        private int failures;
+
+        Edge(Kind kind, Class<? extends BasePage> from, Class<? extends BasePage> to, Method method, String url,
+                double estimateMs) {
+            this.kind = kind;
+            this.from = from;
+            this.to = to;
+            this.method = method;
+            this.url = url;
+            this.costMs = estimateMs;
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return Screen the edge starts from, or null for a shortcut
+         */
+        Class<? extends BasePage> getFrom() {
+            return from;
+        }
+
+        Class<? extends BasePage> getTo() {
+            return to;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        synchronized double getCostMs() {
+            return costMs;
+        }
+
+        synchronized int getCount() {
+            return count;
+        }
+
+        synchronized int getFailures() {
+            return failures;
+        }
+
+        /**
+         * Record the time of following this edge; the first measurement replaces
+         * the estimate
+         * 
+         * @param nanos Time from the start of the action until the target was
+         *              ready
+         */
+        synchronized void record(long nanos) {
+            double ms = nanos / 1_000_000.0;
+            costMs = count == 0 ? ms : costMs + SMOOTHING * (ms - costMs);
+            count++;
+        }
+
+        /**
+         * Record a failed attempt to follow this edge, costed as at least
+         * {@link #FAILURE_COST_MS}
+         * 
+         * @param nanos Time from the start of the action until the failure
+         */
+        synchronized void recordFailure(long nanos) {
+            double ms = Math.max(nanos / 1_000_000.0, FAILURE_COST_MS);
+            costMs = Math.max(costMs, ms);
+            failures++;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case TRANSITION:
+                    return from.getSimpleName() + "." + method.getName() + " -> " + to.getSimpleName();
+                case DEEP_LINK:
+                    return "deep link " + url + " -> " + to.getSimpleName();
+                default:
+                    return "app launch -> " + to.getSimpleName();
+            }
+        }
+    }
+}
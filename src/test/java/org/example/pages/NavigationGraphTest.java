@@ -0,0 +1,106 @@
+package org.example.pages;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Test class for NavigationGraph.
+ * Verifies screen discovery and the cheapest routes between the pages of the
+ * app, without a driver session.
+ */
+public class NavigationGraphTest {
+
+    private NavigationGraph graph;
+
+    @BeforeEach
+    public void createGraph() {
+        graph = new NavigationGraph();
+        graph.include(AlertViewsPage.class);
+    }
+
+    @Test
+    @DisplayName("Including a page adds the pages its transitions lead to")
+    public void testInclude() {
+        assertThat(graph.getScreens()).containsExactlyInAnyOrder(AlertViewsPage.class, HomePage.class);
+        assertThat(graph.hasData()).isFalse();
+        assertThat(graph.getCosts()).extracting(row -> row.get("edge")).containsExactlyInAnyOrder(
+                "HomePage.clickAlertViews -> AlertViewsPage",
+                "AlertViewsPage.goBack -> HomePage",
+                "deep link uikitcatalog://alertviews -> AlertViewsPage",
+                "app launch -> HomePage");
+    }
+
+    @Test
+    @DisplayName("A known screen routes over its transitions")
+    public void testRouteFromKnownScreen() {
+        List<NavigationGraph.Edge> route = graph.route(HomePage.class, AlertViewsPage.class, edge -> true);
+
+        assertThat(route).hasSize(1);
+        assertThat(route.get(0).getKind()).isEqualTo(NavigationGraph.Edge.Kind.TRANSITION);
+        assertThat(route.get(0).getMethod().getName()).isEqualTo("clickAlertViews");
+        assertThat(graph.route(HomePage.class, HomePage.class, edge -> true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An unknown screen routes over the cheapest shortcut")
+    public void testRouteFromUnknownScreen() {
+        List<NavigationGraph.Edge> route = graph.route(null, AlertViewsPage.class, edge -> true);
+
+        assertThat(route).extracting(NavigationGraph.Edge::getKind)
+                .containsExactly(NavigationGraph.Edge.Kind.DEEP_LINK);
+
+        List<NavigationGraph.Edge> withoutDeepLinks = graph.route(null, AlertViewsPage.class,
+                edge -> edge.getKind() != NavigationGraph.Edge.Kind.DEEP_LINK);
+        assertThat(withoutDeepLinks).extracting(NavigationGraph.Edge::getKind)
+                .containsExactly(NavigationGraph.Edge.Kind.ACTIVATION, NavigationGraph.Edge.Kind.TRANSITION);
+    }
+
+    @Test
+    @DisplayName("Without usable edges there is no route")
+    public void testNoRoute() {
+        assertThat(graph.route(null, AlertViewsPage.class,
+                edge -> edge.getKind() == NavigationGraph.Edge.Kind.TRANSITION)).isNull();
+        assertThat(graph.route(HomePage.class, AlertViewsPage.class, edge -> false)).isNull();
+    }
+
+    @Test
+    @DisplayName("Measured costs replace the estimates")
+    public void testMeasuredCosts() {
+        NavigationGraph.Edge transition = graph.route(HomePage.class, AlertViewsPage.class, edge -> true).get(0);
+        transition.record(3_000_000_000L);
+
+        assertThat(transition.getCostMs()).isEqualTo(3000.0);
+        assertThat(graph.route(HomePage.class, AlertViewsPage.class, edge -> true))
+                .extracting(NavigationGraph.Edge::getKind)
+                .containsExactly(NavigationGraph.Edge.Kind.DEEP_LINK);
+
+        transition.record(0);
+        assertThat(transition.getCostMs()).isCloseTo(2100.0, within(0.001));
+        assertThat(transition.getCount()).isEqualTo(2);
+        assertThat(graph.hasData()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A failed edge is avoided until it has proven itself again")
+    public void testFailedEdge() {
+        NavigationGraph.Edge transition = graph.route(HomePage.class, AlertViewsPage.class, edge -> true).get(0);
+        transition.recordFailure(1_000_000L);
+
+        assertThat(transition.getCostMs()).isEqualTo(NavigationGraph.FAILURE_COST_MS);
+        assertThat(transition.getFailures()).isEqualTo(1);
+        assertThat(graph.route(HomePage.class, AlertViewsPage.class, edge -> true))
+                .extracting(NavigationGraph.Edge::getKind)
+                .containsExactly(NavigationGraph.Edge.Kind.DEEP_LINK);
+        Map<String, Object> row = graph.getCosts().stream()
+                .filter(cost -> cost.get("edge").equals(transition.toString()))
+                .findFirst().orElseThrow();
+        assertThat(row).containsEntry("failures", 1).containsEntry("count", 0);
+    }
+}
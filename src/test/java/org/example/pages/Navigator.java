@@ -0,0 +1,208 @@
+package org.example.pages;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.example.utils.AppBundle;
+import org.example.utils.SessionResetStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Navigator class takes a session to a screen over the cheapest path of the
+ * {@link NavigationGraph}:
+ * <pre>
+ * AlertViewsPage alertViewsPage = pages.getNavigator().navigateTo(AlertViewsPage.class);
+ * </pre>
+ * The current screen is the one the last navigation ended on, as long as its
+ * page is still ready; otherwise it is detected by checking the readiness
+ * anchors of the known screens (pages without anchors cannot be detected).
+ * When the current screen is unknown the path has to start with a deep link
+ * or an app relaunch. If a step fails or does not reach its screen, the edge
+ * is costed as a failure, left out for the rest of the session, and the way
+ * is routed again from the detected current screen. The app is only
+ * relaunched when its bundle id is known (bundle_id, the app's Info.plist or
+ * the session capabilities).
+ * A navigator belongs to one session and is not thread-safe.
+ */
+public class Navigator {
+
+    private static final Logger logger = LoggerFactory.getLogger(Navigator.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AppiumDriver driver;
+    private final PageRegistry pages;
+    private final NavigationGraph graph;
+    private final Set<NavigationGraph.Edge> failedEdges = new HashSet<>();
+    private Class<? extends BasePage> current;
+    private RuntimeException lastFailure;
+    private String bundleId;
+    private boolean bundleIdResolved;
+
+    /**
+     * Constructor for Navigator
+     * 
+     * @param driver Driver of the session
+     * @param pages  Page registry of the session
+     * @param graph  Navigation graph to route over
+     */
+    Navigator(AppiumDriver driver, PageRegistry pages, NavigationGraph graph) {
+        this.driver = driver;
+        this.pages = pages;
+        this.graph = graph;
+    }
+
+    /**
+     * Navigate to a screen
+     * 
+     * @param target Page class of the screen
+     * @param <T>    Page type
+     * @return Page of the screen, ready for use
+     * @throws IllegalStateException if the screen cannot be reached
+     */
+    public <T extends BasePage> T navigateTo(Class<T> target) {
+        graph.include(target);
+        for (int attempt = 1; ; attempt++) {
+            Class<? extends BasePage> from = getCurrentScreen();
+            if (from == target) {
+                return pages.get(target);
+            }
+            ConfigManager config = ConfigManager.getInstance();
+            boolean deepLinks = config.isNavigationDeepLinks();
+            String bundleId = bundleId();
+            boolean activation = config.isNavigationAppActivation() && bundleId != null;
+            List<NavigationGraph.Edge> route = graph.route(from, target, edge -> !failedEdges.contains(edge)
+                    && (edge.getKind() != NavigationGraph.Edge.Kind.DEEP_LINK || deepLinks)
+                    && (edge.getKind() != NavigationGraph.Edge.Kind.ACTIVATION || activation));
+            if (route == null) {
+                throw new IllegalStateException("No route to " + target.getSimpleName() + " from "
+                        + (from != null ? from.getSimpleName() : "an unknown screen"));
+            }
+            logger.info("Navigating to {} via {}", target.getSimpleName(), route);
+            if (follow(route, bundleId)) {
+                return pages.get(target);
+            }
+            if (attempt >= MAX_ATTEMPTS) {
+                throw new IllegalStateException("Failed to navigate to " + target.getSimpleName(), lastFailure);
+            }
+            logger.warn("Navigation to {} did not reach the expected screen, routing again",
+                    target.getSimpleName());
+        }
+    }
+
+    /**
+     * Get the screen the session is on
+     * 
+     * @return Page class of the current screen, or null if it is not known
+     */
+    public Class<? extends BasePage> getCurrentScreen() {
+        if (current != null && isShowing(current)) {
+            return current;
+        }
+        Class<? extends BasePage> last = current;
+        current = null;
+        for (Class<? extends BasePage> screen : graph.getScreens()) {
+            if (screen != last && isShowing(screen)) {
+                current = screen;
+                break;
+            }
+        }
+        logger.debug("Detected current screen: {}", current != null ? current.getSimpleName() : "unknown");
+        return current;
+    }
+
+    /**
+     * Get the bundle id of the app under test, looked up once per session
+     * 
+     * @return Bundle id, or null if it is not known
+     */
+    private String bundleId() {
+        if (!bundleIdResolved) {
+            ConfigManager config = ConfigManager.getInstance();
+            bundleId = AppBundle.resolve(config.getBundleId(), config.getAppPath());
+            if (bundleId == null) {
+                bundleId = AppBundle.fromSession(driver);
+            }
+            if (bundleId == null) {
+                logger.info("No bundle id known, navigation will not relaunch the app");
+            }
+            bundleIdResolved = true;
+        }
+        return bundleId;
+    }
+
+    private boolean isShowing(Class<? extends BasePage> screen) {
+        BasePage page = pages.get(screen);
+        return !page.getReadinessAnchors().isEmpty() && page.isPageReady();
+    }
+
+    /**
+     * Follow a route, measuring every step. A step that fails or does not
+     * reach its screen is recorded as a failure and not used again in this
+     * session.
+     * 
+     * @return true if every step reached its screen
+     */
+    private boolean follow(List<NavigationGraph.Edge> route, String bundleId) {
+        for (NavigationGraph.Edge edge : route) {
+            long start = System.nanoTime();
+            boolean reached;
+            try {
+                perform(edge, bundleId);
+                reached = pages.get(edge.getTo()).waitForPageReady();
+                if (!reached) {
+                    lastFailure = new IllegalStateException(edge + " did not reach its screen");
+                }
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                reached = false;
+            }
+            if (!reached) {
+                logger.warn("Navigation step failed, avoiding it from now on: {}", lastFailure.getMessage());
+                edge.recordFailure(System.nanoTime() - start);
+                failedEdges.add(edge);
+                current = null;
+                return false;
+            }
+            edge.record(System.nanoTime() - start);
+            current = edge.getTo();
+        }
+        return true;
+    }
+
+    private void perform(NavigationGraph.Edge edge, String bundleId) {
+        switch (edge.getKind()) {
+            case TRANSITION:
+                try {
+                    edge.getMethod().invoke(pages.get(edge.getFrom()));
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException("Navigation step failed: " + edge, e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot call navigation method of " + edge, e);
+                }
+                break;
+            case DEEP_LINK:
+                Map<String, Object> args = new HashMap<>();
+                args.put("url", edge.getUrl());
+                if (bundleId != null && !bundleId.isEmpty()) {
+                    args.put("bundleId", bundleId);
+                }
+                driver.executeScript("mobile: deepLink", args);
+                break;
+            case ACTIVATION:
+                SessionResetStrategy.TERMINATE_ACTIVATE.reset(driver, bundleId);
+                break;
+            default:
+                throw new IllegalStateException("Unknown navigation edge: " + edge);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.pages;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.example.metrics.TimedWebDriverWait;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PageRegistry class keeps the page objects of one driver session, so that a
+ * test navigating back and forth reuses its pages instead of constructing
+ * them again:
+ * <pre>
+ * HomePage homePage = pages.get(HomePage.class);
+ * </pre>
+ * A page is created on first request through its (AppiumDriver) constructor
+ * and returned again on later requests, with its snapshot and element cache
+ * cleared because the screen may have changed in between. All pages the
+ * registry constructs share one {@link WebDriverWait} with the configured
+ * explicit_wait timeout; pages constructed directly get their own wait and
+ * leave no trace in the registry. The registry of a session is dropped when
+ * the session is released (see DriverManager), since the pool resets the app
+ * before the next test.
+ */
+public class PageRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageRegistry.class);
+    private static final Map<AppiumDriver, PageRegistry> registries = new ConcurrentHashMap<>();
+    // Registry whose get() is constructing a page on the calling thread
+    private static final ThreadLocal<PageRegistry> constructing = new ThreadLocal<>();
+    private static final ClassValue<MethodHandle> constructors = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().findConstructor(type,
+                        MethodType.methodType(void.class, AppiumDriver.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException(
+                        type.getName() + " needs a public constructor taking an AppiumDriver", e);
+            }
+        }
+    };
+
+    private final AppiumDriver driver;
+    private final WebDriverWait wait;
+    private final Map<Class<?>, BasePage> pages = new ConcurrentHashMap<>();
+    private Navigator navigator;
+
+    private PageRegistry(AppiumDriver driver) {
+        this.driver = driver;
+        this.wait = newWait(driver);
+    }
+
+    private static WebDriverWait newWait(AppiumDriver driver) {
+        return new TimedWebDriverWait(driver, Duration.ofSeconds(ConfigManager.getInstance().getExplicitWait()));
+    }
+
+    /**
+     * Get the registry of a driver session, creating it on first use
+     * 
+     * @param driver Driver of the session
+     * @return PageRegistry instance
+     */
+    public static PageRegistry forDriver(AppiumDriver driver) {
+        return registries.computeIfAbsent(driver, PageRegistry::new);
+    }
+
+    /**
+     * Get the wait for a page under construction: the shared wait of the
+     * registry constructing it, or a new wait for a page constructed directly
+     * 
+     * @param driver Driver of the page
+     * @return WebDriverWait instance
+     */
+    static WebDriverWait waitFor(AppiumDriver driver) {
+        PageRegistry registry = constructing.get();
+        return registry != null && registry.driver == driver ? registry.wait : newWait(driver);
+    }
+
+    /**
+     * Check whether a session has a registry
+     * 
+     * @param driver Driver of the session
+     * @return true if the registry was created and not evicted since
+     */
+    static boolean isRegistered(AppiumDriver driver) {
+        return registries.containsKey(driver);
+    }
+
+    /**
+     * Drop the registry of a session that is being released or reset
+     * 
+     * @param driver Driver of the session
+     */
+    public static void evict(AppiumDriver driver) {
+        PageRegistry registry = registries.remove(driver);
+        if (registry != null && !registry.pages.isEmpty()) {
+            logger.debug("Evicting {} page(s) of released session", registry.pages.size());
+        }
+    }
+
+    /**
+     * Get the page of a class, constructing it on first request
+     * 
+     * @param pageClass Page object class with a public (AppiumDriver) constructor
+     * @param <T>       Page type
+     * @return Page instance shared within this session
+     */
+    public <T extends BasePage> T get(Class<T> pageClass) {
+        BasePage page = pages.get(pageClass);
+        if (page == null) {
+            // Constructed outside of the map, as a page constructor may request other pages
+            BasePage created = create(pageClass);
+            BasePage existing = pages.putIfAbsent(pageClass, created);
+            page = existing != null ? existing : created;
+        } else {
+            // The screen may have changed since the page was last used
+            page.invalidateSnapshot();
+            page.invalidateElementCache();
+        }
+        return pageClass.cast(page);
+    }
+
+    /**
+     * Get the wait shared by the pages of this session
+     * 
+     * @return WebDriverWait instance
+     */
+    public WebDriverWait getWait() {
+        return wait;
+    }
+
+    /**
+     * Get the navigator of this session, which routes between the pages over
+     * the shared {@link NavigationGraph}
+     * 
+     * @return Navigator instance
+     */
+    public synchronized Navigator getNavigator() {
+        if (navigator == null) {
+            navigator = new Navigator(driver, this, NavigationGraph.getInstance());
+        }
+        return navigator;
+    }
+
+    /**
+     * Get the number of pages constructed in this session
+     * 
+     * @return Number of registered pages
+     */
+    public int size() {
+        return pages.size();
+    }
+
+    private BasePage create(Class<?> pageClass) {
+        // Restored afterwards, as a page constructor may request pages of another registry
+        PageRegistry outer = constructing.get();
+        constructing.set(this);
+        try {
+            return (BasePage) constructors.get(pageClass).invoke(driver);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to construct " + pageClass.getName(), e);
+        } finally {
+            if (outer != null) {
+                constructing.set(outer);
+            } else {
+                constructing.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.pages;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for PageRegistry.
+ * Verifies that pages are reused within a session and share its wait, that
+ * pages constructed directly leave no registry behind and that evicting a
+ * session drops its pages.
+ */
+public class PageRegistryTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private AppiumDriver driver;
+
+    @BeforeEach
+    public void createSession() {
+        driver = stub.newDriver();
+    }
+
+    @AfterEach
+    public void evictSession() {
+        PageRegistry.evict(driver);
+    }
+
+    @Test
+    @DisplayName("Pages are reused within a session and share the registry's wait")
+    public void testReuse() {
+        PageRegistry pages = PageRegistry.forDriver(driver);
+
+        HomePage home = pages.get(HomePage.class);
+        AlertViewsPage alertViews = pages.get(AlertViewsPage.class);
+
+        assertThat(pages.get(HomePage.class)).isSameAs(home);
+        assertThat(PageRegistry.forDriver(driver)).isSameAs(pages);
+        assertThat(pages.size()).isEqualTo(2);
+        assertThat(home.wait).isSameAs(pages.getWait());
+        assertThat(alertViews.wait).isSameAs(pages.getWait());
+    }
+
+    @Test
+    @DisplayName("Pages constructed directly get their own wait and no registry")
+    public void testDirectConstruction() {
+        HomePage home = new HomePage(driver);
+
+        assertThat(PageRegistry.isRegistered(driver)).isFalse();
+        assertThat(home.wait).isNotNull().isNotSameAs(new HomePage(driver).wait);
+    }
+
+    @Test
+    @DisplayName("Evicting a session drops its registry and pages")
+    public void testEviction() {
+        PageRegistry pages = PageRegistry.forDriver(driver);
+        HomePage home = pages.get(HomePage.class);
+
+        PageRegistry.evict(driver);
+
+        assertThat(PageRegistry.isRegistered(driver)).isFalse();
+        PageRegistry fresh = PageRegistry.forDriver(driver);
+        assertThat(fresh).isNotSameAs(pages);
+        assertThat(fresh.size()).isZero();
+        assertThat(fresh.get(HomePage.class)).isNotSameAs(home);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.pages;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes how a page can be reached without tapping through the app, for
+ * the shortcut edges of the {@link NavigationGraph}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Screen {
+
+    /**
+     * URL opening this screen through "mobile: deepLink", or empty if the
+     * screen has none
+     */
+    String deepLink() default "";
+
+    /**
+     * Whether the app shows this screen when it is launched
+     */
+    boolean launch() default false;
+}
@@ -0,0 +1,260 @@
+package org.example.stub;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * StubApp class describes the scripted application served by the
+ * {@link StubAppiumServer}: a set of named screens, each holding an
+ * XCUITest-like element tree, and the screen transitions triggered by tapping
+ * elements.
+ * Apps are loaded from XML, for example:
+ * <pre>
+ * &lt;app bundleId="com.example.app" initialScreen="Home" width="430" height="932"&gt;
+ *   &lt;screen name="Home" loadDelay="200"&gt;
+ *     &lt;XCUIElementTypeApplication name="Example"&gt;
+ *       &lt;XCUIElementTypeButton name="Settings" navigate="Settings"/&gt;
+ *     &lt;/XCUIElementTypeApplication&gt;
+ *   &lt;/screen&gt;
+ * &lt;/app&gt;
+ * </pre>
+ * Elements get the usual XCUITest attributes (type, name, label, enabled,
+ * visible, x, y, width, height) filled in when they are not given. Leaf
+ * elements without a position are stacked top to bottom like table cells.
+ * The "navigate" attribute names the screen shown after a tap, or "back" to
+ * return to the previous screen; "loadDelay" (milliseconds) delays the
+ * appearance of a screen's content after navigation. A screen with a
+ * "deepLink" URL can be opened directly through "mobile: deepLink".
+ */
+public class StubApp {
+
+    static final String SCREEN_TAG = "screen";
+    static final String NAVIGATE_ATTRIBUTE = "navigate";
+    static final String LOAD_DELAY_ATTRIBUTE = "loadDelay";
+    static final String DEEP_LINK_ATTRIBUTE = "deepLink";
+
+    private static final int FIRST_ROW_Y = 100;
+    private static final int ROW_HEIGHT = 44;
+    private static final int ROW_SPACING = 50;
+
+    private final Document document;
+    private final String bundleId;
+    private final String initialScreen;
+    private final int width;
+    private final int height;
+
+    private StubApp(Document document) {
+        this.document = document;
+        Element root = document.getDocumentElement();
+        this.bundleId = root.getAttribute("bundleId");
+        this.initialScreen = root.getAttribute("initialScreen");
+        this.width = intAttribute(root, "width", 430);
+        this.height = intAttribute(root, "height", 932);
+        if (findScreen(document, initialScreen) == null) {
+            throw new IllegalArgumentException("Initial screen not found: " + initialScreen);
+        }
+        layout();
+    }
+
+    /**
+     * Load an app from a classpath resource
+     * 
+     * @param resource Resource path, e.g. "stub/uikit-catalog.xml"
+     * @return StubApp instance
+     */
+    public static StubApp fromResource(String resource) {
+        InputStream inputStream = StubApp.class.getClassLoader().getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Stub app resource not found: " + resource);
+        }
+        try (InputStream in = inputStream) {
+            return fromXml(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stub app resource: " + resource, e);
+        }
+    }
+
+    /**
+     * Load an app from an XML stream
+     * 
+     * @param inputStream XML app definition
+     * @return StubApp instance
+     */
+    public static StubApp fromXml(InputStream inputStream) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setIgnoringComments(true);
+            Document document = factory.newDocumentBuilder().parse(inputStream);
+            return new StubApp(document);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IllegalArgumentException("Invalid stub app definition", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stub app definition", e);
+        }
+    }
+
+    /**
+     * Create a private copy of the element tree for a new session
+     * 
+     * @return Copy of the app document
+     */
+    Document newDocument() {
+        synchronized (document) {
+            return (Document) document.cloneNode(true);
+        }
+    }
+
+    /**
+     * Find a screen element by name
+     * 
+     * @param document App document
+     * @param name     Screen name
+     * @return Screen element, or null if there is none
+     */
+    static Element findScreen(Document document, String name) {
+        for (Node node = document.getDocumentElement().getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element && SCREEN_TAG.equals(((Element) node).getTagName())
+                    && name.equals(((Element) node).getAttribute("name"))) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the screen a deep link opens
+     * 
+     * @param url Deep link URL
+     * @return Screen name, or null if no screen declares the URL
+     */
+    String findDeepLinkScreen(String url) {
+        synchronized (document) {
+            for (Node node = document.getDocumentElement().getFirstChild(); node != null;
+                    node = node.getNextSibling()) {
+                if (node instanceof Element && SCREEN_TAG.equals(((Element) node).getTagName())
+                        && url.equals(((Element) node).getAttribute(DEEP_LINK_ATTRIBUTE))) {
+                    return ((Element) node).getAttribute("name");
+                }
+            }
+        }
+        return null;
+    }
+
+    public String getBundleId() {
+        return bundleId;
+    }
+
+    public String getInitialScreen() {
+        return initialScreen;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Fill in missing XCUITest attributes on every screen
+     */
+    private void layout() {
+        removeWhitespace(document.getDocumentElement());
+        for (Node node = document.getDocumentElement().getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element && SCREEN_TAG.equals(((Element) node).getTagName())) {
+                int[] row = {0};
+                layoutChildren((Element) node, row);
+            }
+        }
+    }
+
+    private void layoutChildren(Element parent, int[] row) {
+        int index = 0;
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (!(node instanceof Element)) {
+                continue;
+            }
+            Element element = (Element) node;
+            boolean leaf = !hasElementChildren(element);
+
+            setDefault(element, "type", element.getTagName());
+            setDefault(element, "name", "");
+            setDefault(element, "label", element.getAttribute("name"));
+            setDefault(element, "enabled", "true");
+            setDefault(element, "accessible", leaf ? "true" : "false");
+            setDefault(element, "index", String.valueOf(index++));
+
+            if (!element.hasAttribute("y")) {
+                if (leaf) {
+                    element.setAttribute("x", "0");
+                    element.setAttribute("y", String.valueOf(FIRST_ROW_Y + row[0]++ * ROW_SPACING));
+                    element.setAttribute("width", String.valueOf(width));
+                    element.setAttribute("height", String.valueOf(ROW_HEIGHT));
+                } else {
+                    element.setAttribute("x", "0");
+                    element.setAttribute("y", "0");
+                    element.setAttribute("width", String.valueOf(width));
+                    element.setAttribute("height", String.valueOf(height));
+                }
+            }
+            setDefault(element, "x", "0");
+            setDefault(element, "width", String.valueOf(width));
+            setDefault(element, "height", String.valueOf(ROW_HEIGHT));
+
+            if (!element.hasAttribute("visible")) {
+                int top = intAttribute(element, "y", 0);
+                int bottom = top + intAttribute(element, "height", 0);
+                element.setAttribute("visible", String.valueOf(top >= 0 && bottom <= height));
+            }
+
+            layoutChildren(element, row);
+        }
+    }
+
+    private static void removeWhitespace(Element parent) {
+        Node node = parent.getFirstChild();
+        while (node != null) {
+            Node next = node.getNextSibling();
+            if (node.getNodeType() == Node.TEXT_NODE && node.getNodeValue().trim().isEmpty()) {
+                parent.removeChild(node);
+            } else if (node instanceof Element) {
+                removeWhitespace((Element) node);
+            }
+            node = next;
+        }
+    }
+
+    private static boolean hasElementChildren(Element element) {
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void setDefault(Element element, String attribute, String value) {
+        if (!element.hasAttribute(attribute)) {
+            element.setAttribute(attribute, value);
+        }
+    }
+
+    static int intAttribute(Element element, String attribute, int defaultValue) {
+        String value = element.getAttribute(attribute);
+        if (value.isEmpty()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,588 @@
+package org.example.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.config.ConfigManager;
+import org.example.utils.XCUIElementLocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StubAppiumServer class is an embedded, in-process stand-in for an Appium
+ * server running the XCUITest driver. It speaks enough of the W3C WebDriver
+ * protocol (plus the Appium mobile: extensions used by this project) for an
+ * IOSDriver to create a session and find, tap, type into and read elements,
+ * take screenshots and perform pointer actions against a scripted
+ * {@link StubApp}.
+ * Every command can be given an artificial latency so that the framework can
+ * be measured against realistic round-trip times without a device.
+ */
+public class StubAppiumServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubAppiumServer.class);
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static StubAppiumServer instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Long> commandLatencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+    private volatile StubApp app;
+    private volatile long defaultLatencyMs;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubAppiumServer(StubApp app) {
+        this.app = app;
+    }
+
+    /**
+     * Get the shared stub server configured from appium-config.yml, starting it
+     * on first use. The server is stopped when the JVM shuts down.
+     * 
+     * @return Running StubAppiumServer instance
+     */
+    public static synchronized StubAppiumServer getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            StubAppiumServer server = new StubAppiumServer(StubApp.fromResource(config.getStubApp()));
+            server.setDefaultLatency(config.getStubCommandLatency());
+            for (Map.Entry<String, Integer> latency : config.getStubCommandLatencies().entrySet()) {
+                server.setCommandLatency(latency.getKey(), latency.getValue());
+            }
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "stub-appium-server-shutdown"));
+            instance = server;
+        }
+        return instance;
+    }
+
+    /**
+     * Start listening on an ephemeral loopback port
+     */
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start stub Appium server", e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-appium-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Stub Appium server listening on {}", getUrl());
+    }
+
+    /**
+     * Stop the server and drop all sessions
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            sessions.clear();
+            logger.info("Stub Appium server stopped");
+        }
+    }
+
+    /**
+     * Get the URL to pass to the driver
+     * 
+     * @return Server URL
+     */
+    public synchronized URL getUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Stub Appium server is not running");
+        }
+        try {
+            return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "/");
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replace the app served to sessions created from now on
+     * 
+     * @param app Scripted app
+     */
+    public void setApp(StubApp app) {
+        this.app = app;
+    }
+
+    /**
+     * Set the latency added to every command without a specific latency
+     * 
+     * @param latencyMs Latency in milliseconds
+     */
+    public void setDefaultLatency(long latencyMs) {
+        this.defaultLatencyMs = latencyMs;
+    }
+
+    /**
+     * Set the latency added to one command, e.g. "findElement" or "screenshot"
+     * 
+     * @param command   Command name
+     * @param latencyMs Latency in milliseconds
+     */
+    public void setCommandLatency(String command, long latencyMs) {
+        commandLatencies.put(command, latencyMs);
+    }
+
+    /**
+     * Get the number of times a command was received, e.g. "getPageSource"
+     * 
+     * @param command Command name
+     * @return Number of requests for the command
+     */
+    public int getCommandCount(String command) {
+        AtomicInteger count = commandCounts.get(command);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Get the number of open sessions
+     * 
+     * @return Session count
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, Object> body = readBody(exchange);
+            List<String> path = new ArrayList<>();
+            for (String segment : exchange.getRequestURI().getPath().split("/")) {
+                if (!segment.isEmpty()) {
+                    path.add(segment);
+                }
+            }
+            Command command = route(exchange.getRequestMethod(), path);
+            commandCounts.computeIfAbsent(command.name, name -> new AtomicInteger()).incrementAndGet();
+            simulateLatency(command.name);
+            writeResponse(exchange, 200, Collections.singletonMap("value", command.handler.execute(body)));
+        } catch (StubCommandException e) {
+            writeError(exchange, e.getStatus(), e.getError(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Stub Appium server command failed", e);
+            writeError(exchange, 500, "unknown error", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * A named command handler; the name is used to look up its latency
+     */
+    private static class Command {
+        private final String name;
+        private final Handler handler;
+
+        private Command(String name, Handler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+    }
+
+    private interface Handler {
+        Object execute(Map<String, Object> body);
+    }
+
+    private Command route(String method, List<String> path) {
+        if (path.size() == 1 && "status".equals(path.get(0))) {
+            return new Command("status", body -> status());
+        }
+        if (path.isEmpty() || !"session".equals(path.get(0))) {
+            throw StubCommandException.unknownCommand("Unknown endpoint: /" + String.join("/", path));
+        }
+        if (path.size() == 1 && "POST".equals(method)) {
+            return new Command("newSession", this::newSession);
+        }
+
+        String sessionId = path.get(1);
+        List<String> rest = path.subList(2, path.size());
+        String endpoint = method + " " + String.join("/", rest);
+        if (rest.isEmpty()) {
+            if ("DELETE".equals(method)) {
+                return new Command("deleteSession", body -> deleteSession(sessionId));
+            }
+            return new Command("getSession", body -> session(sessionId).getCapabilities());
+        }
+
+        StubSession session = session(sessionId);
+        if (rest.size() >= 2 && "element".equals(rest.get(0)) && !"active".equals(rest.get(1))) {
+            return routeElementCommand(method, session, rest.get(1), rest.subList(2, rest.size()));
+        }
+
+        switch (endpoint) {
+            case "POST timeouts":
+                return new Command("setTimeouts", body -> setTimeouts(session, body));
+            case "GET timeouts":
+                return new Command("getTimeouts", body -> Collections.singletonMap("implicit", session.getImplicitWait()));
+            case "POST element":
+                return new Command("findElement", body -> findElement(session, null, body));
+            case "POST elements":
+                return new Command("findElements", body -> findElements(session, null, body));
+            case "GET source":
+                return new Command("getPageSource", body -> session.getPageSource());
+            case "GET screenshot":
+                return new Command("screenshot", body -> Base64.getEncoder().encodeToString(session.getScreenshot()));
+            case "GET window/rect":
+                return new Command("getWindowRect", body -> windowRect(session));
+            case "GET window":
+                return new Command("getWindowHandle", body -> "1");
+            case "POST actions":
+                return new Command("performActions", body -> performActions(session, body));
+            case "DELETE actions":
+                return new Command("releaseActions", body -> null);
+            case "POST execute/sync":
+                return new Command("executeScript", body -> executeScript(session, body));
+            case "POST appium/device/terminate_app":
+                return new Command("terminateApp", body -> session.terminateApp(stringArg(body, "bundleId")));
+            case "POST appium/device/activate_app":
+                return new Command("activateApp", body -> {
+                    session.activateApp(stringArg(body, "bundleId"));
+                    return null;
+                });
+            case "POST appium/device/app_state":
+                return new Command("queryAppState", body -> session.queryAppState(stringArg(body, "bundleId")));
+            default:
+                throw StubCommandException.unknownCommand("Unsupported command: " + endpoint);
+        }
+    }
+
+    private Command routeElementCommand(String method, StubSession session, String elementId, List<String> rest) {
+        String endpoint = method + " " + String.join("/", rest);
+        switch (endpoint) {
+            case "POST element":
+                return new Command("findChildElement", body -> findElement(session, elementId, body));
+            case "POST elements":
+                return new Command("findChildElements", body -> findElements(session, elementId, body));
+            case "POST click":
+                return new Command("click", body -> {
+                    session.click(elementId);
+                    return null;
+                });
+            case "POST clear":
+                return new Command("clear", body -> {
+                    session.clear(elementId);
+                    return null;
+                });
+            case "POST value":
+                return new Command("sendKeys", body -> {
+                    session.sendKeys(elementId, textArg(body));
+                    return null;
+                });
+            case "GET text":
+                return new Command("getText", body -> XCUIElementLocator.getText(session.resolve(elementId)));
+            case "GET displayed":
+                return new Command("isDisplayed",
+                        body -> "true".equals(session.resolve(elementId).getAttribute("visible")));
+            case "GET enabled":
+                return new Command("isEnabled",
+                        body -> "true".equals(session.resolve(elementId).getAttribute("enabled")));
+            case "GET selected":
+                return new Command("isSelected",
+                        body -> "true".equals(session.resolve(elementId).getAttribute("selected")));
+            case "GET name":
+                return new Command("getTagName", body -> session.resolve(elementId).getAttribute("type"));
+            case "GET rect":
+                return new Command("getRect", body -> elementRect(session.resolve(elementId)));
+            case "GET screenshot":
+                return new Command("elementScreenshot",
+                        body -> Base64.getEncoder().encodeToString(session.getScreenshot()));
+            default:
+                if (rest.size() == 2 && "attribute".equals(rest.get(0)) && "GET".equals(method)) {
+                    return new Command("getAttribute", body -> {
+                        Element element = session.resolve(elementId);
+                        return element.hasAttribute(rest.get(1)) ? element.getAttribute(rest.get(1)) : null;
+                    });
+                }
+                throw StubCommandException.unknownCommand("Unsupported element command: " + endpoint);
+        }
+    }
+
+    private Object status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ready", true);
+        status.put("message", "Stub Appium server is ready");
+        return status;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object newSession(Map<String, Object> body) {
+        Map<String, Object> requested = new LinkedHashMap<>();
+        Object capabilities = body.get("capabilities");
+        if (capabilities instanceof Map) {
+            Map<String, Object> w3c = (Map<String, Object>) capabilities;
+            if (w3c.get("alwaysMatch") instanceof Map) {
+                requested.putAll((Map<String, Object>) w3c.get("alwaysMatch"));
+            }
+            if (w3c.get("firstMatch") instanceof List && !((List<Object>) w3c.get("firstMatch")).isEmpty()) {
+                requested.putAll((Map<String, Object>) ((List<Object>) w3c.get("firstMatch")).get(0));
+            }
+        }
+
+        // Appium reports capabilities without the vendor prefix
+        Map<String, Object> returned = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : requested.entrySet()) {
+            returned.put(entry.getKey().startsWith("appium:") ? entry.getKey().substring(7) : entry.getKey(),
+                    entry.getValue());
+        }
+        returned.put("platformName", "iOS");
+        returned.put("automationName", "XCUITest");
+        if (!app.getBundleId().isEmpty()) {
+            returned.put("bundleId", app.getBundleId());
+        }
+
+        StubSession session = new StubSession(app, returned);
+        sessions.put(session.getId(), session);
+        logger.debug("Stub session {} created", session.getId());
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("sessionId", session.getId());
+        value.put("capabilities", returned);
+        return value;
+    }
+
+    private Object deleteSession(String sessionId) {
+        if (sessions.remove(sessionId) == null) {
+            throw StubCommandException.invalidSession(sessionId);
+        }
+        logger.debug("Stub session {} deleted", sessionId);
+        return null;
+    }
+
+    private StubSession session(String sessionId) {
+        StubSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw StubCommandException.invalidSession(sessionId);
+        }
+        return session;
+    }
+
+    private Object setTimeouts(StubSession session, Map<String, Object> body) {
+        Object implicit = body.get("implicit");
+        if (implicit instanceof Number) {
+            session.setImplicitWait(((Number) implicit).longValue());
+        }
+        return null;
+    }
+
+    private Object findElement(StubSession session, String parentId, Map<String, Object> body) {
+        List<String> ids = session.findElements(parentId, stringArg(body, "using"), stringArg(body, "value"));
+        if (ids.isEmpty()) {
+            throw StubCommandException.noSuchElement("An element could not be located on the page using the given "
+                    + "search parameters (" + body.get("using") + ", " + body.get("value") + ")");
+        }
+        return elementReference(ids.get(0));
+    }
+
+    private Object findElements(StubSession session, String parentId, Map<String, Object> body) {
+        List<Object> references = new ArrayList<>();
+        for (String id : session.findElements(parentId, stringArg(body, "using"), stringArg(body, "value"))) {
+            references.add(elementReference(id));
+        }
+        return references;
+    }
+
+    private static Map<String, Object> elementReference(String id) {
+        Map<String, Object> reference = new HashMap<>();
+        reference.put(ELEMENT_KEY, id);
+        reference.put("ELEMENT", id);
+        return reference;
+    }
+
+    private static Map<String, Object> windowRect(StubSession session) {
+        Map<String, Object> rect = new LinkedHashMap<>();
+        rect.put("x", 0);
+        rect.put("y", 0);
+        rect.put("width", session.getWindowWidth());
+        rect.put("height", session.getWindowHeight());
+        return rect;
+    }
+
+    private static Map<String, Object> elementRect(Element element) {
+        Map<String, Object> rect = new LinkedHashMap<>();
+        rect.put("x", StubApp.intAttribute(element, "x", 0));
+        rect.put("y", StubApp.intAttribute(element, "y", 0));
+        rect.put("width", StubApp.intAttribute(element, "width", 0));
+        rect.put("height", StubApp.intAttribute(element, "height", 0));
+        return rect;
+    }
+
+    /**
+     * Replay W3C pointer actions: a down/up pair at (nearly) the same point is a
+     * tap, anything else a swipe from the down point to the up point
+     */
+    @SuppressWarnings("unchecked")
+    private Object performActions(StubSession session, Map<String, Object> body) {
+        Object sources = body.get("actions");
+        if (!(sources instanceof List)) {
+            throw StubCommandException.invalidArgument("'actions' must be a list");
+        }
+        for (Object source : (List<Object>) sources) {
+            Map<String, Object> inputSource = (Map<String, Object>) source;
+            if (!"pointer".equals(inputSource.get("type"))) {
+                continue;
+            }
+            int x = 0;
+            int y = 0;
+            int downX = 0;
+            int downY = 0;
+            for (Object item : (List<Object>) inputSource.get("actions")) {
+                Map<String, Object> action = (Map<String, Object>) item;
+                String type = String.valueOf(action.get("type"));
+                if ("pointerMove".equals(type)) {
+                    int[] origin = origin(session, action.get("origin"), x, y);
+                    x = origin[0] + number(action.get("x"));
+                    y = origin[1] + number(action.get("y"));
+                } else if ("pointerDown".equals(type)) {
+                    downX = x;
+                    downY = y;
+                } else if ("pointerUp".equals(type)) {
+                    session.swipe(downX, downY, x, y);
+                }
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int[] origin(StubSession session, Object origin, int currentX, int currentY) {
+        if ("pointer".equals(origin)) {
+            return new int[]{currentX, currentY};
+        }
+        if (origin instanceof Map) {
+            Element element = session.resolve(String.valueOf(((Map<String, Object>) origin).get(ELEMENT_KEY)));
+            return new int[]{
+                    StubApp.intAttribute(element, "x", 0) + StubApp.intAttribute(element, "width", 0) / 2,
+                    StubApp.intAttribute(element, "y", 0) + StubApp.intAttribute(element, "height", 0) / 2};
+        }
+        return new int[]{0, 0};
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object executeScript(StubSession session, Map<String, Object> body) {
+        String script = stringArg(body, "script").trim();
+        Map<String, Object> args = Collections.emptyMap();
+        if (body.get("args") instanceof List && !((List<Object>) body.get("args")).isEmpty()
+                && ((List<Object>) body.get("args")).get(0) instanceof Map) {
+            args = (Map<String, Object>) ((List<Object>) body.get("args")).get(0);
+        }
+        switch (script) {
+            case "mobile: terminateApp":
+                return session.terminateApp(stringArg(args, "bundleId"));
+            case "mobile: activateApp":
+            case "mobile: launchApp":
+                session.activateApp(stringArg(args, "bundleId"));
+                return null;
+            case "mobile: queryAppState":
+                return session.queryAppState(stringArg(args, "bundleId"));
+            case "mobile: deepLink":
+                session.openDeepLink(stringArg(args, "url"), stringArg(args, "bundleId"));
+                return null;
+            case "mobile: swipe":
+            case "mobile: scroll":
+                // The scripted screens do not scroll
+                return null;
+            default:
+                throw StubCommandException.unsupported("Script is not supported by the stub server: " + script);
+        }
+    }
+
+    private static String stringArg(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        return value != null ? value.toString() : "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String textArg(Map<String, Object> body) {
+        if (body.get("text") != null) {
+            return body.get("text").toString();
+        }
+        if (body.get("value") instanceof List) {
+            StringBuilder text = new StringBuilder();
+            for (Object character : (List<Object>) body.get("value")) {
+                text.append(character);
+            }
+            return text.toString();
+        }
+        throw StubCommandException.invalidArgument("'text' or 'value' is required");
+    }
+
+    private static int number(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private void simulateLatency(String command) {
+        long latency = commandLatencies.getOrDefault(command, defaultLatencyMs);
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            if (bytes.length == 0) {
+                return Collections.emptyMap();
+            }
+            Object body = mapper.readValue(bytes, Object.class);
+            return body instanceof Map ? (Map<String, Object>) body : Collections.emptyMap();
+        }
+    }
+
+    private void writeError(HttpExchange exchange, int status, String error, String message) throws IOException {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("error", error);
+        value.put("message", message);
+        value.put("stacktrace", "");
+        writeResponse(exchange, status, Collections.singletonMap("value", value));
+    }
+
+    private void writeResponse(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.stub;
+
+/**
+ * Exception raised by the stub server when a command fails. Carries the W3C
+ * WebDriver error code and HTTP status that are sent back to the client.
+ */
+public class StubCommandException extends RuntimeException {
+
+    private final String error;
+    private final int status;
+
+    public StubCommandException(String error, int status, String message) {
+        super(message);
+        this.error = error;
+        this.status = status;
+    }
+
+    public static StubCommandException noSuchElement(String message) {
+        return new StubCommandException("no such element", 404, message);
+    }
+
+    public static StubCommandException staleElement(String id) {
+        return new StubCommandException("stale element reference", 404,
+                "The element '" + id + "' is no longer attached to the current screen");
+    }
+
+    public static StubCommandException invalidSession(String id) {
+        return new StubCommandException("invalid session id", 404, "Session does not exist: " + id);
+    }
+
+    public static StubCommandException unknownCommand(String message) {
+        return new StubCommandException("unknown command", 404, message);
+    }
+
+    public static StubCommandException invalidArgument(String message) {
+        return new StubCommandException("invalid argument", 400, message);
+    }
+
+    public static StubCommandException unsupported(String message) {
+        return new StubCommandException("unsupported operation", 500, message);
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.stub;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.config.DeviceConfig;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit 5 extension that starts a private StubAppiumServer with the
+ * UIKitCatalog stub app before each test and stops it afterwards, together
+ * with one stub device to create sessions for. Register it with
+ * {@code @RegisterExtension}; sessions created through
+ * {@link #newDriver(DeviceConfig)} that are still open when the test ends are
+ * quit before the server stops.
+ */
+public class StubServerExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final String APP_RESOURCE = "stub/uikit-catalog.xml";
+
+    private final List<AppiumDriver> drivers = new ArrayList<>();
+    private StubAppiumServer server;
+    private DeviceConfig device;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        server = new StubAppiumServer(StubApp.fromResource(APP_RESOURCE));
+        server.start();
+        device = new DeviceConfig();
+        device.setUdid("stub-device-1");
+        device.setDeviceName("Stub iPhone");
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        try {
+            synchronized (drivers) {
+                for (AppiumDriver driver : drivers) {
+                    if (driver.getSessionId() != null) {
+                        driver.quit();
+                    }
+                }
+                drivers.clear();
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    public StubAppiumServer getServer() {
+        return server;
+    }
+
+    public DeviceConfig getDevice() {
+        return device;
+    }
+
+    /**
+     * Create a session for the stub device, without an implicit wait
+     * 
+     * @return IOSDriver instance
+     */
+    public AppiumDriver newDriver() {
+        return newDriver(device);
+    }
+
+    /**
+     * Create a session on the stub server, without an implicit wait
+     * 
+     * @param target Device to create the session on
+     * @return IOSDriver instance
+     */
+    public AppiumDriver newDriver(DeviceConfig target) {
+        XCUITestOptions options = new XCUITestOptions()
+                .setDeviceName(target.getDeviceName())
+                .setUdid(target.getUdid());
+        AppiumDriver driver = new IOSDriver(server.getUrl(), options);
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        synchronized (drivers) {
+            drivers.add(driver);
+        }
+        return driver;
+    }
+}
@@ -0,0 +1,400 @@
+package org.example.stub;
+
+import org.example.utils.XCUIElementLocator;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * StubSession class holds the state of one driver session on the stub server:
+ * a private copy of the app's element tree, the screen navigation stack, the
+ * app lifecycle state and the element references handed out to the client.
+ */
+class StubSession {
+
+    static final int APP_STATE_NOT_RUNNING = 1;
+    static final int APP_STATE_RUNNING_IN_FOREGROUND = 4;
+
+    private static final int TAP_TOLERANCE = 10;
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final String id;
+    private final StubApp app;
+    private final Map<String, Object> capabilities;
+    private final Map<String, Element> elementsById = new HashMap<>();
+    private final Map<Element, String> idsByElement = new IdentityHashMap<>();
+    private final Deque<String> backStack = new ArrayDeque<>();
+
+    private Document document;
+    private String currentScreen;
+    private long screenShownAt;
+    private boolean running;
+    private long implicitWaitMs;
+
+    StubSession(StubApp app, Map<String, Object> capabilities) {
+        this.id = UUID.randomUUID().toString();
+        this.app = app;
+        this.capabilities = capabilities;
+        launch();
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Map<String, Object> getCapabilities() {
+        return capabilities;
+    }
+
+    synchronized void setImplicitWait(long implicitWaitMs) {
+        this.implicitWaitMs = implicitWaitMs;
+    }
+
+    synchronized long getImplicitWait() {
+        return implicitWaitMs;
+    }
+
+    /**
+     * Find elements, polling for up to the implicit wait when nothing matches
+     * 
+     * @param parentId Element to search from, or null to search the whole screen
+     * @param using    Locator strategy
+     * @param value    Locator value
+     * @return IDs of the matching elements (possibly empty)
+     */
+    synchronized List<String> findElements(String parentId, String using, String value) {
+        long deadline = System.currentTimeMillis() + implicitWaitMs;
+        while (true) {
+            List<String> ids = new ArrayList<>();
+            Element root = parentId != null ? resolve(parentId) : currentRoot();
+            if (root != null && isLoaded()) {
+                try {
+                    for (Element element : XCUIElementLocator.find(root, using, value)) {
+                        ids.add(register(element));
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw StubCommandException.invalidArgument(e.getMessage());
+                }
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (!ids.isEmpty() || remaining <= 0) {
+                return ids;
+            }
+            try {
+                wait(Math.min(remaining, POLL_INTERVAL_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ids;
+            }
+        }
+    }
+
+    /**
+     * Resolve an element reference handed out earlier
+     * 
+     * @param elementId Element reference
+     * @return Element, if it is still on the current screen
+     */
+    synchronized Element resolve(String elementId) {
+        Element element = elementsById.get(elementId);
+        if (element == null) {
+            throw StubCommandException.noSuchElement("Unknown element reference: " + elementId);
+        }
+        if (!running || !isOnCurrentScreen(element)) {
+            throw StubCommandException.staleElement(elementId);
+        }
+        return element;
+    }
+
+    synchronized void click(String elementId) {
+        tap(resolve(elementId));
+    }
+
+    synchronized void clear(String elementId) {
+        resolve(elementId).setAttribute("value", "");
+    }
+
+    synchronized void sendKeys(String elementId, String text) {
+        Element element = resolve(elementId);
+        element.setAttribute("value", element.getAttribute("value") + text);
+    }
+
+    /**
+     * Tap the screen at a point; the deepest visible element under the point
+     * receives the tap
+     * 
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    synchronized void tapAt(int x, int y) {
+        Element root = currentRoot();
+        if (root == null || !isLoaded()) {
+            return;
+        }
+        Element target = elementAt(root, x, y);
+        if (target != null) {
+            tap(target);
+        }
+    }
+
+    /**
+     * Handle a swipe gesture. The scripted screens do not scroll, so a swipe
+     * has no effect.
+     */
+    synchronized void swipe(int startX, int startY, int endX, int endY) {
+        if (Math.abs(endX - startX) < TAP_TOLERANCE && Math.abs(endY - startY) < TAP_TOLERANCE) {
+            tapAt(endX, endY);
+        }
+    }
+
+    synchronized String getPageSource() {
+        try {
+            Document source = document.getImplementation().createDocument(null, "AppiumAUT", null);
+            Element root = currentRoot();
+            if (root != null) {
+                for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+                    if (node instanceof Element) {
+                        Element copy = (Element) source.importNode(node, isLoaded());
+                        stripStubAttributes(copy);
+                        source.getDocumentElement().appendChild(copy);
+                    }
+                }
+            }
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            StringWriter writer = new StringWriter();
+            transformer.transform(new DOMSource(source), new StreamResult(writer));
+            return writer.toString();
+        } catch (TransformerException e) {
+            throw new IllegalStateException("Failed to serialise page source", e);
+        }
+    }
+
+    /**
+     * Render a simple PNG of the current screen: a background colour derived
+     * from the screen name with an outline for every visible element
+     * 
+     * @return PNG bytes
+     */
+    synchronized byte[] getScreenshot() {
+        BufferedImage image = new BufferedImage(app.getWidth(), app.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            String screen = running ? currentScreen : "SpringBoard";
+            graphics.setColor(new Color(screen.hashCode() & 0x7F7F7F | 0x808080));
+            graphics.fillRect(0, 0, app.getWidth(), app.getHeight());
+            graphics.setColor(Color.DARK_GRAY);
+            Element root = currentRoot();
+            if (root != null && isLoaded()) {
+                drawElements(graphics, root);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode screenshot", e);
+        }
+    }
+
+    synchronized boolean terminateApp(String bundleId) {
+        checkBundleId(bundleId);
+        boolean wasRunning = running;
+        running = false;
+        return wasRunning;
+    }
+
+    synchronized void activateApp(String bundleId) {
+        checkBundleId(bundleId);
+        if (!running) {
+            launch();
+        }
+    }
+
+    /**
+     * Open the screen a deep link points at, launching the app if needed. The
+     * initial screen is kept below it, so "back" returns there.
+     * 
+     * @param url      Deep link URL
+     * @param bundleId Bundle ID of the app to open the link in, or empty
+     */
+    synchronized void openDeepLink(String url, String bundleId) {
+        checkBundleId(bundleId);
+        String screen = app.findDeepLinkScreen(url);
+        if (screen == null) {
+            throw StubCommandException.invalidArgument("No screen handles deep link: " + url);
+        }
+        if (!running) {
+            launch();
+        }
+        backStack.clear();
+        if (!screen.equals(app.getInitialScreen())) {
+            backStack.push(app.getInitialScreen());
+        }
+        show(screen);
+    }
+
+    synchronized int queryAppState(String bundleId) {
+        checkBundleId(bundleId);
+        return running ? APP_STATE_RUNNING_IN_FOREGROUND : APP_STATE_NOT_RUNNING;
+    }
+
+    int getWindowWidth() {
+        return app.getWidth();
+    }
+
+    int getWindowHeight() {
+        return app.getHeight();
+    }
+
+    /**
+     * Start the app from a fresh copy of its element tree on the initial screen
+     */
+    private void launch() {
+        document = app.newDocument();
+        elementsById.clear();
+        idsByElement.clear();
+        backStack.clear();
+        running = true;
+        show(app.getInitialScreen());
+    }
+
+    private void show(String screen) {
+        if (StubApp.findScreen(document, screen) == null) {
+            throw StubCommandException.unsupported("Screen not defined in stub app: " + screen);
+        }
+        currentScreen = screen;
+        screenShownAt = System.currentTimeMillis();
+    }
+
+    private void tap(Element element) {
+        for (Element target = element; target != null; target = parentElement(target)) {
+            String destination = target.getAttribute(StubApp.NAVIGATE_ATTRIBUTE);
+            if (destination.isEmpty()) {
+                continue;
+            }
+            if ("back".equals(destination)) {
+                if (!backStack.isEmpty()) {
+                    show(backStack.pop());
+                }
+            } else {
+                backStack.push(currentScreen);
+                show(destination);
+            }
+            return;
+        }
+    }
+
+    private Element currentRoot() {
+        return running ? StubApp.findScreen(document, currentScreen) : null;
+    }
+
+    private boolean isLoaded() {
+        Element screen = StubApp.findScreen(document, currentScreen);
+        long loadDelay = StubApp.intAttribute(screen, StubApp.LOAD_DELAY_ATTRIBUTE, 0);
+        return System.currentTimeMillis() - screenShownAt >= loadDelay;
+    }
+
+    private boolean isOnCurrentScreen(Element element) {
+        Element root = currentRoot();
+        for (Node node = element; node != null; node = node.getParentNode()) {
+            if (node == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String register(Element element) {
+        String elementId = idsByElement.get(element);
+        if (elementId == null) {
+            elementId = UUID.randomUUID().toString();
+            idsByElement.put(element, elementId);
+            elementsById.put(elementId, element);
+        }
+        return elementId;
+    }
+
+    private Element elementAt(Element parent, int x, int y) {
+        Element hit = null;
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                Element element = (Element) node;
+                if (XCUIElementLocator.isVisible(element) && contains(element, x, y)) {
+                    Element deeper = elementAt(element, x, y);
+                    hit = deeper != null ? deeper : element;
+                }
+            }
+        }
+        return hit;
+    }
+
+    private static boolean contains(Element element, int x, int y) {
+        int left = StubApp.intAttribute(element, "x", 0);
+        int top = StubApp.intAttribute(element, "y", 0);
+        return x >= left && x < left + StubApp.intAttribute(element, "width", 0)
+                && y >= top && y < top + StubApp.intAttribute(element, "height", 0);
+    }
+
+    private static Element parentElement(Element element) {
+        Node parent = element.getParentNode();
+        return parent instanceof Element && !StubApp.SCREEN_TAG.equals(((Element) parent).getTagName())
+                ? (Element) parent
+                : null;
+    }
+
+    private void drawElements(Graphics2D graphics, Element parent) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                Element element = (Element) node;
+                if (XCUIElementLocator.isVisible(element)) {
+                    graphics.drawRect(StubApp.intAttribute(element, "x", 0), StubApp.intAttribute(element, "y", 0),
+                            StubApp.intAttribute(element, "width", 0), StubApp.intAttribute(element, "height", 0));
+                }
+                drawElements(graphics, element);
+            }
+        }
+    }
+
+    private static void stripStubAttributes(Element element) {
+        element.removeAttribute(StubApp.NAVIGATE_ATTRIBUTE);
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element) {
+                stripStubAttributes((Element) node);
+            }
+        }
+    }
+
+    private void checkBundleId(String bundleId) {
+        if (bundleId != null && !bundleId.isEmpty() && !app.getBundleId().isEmpty()
+                && !app.getBundleId().equals(bundleId)) {
+            throw StubCommandException.invalidArgument("Unknown bundle id: " + bundleId);
+        }
+    }
+}
@@ -24,9 +24,8 @@ public class AlertViewsTest extends BaseTest {
     public void testAlertViewsPageDisplayed() {
         logger.info("Starting test: Verify alert views page is displayed correctly");
 
-        // Initialize home page
-        HomePage homePage = new HomePage(getDriver());
-        AlertViewsPage alertViewsPage = new AlertViewsPage(getDriver());
+        // Get the home page from the session's page registry
+        HomePage homePage = pages.get(HomePage.class);
 
         // Wait for page to load
         homePage.waitForHomePageToLoad();
@@ -35,11 +34,12 @@ public class AlertViewsTest extends BaseTest {
         homePage.clickAlertViews();
 
         // Verify alert views page is displayed
+        AlertViewsPage alertViewsPage = pages.get(AlertViewsPage.class);
         assertThat(alertViewsPage.isAlertViewsPageDisplayed())
                 .as("Alert views page should be displayed")
                 .isTrue();
 
-        alertViewsPage.
+        alertViewsPage.clickOkayCancelButton();
 
         logger.info("Test completed: Alert views page is displayed correctly");
     }
@@ -0,0 +1,92 @@
+package org.example.utils;
+
+import org.example.metrics.TestPhase;
+import org.example.metrics.TestTimings;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * AdaptiveWait class polls a condition with a growing interval: the first
+ * checks follow each other closely so that fast screens are detected within
+ * tens of milliseconds, and the interval then backs off towards a maximum to
+ * avoid flooding the server while a slow screen loads.
+ */
+public class AdaptiveWait {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveWait.class);
+    private static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofMillis(50);
+    private static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMillis(500);
+    private static final double DEFAULT_MULTIPLIER = 1.5;
+
+    private final Duration timeout;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final double multiplier;
+
+    public AdaptiveWait(Duration timeout) {
+        this(timeout, DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL, DEFAULT_MULTIPLIER);
+    }
+
+    public AdaptiveWait(Duration timeout, Duration initialInterval, Duration maxInterval, double multiplier) {
+        this.timeout = timeout;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Poll a condition until it is met or the timeout expires. WebDriver
+     * exceptions thrown by the condition count as "not met yet".
+     * 
+     * @param condition Condition to poll
+     * @return true if the condition was met, false if the wait timed out
+     */
+    public boolean until(BooleanSupplier condition) {
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.WAIT)) {
+            return poll(condition);
+        }
+    }
+
+    private boolean poll(BooleanSupplier condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long interval = initialInterval.toNanos();
+        int attempts = 0;
+
+        while (true) {
+            attempts++;
+            if (check(condition)) {
+                logger.debug("Condition met after {} attempt(s) in {} ms", attempts,
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+                return true;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                logger.debug("Condition not met after {} attempt(s) in {} ms", attempts, timeout.toMillis());
+                return false;
+            }
+
+            try {
+                Thread.sleep(Duration.ofNanos(Math.min(interval, remaining)).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Wait was interrupted: {}", e.getMessage());
+                return false;
+            }
+            interval = Math.min((long) (interval * multiplier), maxInterval.toNanos());
+        }
+    }
+
+    private static boolean check(BooleanSupplier condition) {
+        try {
+            return condition.getAsBoolean();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for AdaptiveWait.
+ * Verifies when polling stops and how the interval between checks grows.
+ */
+public class AdaptiveWaitTest {
+
+    @Test
+    @DisplayName("A condition met at once is checked once")
+    public void testConditionMetAtOnce() {
+        AtomicInteger checks = new AtomicInteger();
+
+        boolean met = new AdaptiveWait(Duration.ofSeconds(5)).until(() -> checks.incrementAndGet() > 0);
+
+        assertThat(met).isTrue();
+        assertThat(checks).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("The interval between checks grows towards the maximum")
+    public void testBackoff() {
+        List<Long> checkTimes = new ArrayList<>();
+        AdaptiveWait wait = new AdaptiveWait(Duration.ofSeconds(5), Duration.ofMillis(20), Duration.ofMillis(80), 2);
+
+        boolean met = wait.until(() -> {
+            checkTimes.add(System.nanoTime());
+            return checkTimes.size() == 5;
+        });
+
+        assertThat(met).isTrue();
+        // Intervals of 20, 40, 80 and 80 ms
+        assertThat(millisBetween(checkTimes, 0, 1)).isBetween(20L, 80L);
+        assertThat(millisBetween(checkTimes, 1, 2)).isBetween(40L, 120L);
+        assertThat(millisBetween(checkTimes, 2, 3)).isBetween(80L, 160L);
+        assertThat(millisBetween(checkTimes, 3, 4)).isBetween(80L, 160L);
+    }
+
+    @Test
+    @DisplayName("A condition never met times out")
+    public void testTimeout() {
+        long start = System.nanoTime();
+
+        boolean met = new AdaptiveWait(Duration.ofMillis(200)).until(() -> false);
+
+        assertThat(met).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isBetween(200L, 1000L);
+    }
+
+    @Test
+    @DisplayName("WebDriver exceptions count as not met, other exceptions end the wait")
+    public void testExceptions() {
+        AtomicInteger checks = new AtomicInteger();
+
+        boolean met = new AdaptiveWait(Duration.ofSeconds(5)).until(() -> {
+            if (checks.incrementAndGet() < 3) {
+                throw new NoSuchElementException("Alert Views");
+            }
+            return true;
+        });
+
+        assertThat(met).isTrue();
+        assertThat(checks).hasValue(3);
+        assertThatThrownBy(() -> new AdaptiveWait(Duration.ofSeconds(5)).until(() -> {
+            throw new IllegalStateException("broken condition");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("An interrupted wait gives up and keeps the interrupt")
+    public void testInterrupt() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(new AdaptiveWait(Duration.ofSeconds(5)).until(() -> false)).isFalse();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private static long millisBetween(List<Long> times, int from, int to) {
+        return Duration.ofNanos(times.get(to) - times.get(from)).toMillis();
+    }
+}
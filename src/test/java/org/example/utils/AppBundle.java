@@ -0,0 +1,112 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * AppBundle class finds the bundle id of the application under test when
+ * bundle_id is not configured: from the capabilities of a running session, or
+ * from the Info.plist of an .app bundle on disk. Only XML property lists can be
+ * read; built apps often carry a binary Info.plist, in which case the bundle id
+ * has to be configured.
+ */
+public final class AppBundle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppBundle.class);
+    private static final String BUNDLE_ID_KEY = "CFBundleIdentifier";
+    private static final String BINARY_PLIST_MAGIC = "bplist";
+
+    private AppBundle() {
+    }
+
+    /**
+     * Get the bundle id to use for an app
+     * 
+     * @param configuredBundleId Configured bundle_id, may be null or empty
+     * @param appPath            Configured app_path, may be null or empty
+     * @return Configured bundle id, else the one in the app's Info.plist, or
+     *         null if neither is available
+     */
+    public static String resolve(String configuredBundleId, String appPath) {
+        if (configuredBundleId != null && !configuredBundleId.isEmpty()) {
+            return configuredBundleId;
+        }
+        return appPath != null && !appPath.isEmpty() ? fromApp(Paths.get(appPath)) : null;
+    }
+
+    /**
+     * Get the bundle id a session was started with
+     * 
+     * @param driver Driver session
+     * @return Value of the bundleId (or appium:bundleId) capability, or null
+     */
+    public static String fromSession(AppiumDriver driver) {
+        for (String name : new String[]{"bundleId", "appium:bundleId"}) {
+            Object value = driver.getCapabilities().getCapability(name);
+            if (value != null && !value.toString().isEmpty()) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read CFBundleIdentifier from the Info.plist of an .app bundle
+     * 
+     * @param app Path of the .app directory
+     * @return Bundle id, or null if the app is not a directory or its
+     *         Info.plist is missing or binary
+     */
+    static String fromApp(Path app) {
+        Path plist = app.resolve("Info.plist");
+        if (!Files.isRegularFile(plist)) {
+            return null;
+        }
+        try {
+            byte[] content = Files.readAllBytes(plist);
+            if (new String(content, 0, Math.min(content.length, BINARY_PLIST_MAGIC.length()),
+                    StandardCharsets.US_ASCII).equals(BINARY_PLIST_MAGIC)) {
+                logger.debug("{} is a binary property list, bundle id cannot be read", plist);
+                return null;
+            }
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            Document document;
+            try (InputStream in = Files.newInputStream(plist)) {
+                document = factory.newDocumentBuilder().parse(in);
+            }
+            NodeList keys = document.getElementsByTagName("key");
+            for (int i = 0; i < keys.getLength(); i++) {
+                if (!BUNDLE_ID_KEY.equals(keys.item(i).getTextContent().trim())) {
+                    continue;
+                }
+                Node value = keys.item(i).getNextSibling();
+                while (value != null && !(value instanceof Element)) {
+                    value = value.getNextSibling();
+                }
+                return value != null ? value.getTextContent().trim() : null;
+            }
+            return null;
+        } catch (IOException | ParserConfigurationException | SAXException e) {
+            logger.warn("Failed to read bundle id from {}: {}", plist, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.utils;
+
+import org.example.config.DeviceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AppInstallCache class remembers the SHA-256 checksum of the app last
+ * installed on each device, in a properties file that outlives the test run.
+ * Sessions only pass the app to Appium (which reinstalls it) when the app
+ * changed since it was installed on the device; otherwise the installed app is
+ * launched by its bundle id. An .app bundle is a directory, so its checksum
+ * covers the relative path and content of every file in it.
+ * Installs are only remembered for devices with a concrete UDID; "auto"
+ * could stand for a different simulator in every run.
+ */
+public class AppInstallCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppInstallCache.class);
+    private static final Map<Path, AppInstallCache> caches = new ConcurrentHashMap<>();
+    private static final String AUTO_UDID = "auto";
+
+    private final Path stateFile;
+    private final Map<Path, String> checksums = new ConcurrentHashMap<>();
+
+    AppInstallCache(Path stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Get the cache backed by a state file; there is one instance per file
+     * 
+     * @param stateFile Properties file mapping device UDIDs to app checksums
+     * @return AppInstallCache instance
+     */
+    public static AppInstallCache forStateFile(String stateFile) {
+        return caches.computeIfAbsent(Paths.get(stateFile).toAbsolutePath().normalize(), AppInstallCache::new);
+    }
+
+    /**
+     * Check whether a device has a UDID the installed app can be remembered by
+     * 
+     * @param device Device the session is created on
+     * @return false for a missing UDID or "auto"
+     */
+    public static boolean isConcrete(DeviceConfig device) {
+        String udid = device.getUdid();
+        return udid != null && !udid.trim().isEmpty() && !AUTO_UDID.equalsIgnoreCase(udid.trim());
+    }
+
+    /**
+     * Check whether an app has to be installed on a device
+     * 
+     * @param device  Device the session is created on
+     * @param appPath Path of the .app bundle, .ipa or .zip
+     * @return true if the app changed since it was last installed on the device,
+     *         or its checksum cannot be computed
+     */
+    public boolean needsInstall(DeviceConfig device, String appPath) {
+        if (!isConcrete(device)) {
+            return true;
+        }
+        String checksum;
+        try {
+            checksum = checksum(appPath);
+        } catch (UncheckedIOException e) {
+            logger.warn("Cannot compute checksum of {}, installing it: {}", appPath, e.getMessage());
+            return true;
+        }
+        synchronized (this) {
+            String installed = load().getProperty(String.valueOf(device.getUdid()));
+            return !checksum.equals(installed);
+        }
+    }
+
+    /**
+     * Record that the current version of an app was installed on a device
+     * 
+     * @param device  Device the app was installed on
+     * @param appPath Path of the installed app
+     */
+    public void recordInstalled(DeviceConfig device, String appPath) {
+        if (!isConcrete(device)) {
+            return;
+        }
+        String checksum;
+        try {
+            checksum = checksum(appPath);
+        } catch (UncheckedIOException e) {
+            return;
+        }
+        synchronized (this) {
+            Properties state = load();
+            state.setProperty(String.valueOf(device.getUdid()), checksum);
+            save(state);
+        }
+    }
+
+    /**
+     * Forget the app installed on a device, so that the next session installs
+     * it again
+     * 
+     * @param device Device to forget
+     */
+    public synchronized void forget(DeviceConfig device) {
+        Properties state = load();
+        if (state.remove(String.valueOf(device.getUdid())) != null) {
+            save(state);
+        }
+    }
+
+    /**
+     * Checksum of an app, computed once per test run
+     */
+    private String checksum(String appPath) {
+        return checksums.computeIfAbsent(Paths.get(appPath).toAbsolutePath().normalize(), AppInstallCache::sha256);
+    }
+
+    private static String sha256(Path app) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(app)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                digest.update(app.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = Files.newInputStream(file)) {
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Properties load() {
+        Properties state = new Properties();
+        if (Files.isRegularFile(stateFile)) {
+            try (InputStream in = Files.newInputStream(stateFile)) {
+                state.load(in);
+            } catch (IOException e) {
+                logger.warn("Failed to read app install state from {}: {}", stateFile, e.getMessage());
+            }
+        }
+        return state;
+    }
+
+    private void save(Properties state) {
+        try {
+            if (stateFile.getParent() != null) {
+                Files.createDirectories(stateFile.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(stateFile)) {
+                state.store(out, "SHA-256 of the app last installed on each device");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save app install state to {}: {}", stateFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.utils;
+
+import org.example.config.DeviceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for AppInstallCache.
+ * Verifies that an app is only installed again when it changed, per device
+ * and across runs, and never remembered for devices without a concrete UDID.
+ */
+public class AppInstallCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private Path stateFile;
+    private Path app;
+    private DeviceConfig device;
+
+    @BeforeEach
+    public void createApp() throws Exception {
+        stateFile = directory.resolve("state").resolve("app-installs.properties");
+        app = directory.resolve("UIKitCatalog.app");
+        Files.createDirectories(app.resolve("Frameworks"));
+        write(app.resolve("Info.plist"), "version 1");
+        write(app.resolve("Frameworks").resolve("Library.dylib"), "library");
+        device = device("00008030-001A2B3C4D5E6F70");
+    }
+
+    @Test
+    @DisplayName("An installed app is not installed again, also in a later run")
+    public void testRememberInstall() {
+        AppInstallCache cache = new AppInstallCache(stateFile);
+        assertThat(cache.needsInstall(device, app.toString())).isTrue();
+
+        cache.recordInstalled(device, app.toString());
+
+        assertThat(cache.needsInstall(device, app.toString())).isFalse();
+        assertThat(new AppInstallCache(stateFile).needsInstall(device, app.toString())).isFalse();
+        assertThat(cache.needsInstall(device("other-device"), app.toString())).isTrue();
+    }
+
+    @Test
+    @DisplayName("A changed file anywhere in the bundle makes the next run install the app")
+    public void testChangedApp() throws Exception {
+        new AppInstallCache(stateFile).recordInstalled(device, app.toString());
+
+        write(app.resolve("Frameworks").resolve("Library.dylib"), "library 2");
+
+        assertThat(new AppInstallCache(stateFile).needsInstall(device, app.toString())).isTrue();
+    }
+
+    @Test
+    @DisplayName("A forgotten device installs the app again")
+    public void testForget() {
+        AppInstallCache cache = new AppInstallCache(stateFile);
+        cache.recordInstalled(device, app.toString());
+
+        cache.forget(device);
+
+        assertThat(cache.needsInstall(device, app.toString())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Installs are not remembered without a concrete UDID or a readable app")
+    public void testNotRemembered() {
+        AppInstallCache cache = new AppInstallCache(stateFile);
+        DeviceConfig auto = device("auto");
+
+        cache.recordInstalled(auto, app.toString());
+
+        assertThat(AppInstallCache.isConcrete(auto)).isFalse();
+        assertThat(AppInstallCache.isConcrete(device(" "))).isFalse();
+        assertThat(cache.needsInstall(auto, app.toString())).isTrue();
+        assertThat(cache.needsInstall(device, directory.resolve("Missing.app").toString())).isTrue();
+        assertThat(stateFile).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("There is one cache per state file")
+    public void testSharedPerStateFile() {
+        assertThat(AppInstallCache.forStateFile(stateFile.toString()))
+                .isSameAs(AppInstallCache.forStateFile(stateFile.resolve("..").resolve(stateFile.getFileName())
+                        .toString()))
+                .isNotSameAs(AppInstallCache.forStateFile(directory.resolve("other.properties").toString()));
+    }
+
+    private static DeviceConfig device(String udid) {
+        DeviceConfig device = new DeviceConfig();
+        device.setUdid(udid);
+        return device;
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
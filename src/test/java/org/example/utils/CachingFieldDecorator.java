@@ -0,0 +1,37 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.Field;
+
+/**
+ * CachingFieldDecorator class lets PageFactory initialize pages that lazy
+ * binding cannot handle completely (element lists, other locator
+ * annotations) while their {@code @iOSXCUITFindBy} WebElement fields still
+ * share the page's {@link PageElements} cache: those fields get the page's
+ * lazy handles, every other field is left to the AppiumFieldDecorator.
+ */
+public class CachingFieldDecorator implements FieldDecorator {
+
+    private final PageMetadata metadata;
+    private final PageElements elements;
+    private final FieldDecorator delegate;
+
+    public CachingFieldDecorator(AppiumDriver driver, PageMetadata metadata, PageElements elements) {
+        this(metadata, elements, new AppiumFieldDecorator(driver));
+    }
+
+    public CachingFieldDecorator(PageMetadata metadata, PageElements elements, FieldDecorator delegate) {
+        this.metadata = metadata;
+        this.elements = elements;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object decorate(ClassLoader loader, Field field) {
+        int index = metadata.indexOf(field);
+        return index >= 0 ? elements.handle(index) : delegate.decorate(loader, field);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.pages.AlertViewsPage;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for CachingFieldDecorator.
+ * Verifies that pages initialized by PageFactory share the page's element
+ * handles and their cache, counting the lookups on a StubAppiumServer.
+ */
+public class CachingFieldDecoratorTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private AppiumDriver driver;
+    private PageMetadata metadata;
+
+    @BeforeEach
+    public void startSession() {
+        driver = stub.newDriver();
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
+        metadata = PageMetadata.of(AlertViewsPage.class);
+    }
+
+    @Test
+    @DisplayName("Element fields looked up through PageFactory are cached until an invalidating action")
+    public void testCachedFields() throws Exception {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        AlertViewsPage page = new AlertViewsPage(driver);
+        PageFactory.initElements(new CachingFieldDecorator(driver, metadata, elements), page);
+        WebElement okayCancel = field(page, "okayCancelButton");
+        driver.findElement(AppiumBy.accessibilityId("Alert Views")).click();
+        int lookups = stub.getServer().getCommandCount("findElement");
+
+        assertThat(okayCancel.isDisplayed()).isTrue();
+        assertThat(okayCancel.isEnabled()).isTrue();
+        assertThat(stub.getServer().getCommandCount("findElement")).isEqualTo(lookups + 1);
+        assertThat(elements.size()).isEqualTo(1);
+
+        okayCancel.click();
+        assertThat(elements.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Fields that are not element fields are left to the delegate decorator")
+    public void testOtherFields() throws Exception {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        Object delegated = new Object();
+        CachingFieldDecorator decorator = new CachingFieldDecorator(metadata, elements, (loader, field) -> delegated);
+        Field logger = AlertViewsPage.class.getDeclaredField("logger");
+        Field backButton = AlertViewsPage.class.getDeclaredField("backButton");
+
+        assertThat(decorator.decorate(getClass().getClassLoader(), logger)).isSameAs(delegated);
+        assertThat(decorator.decorate(getClass().getClassLoader(), backButton)).isInstanceOf(WebElement.class)
+                .isNotSameAs(delegated);
+        assertThat(elements.size()).isZero();
+    }
+
+    private static WebElement field(Object page, String name) throws ReflectiveOperationException {
+        Field field = page.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return (WebElement) field.get(page);
+    }
+}
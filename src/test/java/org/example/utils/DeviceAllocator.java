@@ -0,0 +1,152 @@
+package org.example.utils;
+
+import org.example.config.DeviceConfig;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DeviceAllocator class hands out the configured devices to test worker
+ * threads so that every parallel session runs on its own simulator or device.
+ * A thread is given back the device it used last whenever that device is
+ * free, which keeps warm sessions on the same worker.
+ * Devices are identified by udid, so {@link #setDevices} can replace the
+ * device list after a configuration reload while devices are in use.
+ */
+public class DeviceAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceAllocator.class);
+
+    private volatile List<DeviceConfig> devices;
+    private final LinkedList<DeviceConfig> freeDevices;
+    private final ThreadLocal<DeviceConfig> lastDevice = new ThreadLocal<>();
+
+    public DeviceAllocator(List<DeviceConfig> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("At least one device must be configured");
+        }
+        this.devices = Collections.unmodifiableList(new ArrayList<>(devices));
+        this.freeDevices = new LinkedList<>(devices);
+        logger.info("Device allocator created with {} device(s)", devices.size());
+    }
+
+    /**
+     * Allocate a free device without blocking
+     * 
+     * @return Allocated device, or null if every device is in use
+     */
+    public synchronized DeviceConfig tryAcquire() {
+        if (freeDevices.isEmpty()) {
+            return null;
+        }
+        DeviceConfig preferred = lastDevice.get() != null ? find(freeDevices, lastDevice.get().getUdid()) : null;
+        DeviceConfig device = preferred != null && freeDevices.remove(preferred)
+                ? preferred
+                : freeDevices.removeFirst();
+        lastDevice.set(device);
+        logger.debug("Allocated device {} to thread {}", device.getUdid(), Thread.currentThread().getName());
+        return device;
+    }
+
+    /**
+     * Allocate a device, waiting until one is released if all are in use
+     * 
+     * @return Allocated device
+     */
+    public synchronized DeviceConfig acquire() {
+        try {
+            while (freeDevices.isEmpty()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a free device", e);
+        }
+        return tryAcquire();
+    }
+
+    /**
+     * Return a device so that it can be allocated again. A device that is no
+     * longer configured is dropped, and one whose configuration changed
+     * meanwhile is handed out with its new configuration.
+     * 
+     * @param device Device previously obtained from this allocator
+     */
+    public synchronized void release(DeviceConfig device) {
+        DeviceConfig current = find(devices, device.getUdid());
+        if (current == null) {
+            logger.info("Device {} is no longer configured, not allocating it again", device.getUdid());
+        } else if (!freeDevices.contains(current)) {
+            freeDevices.addLast(current);
+            logger.debug("Released device {}", device.getUdid());
+            notifyAll();
+        }
+    }
+
+    /**
+     * Replace the managed devices, e.g. after the configured devices changed.
+     * Free devices are replaced at once; a device in use keeps running until
+     * it is released, and is then replaced by its new configuration or
+     * dropped if it is no longer configured.
+     * 
+     * @param updated Devices to manage from now on
+     */
+    public synchronized void setDevices(List<DeviceConfig> updated) {
+        if (updated.isEmpty()) {
+            throw new IllegalArgumentException("At least one device must be configured");
+        }
+        List<DeviceConfig> inUse = new ArrayList<>(devices);
+        inUse.removeAll(freeDevices);
+        devices = Collections.unmodifiableList(new ArrayList<>(updated));
+        freeDevices.clear();
+        for (DeviceConfig device : updated) {
+            if (find(inUse, device.getUdid()) == null) {
+                freeDevices.addLast(device);
+            }
+        }
+        logger.info("Device allocator updated to {} device(s), {} in use", updated.size(), inUse.size());
+        notifyAll();
+    }
+
+    /**
+     * Get the device the current thread was allocated last
+     * 
+     * @return Device, or null if the thread has not been allocated one yet
+     */
+    public DeviceConfig getPreferredDevice() {
+        return lastDevice.get();
+    }
+
+    /**
+     * Remember a device as the current thread's preferred device
+     * 
+     * @param device Device now in use by the current thread
+     */
+    public void setPreferredDevice(DeviceConfig device) {
+        lastDevice.set(device);
+    }
+
+    /**
+     * Get all devices managed by this allocator
+     * 
+     * @return Unmodifiable list of devices
+     */
+    public List<DeviceConfig> getDevices() {
+        return devices;
+    }
+
+    private static DeviceConfig find(List<DeviceConfig> candidates, String udid) {
+        for (DeviceConfig candidate : candidates) {
+            if (Objects.equals(candidate.getUdid(), udid)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
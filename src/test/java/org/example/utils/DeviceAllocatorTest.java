@@ -0,0 +1,88 @@
+package org.example.utils;
+
+import org.example.config.DeviceConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for DeviceAllocator.
+ * Verifies allocation and release, and that an updated device list takes
+ * effect for free devices at once and for devices in use when they are
+ * released.
+ */
+public class DeviceAllocatorTest {
+
+    @Test
+    @DisplayName("A thread gets back the device it used last when it is free")
+    public void testPreferredDevice() {
+        DeviceAllocator allocator = new DeviceAllocator(Arrays.asList(device("a", "A"), device("b", "B")));
+
+        DeviceConfig first = allocator.acquire();
+        allocator.release(first);
+        allocator.release(first);
+
+        assertThat(allocator.acquire()).isSameAs(first);
+        assertThat(allocator.tryAcquire()).isNotSameAs(first);
+        assertThat(allocator.tryAcquire()).isNull();
+    }
+
+    @Test
+    @DisplayName("Updated free devices are handed out at once")
+    public void testUpdateFreeDevices() {
+        DeviceAllocator allocator = new DeviceAllocator(Collections.singletonList(device("a", "A")));
+        DeviceConfig renamed = device("a", "A2");
+        DeviceConfig added = device("b", "B");
+
+        allocator.setDevices(Arrays.asList(renamed, added));
+
+        assertThat(allocator.getDevices()).containsExactly(renamed, added);
+        assertThat(allocator.tryAcquire()).isSameAs(renamed);
+        assertThat(allocator.tryAcquire()).isSameAs(added);
+    }
+
+    @Test
+    @DisplayName("A device in use is replaced or dropped when it is released")
+    public void testUpdateDevicesInUse() {
+        DeviceConfig a = device("a", "A");
+        DeviceConfig b = device("b", "B");
+        DeviceAllocator allocator = new DeviceAllocator(Arrays.asList(a, b));
+        assertThat(allocator.tryAcquire()).isSameAs(a);
+        assertThat(allocator.tryAcquire()).isSameAs(b);
+        DeviceConfig renamed = device("a", "A2");
+
+        allocator.setDevices(Collections.singletonList(renamed));
+        assertThat(allocator.tryAcquire()).isNull();
+
+        allocator.release(b);
+        assertThat(allocator.tryAcquire()).isNull();
+        allocator.release(a);
+        assertThat(allocator.tryAcquire()).isSameAs(renamed);
+    }
+
+    @Test
+    @DisplayName("A thread waiting for a device gets one that is added")
+    public void testWaiterGetsAddedDevice() throws Exception {
+        DeviceAllocator allocator = new DeviceAllocator(Collections.singletonList(device("a", "A")));
+        DeviceConfig a = allocator.acquire();
+        CompletableFuture<DeviceConfig> waiting = CompletableFuture.supplyAsync(allocator::acquire);
+        DeviceConfig added = device("b", "B");
+
+        allocator.setDevices(Arrays.asList(a, added));
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(added);
+    }
+
+    private static DeviceConfig device(String udid, String name) {
+        DeviceConfig device = new DeviceConfig();
+        device.setUdid(udid);
+        device.setDeviceName(name);
+        return device;
+    }
+}
@@ -3,26 +3,61 @@ package org.example.utils;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.config.AppiumConfig;
 import org.example.config.ConfigManager;
+import org.example.config.DeviceConfig;
+import org.example.metrics.InstrumentedIOSDriver;
+import org.example.metrics.TestPhase;
+import org.example.metrics.TestTimings;
+import org.example.pages.PageRegistry;
+import org.example.stub.StubAppiumServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * DriverManager class handles the creation and management of Appium driver
  * instances.
- * This class ensures that only one driver instance exists at a time and
- * provides
- * proper cleanup functionality.
+ * Each test thread gets its own driver, running on a device handed out by the
+ * {@link DeviceAllocator}, and proper cleanup functionality is provided.
+ * When the session pool is enabled, drivers are leased from a
+ * {@link SessionPool} and returned to it instead of being quit.
+ * When a configuration reload changes the session capabilities, the pooled
+ * sessions are retired so that later tests get sessions with the new
+ * capabilities, and a changed device list is applied to the device allocator.
+ * The app is only installed when it changed since it was last installed on
+ * the device (see {@link AppInstallCache}), and with a derived_data_path the
+ * WebDriverAgent built by a device's first session is reused by the later
+ * ones, so only the warm-up (see {@link SessionWarmup}) pays for either.
+ * Sessions are started through a {@link SessionFactory}, which bounds the
+ * concurrent startups per Appium server and retries transient failures, and
+ * with session_prestart the next test's session is started on a free device
+ * while the current test runs.
  */
 public class DriverManager {
 
     private static final Logger logger = LoggerFactory.getLogger(DriverManager.class);
-    private static AppiumDriver driver;
+    static final String DEVICE_MDC_KEY = "device";
     private static final ThreadLocal<AppiumDriver> threadLocalDriver = new ThreadLocal<>();
+    private static final ThreadLocal<DeviceConfig> threadLocalDevice = new ThreadLocal<>();
+    private static DeviceAllocator deviceAllocator;
+    private static SessionPool sessionPool;
+    private static SessionFactory sessionFactory;
+    private static final Queue<PreparedDriver> preparedDrivers = new ConcurrentLinkedQueue<>();
+    private static final Set<String> wdaBuiltDevices = ConcurrentHashMap.newKeySet();
 
     /**
      * Get the current driver instance. Creates a new one if none exists.
@@ -32,37 +67,233 @@ public class DriverManager {
      */
     public static AppiumDriver getDriver() throws MalformedURLException {
         if (threadLocalDriver.get() == null) {
-            driver = createDriver();
+            AppiumDriver driver;
+            DeviceConfig device;
+            try (TestTimings.Timer ignored = TestTimings.time(TestPhase.SESSION)) {
+                if (ConfigManager.getInstance().isSessionPoolEnabled()) {
+                    SessionPool pool = getSessionPool();
+                    driver = pool.lease();
+                    device = pool.getDevice(driver);
+                } else {
+                    PreparedDriver prepared = takePreparedDriver();
+                    if (prepared != null) {
+                        driver = prepared.session.join();
+                        device = prepared.device;
+                        getDeviceAllocator().setPreferredDevice(device);
+                    } else {
+                        device = getDeviceAllocator().acquire();
+                        try {
+                            driver = getSessionFactory().create(device);
+                        } catch (MalformedURLException | RuntimeException e) {
+                            getDeviceAllocator().release(device);
+                            throw e;
+                        }
+                    }
+                }
+            }
             threadLocalDriver.set(driver);
+            threadLocalDevice.set(device);
+            // Route this thread's log output to the device's log file (see logback.xml)
+            MDC.put(DEVICE_MDC_KEY, String.valueOf(device.getUdid()));
+            if (ConfigManager.getInstance().isSessionPrestart()) {
+                prepareDriver();
+            }
         }
         return threadLocalDriver.get();
     }
 
+    /**
+     * Start a session ahead of the test that needs it, on a device that is not
+     * in use. The next call to {@link #getDriver()} on any thread takes it (or
+     * the pool leases it) instead of waiting for a new session to start.
+     * 
+     * @return true if a session is being started, false if every device is in use
+     */
+    public static boolean prepareDriver() {
+        if (ConfigManager.getInstance().isSessionPoolEnabled()) {
+            return getSessionPool().prestart();
+        }
+        DeviceAllocator allocator = getDeviceAllocator();
+        DeviceConfig preferred = allocator.getPreferredDevice();
+        DeviceConfig device = allocator.tryAcquire();
+        allocator.setPreferredDevice(preferred);
+        if (device == null) {
+            return false;
+        }
+        logger.info("Starting a session on device {} ahead of the next test", device.getUdid());
+        CompletableFuture<AppiumDriver> session = getSessionFactory().createAsync(device);
+        session.whenComplete((driver, error) -> {
+            if (error != null) {
+                logger.warn("Failed to start a session ahead of time on device {}: {}",
+                        device.getUdid(), error.getMessage());
+                allocator.release(device);
+            }
+        });
+        preparedDrivers.add(new PreparedDriver(device, session));
+        return true;
+    }
+
+    /**
+     * Take the oldest prepared session that started successfully, waiting for
+     * it if it is still starting
+     * 
+     * @return Prepared session, or null if there is none
+     */
+    private static PreparedDriver takePreparedDriver() {
+        PreparedDriver prepared;
+        while ((prepared = preparedDrivers.poll()) != null) {
+            try {
+                prepared.session.join();
+                return prepared;
+            } catch (CompletionException e) {
+                // Already logged, and the device released, when the session failed
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quit the prepared sessions no test has taken yet
+     */
+    private static void discardPreparedDrivers() {
+        PreparedDriver prepared;
+        while ((prepared = preparedDrivers.poll()) != null) {
+            DeviceConfig device = prepared.device;
+            prepared.session.thenAccept(driver -> {
+                GestureEngine.forget(driver);
+                try {
+                    driver.quit();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to quit prepared session: {}", e.getMessage());
+                } finally {
+                    getDeviceAllocator().release(device);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the session factory, creating it on first use. Prepared sessions are
+     * quit when the JVM shuts down or the session capabilities change.
+     * 
+     * @return SessionFactory instance
+     */
+    static synchronized SessionFactory getSessionFactory() {
+        if (sessionFactory == null) {
+            sessionFactory = SessionFactory.fromConfig(DriverManager::createDriver);
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(DriverManager::discardPreparedDrivers, "prepared-session-shutdown"));
+            ConfigManager.getInstance().addChangeListener((previous, current) -> {
+                if (capabilitiesChanged(previous, current)) {
+                    discardPreparedDrivers();
+                }
+            });
+        }
+        return sessionFactory;
+    }
+
+    /**
+     * Get the device allocator, creating it from the configured devices on first
+     * use. A configuration reload that changes the devices updates the
+     * allocator, which the session pool shares.
+     * 
+     * @return DeviceAllocator instance
+     */
+    static synchronized DeviceAllocator getDeviceAllocator() {
+        if (deviceAllocator == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            deviceAllocator = new DeviceAllocator(config.getDevices());
+            DeviceAllocator allocator = deviceAllocator;
+            config.addChangeListener((previous, current) -> {
+                List<DeviceConfig> devices = config.getDevices();
+                if (!String.valueOf(devices).equals(String.valueOf(allocator.getDevices()))) {
+                    logger.info("Configured devices changed, updating the device allocator");
+                    allocator.setDevices(devices);
+                }
+            });
+        }
+        return deviceAllocator;
+    }
+
+    /**
+     * Get the session pool, creating it on first use. The pool quits all of its
+     * sessions when the JVM shuts down.
+     * 
+     * @return SessionPool instance
+     */
+    static synchronized SessionPool getSessionPool() {
+        if (sessionPool == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            SessionResetStrategy resetStrategy = SessionResetStrategy.fromConfig(config.getSessionResetStrategy());
+            String bundleId = AppBundle.resolve(config.getBundleId(), config.getAppPath());
+            boolean hasApp = config.getAppPath() != null && !config.getAppPath().isEmpty();
+            // The "quit" strategy uses every session once
+            int maxUses = SessionResetStrategy.isQuit(config.getSessionResetStrategy())
+                    ? 1
+                    : config.getSessionMaxUses();
+            if (resetStrategy == SessionResetStrategy.TERMINATE_ACTIVATE && bundleId == null && !hasApp) {
+                // Nothing to learn the bundle id from, so sessions could never be reset
+                logger.warn("Neither bundle_id nor app_path is set, so pooled sessions cannot be reset "
+                        + "by terminate and activate; they are quit after each test instead");
+                maxUses = 1;
+            }
+            sessionPool = new SessionPool(
+                    getDeviceAllocator(),
+                    getSessionFactory(),
+                    maxUses,
+                    Duration.ofSeconds(config.getSessionIdleTimeout()),
+                    resetStrategy,
+                    bundleId);
+            Runtime.getRuntime().addShutdownHook(new Thread(sessionPool::shutdown, "session-pool-shutdown"));
+            SessionPool pool = sessionPool;
+            config.addChangeListener((previous, current) -> {
+                if (capabilitiesChanged(previous, current)) {
+                    logger.info("Session capabilities changed, recreating pooled sessions");
+                    pool.invalidateAll();
+                }
+            });
+            logger.info("Session pool created with up to {} session(s)", deviceAllocator.getDevices().size());
+        }
+        return sessionPool;
+    }
+
     /**
      * Create a new iOS driver instance with the specified capabilities
      * 
+     * @param device Device to create the session on
      * @return AppiumDriver instance
      * @throws MalformedURLException if the Appium server URL is malformed
      */
-    private static AppiumDriver createDriver() throws MalformedURLException {
-        logger.info("Creating new iOS driver instance...");
+    static AppiumDriver createDriver(DeviceConfig device) throws MalformedURLException {
+        logger.info("Creating new iOS driver instance on device {}...", device.getUdid());
 
-        ConfigManager config = ConfigManager.getInstance();
+        AppiumConfig config = ConfigManager.getInstance().getConfig();
 
         // Set up iOS capabilities
         XCUITestOptions options = new XCUITestOptions()
-                .setDeviceName(config.getDeviceName())
-                .setPlatformVersion(config.getPlatformVersion())
-                .setBundleId(config.getBundleId())
-                .setUdid(config.getUdid())
+                .setDeviceName(device.getDeviceName())
+                .setPlatformVersion(device.getPlatformVersion())
+                .setUdid(device.getUdid())
                 .setAutomationName("XCUITest")
                 .setNewCommandTimeout(Duration.ofSeconds(300))
                 .setWdaLaunchTimeout(Duration.ofSeconds(60))
                 .setWdaConnectionTimeout(Duration.ofSeconds(60));
 
-        // Add additional capabilities if specified
-        if (config.getAppPath() != null && !config.getAppPath().isEmpty()) {
-            options.setApp(config.getAppPath());
+        // Install the app only when it changed since it was installed on this device. Skipping
+        // the install launches the app by bundle id, so it needs one and a concrete device.
+        String appPath = config.getAppPath();
+        boolean hasApp = appPath != null && !appPath.isEmpty();
+        String bundleId = hasApp ? AppBundle.resolve(config.getBundleId(), appPath) : config.getBundleId();
+        AppInstallCache installCache = AppInstallCache.forStateFile(config.getAppInstallStateFile());
+        boolean install = hasApp && (config.isFullReset() || bundleId == null
+                || !AppInstallCache.isConcrete(device) || installCache.needsInstall(device, appPath));
+        if (bundleId != null && !bundleId.isEmpty()) {
+            options.setBundleId(bundleId);
+        }
+        if (install) {
+            options.setApp(appPath);
+        } else if (hasApp) {
+            logger.info("App is already installed on device {}, launching it by bundle id", device.getUdid());
         }
 
         if (config.isNoReset()) {
@@ -73,12 +304,120 @@ public class DriverManager {
             options.setFullReset(true);
         }
 
-        // Create driver instance
-        URL appiumServerUrl = new URL(config.getAppiumServerUrl());
-        driver = new IOSDriver(appiumServerUrl, options);
+        // Give every parallel session its own WebDriverAgent port
+        if (device.getWdaLocalPort() != null) {
+            options.setWdaLocalPort(device.getWdaLocalPort());
+        }
+
+        // Build WebDriverAgent into a directory per device and reuse it once built
+        String udid = String.valueOf(device.getUdid());
+        if (config.getDerivedDataPath() != null && !config.getDerivedDataPath().isEmpty()) {
+            options.setDerivedDataPath(Paths.get(config.getDerivedDataPath(), udid).toAbsolutePath().toString());
+        }
+        if (config.isUsePrebuiltWda() || wdaBuiltDevices.contains(udid)) {
+            options.usePrebuiltWda();
+        }
 
+        // Create driver instance (against the in-process stub server when enabled)
+        URL appiumServerUrl = config.isStubServerEnabled()
+                ? StubAppiumServer.getInstance().getUrl()
+                : new URL(device.getAppiumServerUrl());
+        AppiumDriver newDriver;
+        try {
+            newDriver = newIOSDriver(config, appiumServerUrl, options);
+        } catch (RuntimeException e) {
+            if (install || !hasApp) {
+                throw e;
+            }
+            // The app may have been removed from the device since it was recorded
+            logger.warn("Session without app install failed on device {}, retrying with the app: {}",
+                    device.getUdid(), e.getMessage());
+            installCache.forget(device);
+            options.setApp(appPath);
+            install = true;
+            newDriver = newIOSDriver(config, appiumServerUrl, options);
+        }
+
+        if (install) {
+            installCache.recordInstalled(device, appPath);
+        }
+        if (config.getDerivedDataPath() != null && !config.getDerivedDataPath().isEmpty()) {
+            wdaBuiltDevices.add(udid);
+        }
         logger.info("iOS driver created successfully");
-        return driver;
+        return newDriver;
+    }
+
+    private static AppiumDriver newIOSDriver(AppiumConfig config, URL url, XCUITestOptions options) {
+        if (!config.isHttpClientShared()) {
+            return config.isCommandMetricsEnabled()
+                    ? new InstrumentedIOSDriver(url, options)
+                    : new IOSDriver(url, options);
+        }
+        // Share one HTTP client and its keep-alive connections per Appium server
+        SharedHttpClientFactory httpClients = SharedHttpClientFactory.getInstance();
+        return config.isCommandMetricsEnabled()
+                ? new InstrumentedIOSDriver(url, httpClients, options)
+                : new IOSDriver(url, httpClients, options);
+    }
+
+    /**
+     * Check whether a configuration change affects the capabilities of new
+     * sessions
+     * 
+     * @param previous Configuration before the reload
+     * @param current  Configuration after the reload
+     * @return true if sessions created now would differ
+     */
+    private static boolean capabilitiesChanged(AppiumConfig previous, AppiumConfig current) {
+        return !Objects.equals(previous.getBundleId(), current.getBundleId())
+                || !Objects.equals(previous.getAppPath(), current.getAppPath())
+                || previous.isNoReset() != current.isNoReset()
+                || previous.isFullReset() != current.isFullReset()
+                || !Objects.equals(previous.getDeviceName(), current.getDeviceName())
+                || !Objects.equals(previous.getPlatformVersion(), current.getPlatformVersion())
+                || !Objects.equals(previous.getUdid(), current.getUdid())
+                || !Objects.equals(previous.getAppiumServerUrl(), current.getAppiumServerUrl())
+                || previous.isStubServerEnabled() != current.isStubServerEnabled()
+                || previous.isUsePrebuiltWda() != current.isUsePrebuiltWda()
+                || !Objects.equals(previous.getDerivedDataPath(), current.getDerivedDataPath())
+                || !Objects.equals(String.valueOf(previous.getDevices()), String.valueOf(current.getDevices()));
+    }
+
+    /**
+     * Release the current thread's driver. Pooled drivers are reset and returned
+     * to the session pool; otherwise the driver is quit. Either way the pages
+     * registered for the session are dropped.
+     */
+    public static void releaseDriver() {
+        AppiumDriver current = threadLocalDriver.get();
+        if (current == null) {
+            return;
+        }
+
+        SessionPool pool;
+        synchronized (DriverManager.class) {
+            pool = sessionPool;
+        }
+        PageRegistry.evict(current);
+        try (TestTimings.Timer ignored = TestTimings.time(TestPhase.QUIT)) {
+            if (pool != null) {
+                pool.release(current);
+            } else {
+                try {
+                    current.quit();
+                } finally {
+                    GestureEngine.forget(current);
+                    DeviceConfig device = threadLocalDevice.get();
+                    if (device != null) {
+                        getDeviceAllocator().release(device);
+                    }
+                }
+            }
+        } finally {
+            // Even if quitting failed, the thread must not keep the driver or its device
+            resetDriver();
+        }
     }
 
     /**
@@ -88,7 +427,8 @@ public class DriverManager {
         if (threadLocalDriver.get() != null) {
             threadLocalDriver.remove();
         }
-        driver = null;
+        threadLocalDevice.remove();
+        MDC.remove(DEVICE_MDC_KEY);
         logger.info("Driver instance reset");
     }
 
@@ -100,4 +440,26 @@ public class DriverManager {
     public static AppiumDriver getCurrentDriver() {
         return threadLocalDriver.get();
     }
+
+    /**
+     * Get the device the current thread's driver is running on
+     * 
+     * @return DeviceConfig or null if no driver exists
+     */
+    public static DeviceConfig getCurrentDevice() {
+        return threadLocalDevice.get();
+    }
+
+    /**
+     * A session started ahead of time on a device reserved for it
+     */
+    private static class PreparedDriver {
+        private final DeviceConfig device;
+        private final CompletableFuture<AppiumDriver> session;
+
+        private PreparedDriver(DeviceConfig device, CompletableFuture<AppiumDriver> session) {
+            this.device = device;
+            this.session = session;
+        }
+    }
 }
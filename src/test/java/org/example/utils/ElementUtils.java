@@ -1,35 +1,43 @@
 package org.example.utils;
 
 import io.appium.java_client.AppiumDriver;
+import org.example.metrics.TimedWebDriverWait;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.interactions.PointerInput;
-import org.openqa.selenium.interactions.Sequence;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
 
 import java.time.Duration;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ElementUtils class provides common utility methods for interacting with
  * mobile elements.
  * This class contains methods for common operations like scrolling, swiping,
- * and element interactions.
+ * and element interactions. Gestures are performed by a {@link GestureEngine}.
  */
 public class ElementUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(ElementUtils.class);
     private final AppiumDriver driver;
     private final WebDriverWait wait;
+    private final GestureEngine gestures;
+
+    private static final int DEFAULT_MAX_SCROLLS = 20;
+    private static final long DEFAULT_SCROLL_TIMEOUT_SECONDS = 30;
 
     public ElementUtils(AppiumDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.wait = new TimedWebDriverWait(driver, Duration.ofSeconds(10));
+        this.gestures = new GestureEngine(driver);
     }
 
     /**
@@ -55,7 +63,33 @@ public class ElementUtils {
     }
 
     /**
-     * Check if an element is present
+     * Wait for an element to be absent or hidden
+     * 
+     * @param locator Element locator
+     * @return true if the element is gone, false if it is still visible
+     */
+    public boolean waitForElementAbsent(By locator) {
+        return waitForElementAbsent(locator, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Wait for an element to be absent or hidden. The implicit wait is
+     * suspended while polling, so each check returns immediately.
+     * 
+     * @param locator Element locator
+     * @param timeout Maximum time to wait
+     * @return true if the element is gone, false if it is still visible
+     */
+    public boolean waitForElementAbsent(By locator, Duration timeout) {
+        logger.debug("Waiting for element to be absent: {}", locator);
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            return new AdaptiveWait(timeout).until(() -> !isElementVisibleNow(locator));
+        }
+    }
+
+    /**
+     * Check if an element is present, waiting up to the implicit wait for it
+     * to appear
      * 
      * @param locator Element locator
      * @return true if element is present, false otherwise
@@ -70,7 +104,8 @@ public class ElementUtils {
     }
 
     /**
-     * Check if an element is visible
+     * Check if an element is visible, waiting up to the implicit wait for it
+     * to appear
      * 
      * @param locator Element locator
      * @return true if element is visible, false otherwise
@@ -84,56 +119,125 @@ public class ElementUtils {
         }
     }
 
+    /**
+     * Check if an element is present right now. The implicit wait is
+     * suspended, so a missing element is reported immediately; use this for
+     * absence checks rather than before acting on the element.
+     * 
+     * @param locator Element locator
+     * @return true if element is present, false otherwise
+     */
+    public boolean isElementPresentNow(By locator) {
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            return !driver.findElements(locator).isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if an element is visible right now. The implicit wait is
+     * suspended, so a missing element is reported immediately; use this for
+     * absence checks rather than before acting on the element.
+     * 
+     * @param locator Element locator
+     * @return true if element is visible, false otherwise
+     */
+    public boolean isElementVisibleNow(By locator) {
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            List<WebElement> elements = driver.findElements(locator);
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     /**
      * Scroll down on the screen
      */
     public void scrollDown() {
-        logger.debug("Scrolling down");
-        Dimension size = driver.manage().window().getSize();
-        int startX = size.width / 2;
-        int startY = (int) (size.height * 0.8);
-        int endY = (int) (size.height * 0.2);
-
-        performSwipe(startX, startY, startX, endY);
+        gestures.scroll(GestureEngine.Direction.DOWN);
     }
 
     /**
      * Scroll up on the screen
      */
     public void scrollUp() {
-        logger.debug("Scrolling up");
-        Dimension size = driver.manage().window().getSize();
-        int startX = size.width / 2;
-        int startY = (int) (size.height * 0.2);
-        int endY = (int) (size.height * 0.8);
-
-        performSwipe(startX, startY, startX, endY);
+        gestures.scroll(GestureEngine.Direction.UP);
     }
 
     /**
      * Swipe left on the screen
      */
     public void swipeLeft() {
-        logger.debug("Swiping left");
-        Dimension size = driver.manage().window().getSize();
-        int startX = (int) (size.width * 0.8);
-        int endX = (int) (size.width * 0.2);
-        int y = size.height / 2;
-
-        performSwipe(startX, y, endX, y);
+        gestures.swipe(GestureEngine.Direction.LEFT);
     }
 
     /**
      * Swipe right on the screen
      */
     public void swipeRight() {
-        logger.debug("Swiping right");
-        Dimension size = driver.manage().window().getSize();
-        int startX = (int) (size.width * 0.2);
-        int endX = (int) (size.width * 0.8);
-        int y = size.height / 2;
+        gestures.swipe(GestureEngine.Direction.RIGHT);
+    }
+
+    /**
+     * Scroll down until an element is visible
+     * 
+     * @param locator Element locator
+     * @return The visible element
+     * @throws NoSuchElementException if the element was not found
+     */
+    public WebElement scrollToElement(By locator) {
+        return scrollToElement(locator, GestureEngine.Direction.DOWN, DEFAULT_MAX_SCROLLS,
+                Duration.ofSeconds(DEFAULT_SCROLL_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Scroll until an element is visible. With native gestures, a single
+     * mobile: scroll to the element is tried first. Otherwise each step reads
+     * the page source once: the element is looked up locally, a match that is
+     * present but off screen is scrolled to by the exact distance, and the
+     * search stops early when a scroll leaves the visible content unchanged
+     * (the end of the list).
+     * 
+     * @param locator    Element locator
+     * @param direction  Direction to scroll in
+     * @param maxScrolls Maximum number of scrolls
+     * @param timeout    Maximum time to search
+     * @return The visible element
+     * @throws NoSuchElementException if the element was not found
+     */
+    public WebElement scrollToElement(By locator, GestureEngine.Direction direction, int maxScrolls,
+            Duration timeout) {
+        logger.debug("Scrolling {} to element: {}", direction, locator);
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        if (gestures.isNativeGestures()) {
+            nativeScrollTo(locator);
+        }
 
-        performSwipe(startX, y, endX, y);
+        Integer previousFingerprint = null;
+        for (int scrolls = 0;; scrolls++) {
+            PageSnapshot snapshot = PageSnapshot.capture(driver);
+            List<Element> matches = findInSnapshot(snapshot, locator);
+            boolean visible = matches != null ? PageSnapshot.isFirstDisplayed(matches) : isElementVisibleNow(locator);
+            if (visible) {
+                logger.debug("Element found after {} scroll(s): {}", scrolls, locator);
+                return driver.findElement(locator);
+            }
+
+            int fingerprint = snapshot.getVisibleFingerprint();
+            if (previousFingerprint != null && previousFingerprint == fingerprint) {
+                throw new NoSuchElementException("Reached the end of the list without finding element: " + locator);
+            }
+            if (scrolls >= maxScrolls || System.currentTimeMillis() >= deadline) {
+                throw new NoSuchElementException(
+                        "Element not found after " + scrolls + " scroll(s): " + locator);
+            }
+            previousFingerprint = fingerprint;
+
+            double distance = matches != null && !matches.isEmpty() ? distanceTo(matches.get(0), direction) : 0;
+            gestures.scroll(direction, distance > 0 ? distance : GestureEngine.MAX_SCROLL_DISTANCE);
+        }
     }
 
     /**
@@ -144,7 +248,7 @@ public class ElementUtils {
      */
     public void tap(int x, int y) {
         logger.debug("Tapping at coordinates: ({}, {})", x, y);
-        performTap(x, y);
+        gestures.tap(x, y);
     }
 
     /**
@@ -156,7 +260,7 @@ public class ElementUtils {
      */
     public void longPress(int x, int y, int duration) {
         logger.debug("Long pressing at coordinates: ({}, {}) for {} ms", x, y, duration);
-        performLongPress(x, y, duration);
+        gestures.longPress(x, y, duration);
     }
 
     /**
@@ -211,59 +315,86 @@ public class ElementUtils {
     }
 
     /**
-     * Perform a swipe gesture using Selenium 4 Actions API
-     * 
-     * @param startX Starting X coordinate
-     * @param startY Starting Y coordinate
-     * @param endX   Ending X coordinate
-     * @param endY   Ending Y coordinate
+     * Ask the server to scroll the element into view. Failures are ignored;
+     * the caller checks the result either way.
      */
-    private void performSwipe(int startX, int startY, int endX, int endY) {
-        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-        Sequence swipe = new Sequence(finger, 1);
-
-        swipe.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), startX, startY));
-        swipe.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
-        swipe.addAction(finger.createPointerMove(Duration.ofMillis(1000), PointerInput.Origin.viewport(), endX, endY));
-        swipe.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
-
-        driver.perform(Collections.singletonList(swipe));
+    private void nativeScrollTo(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        String predicate;
+        switch (parameters.using()) {
+            case "accessibility id":
+            case "id":
+            case "name":
+                predicate = "name == '" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+                break;
+            case "-ios predicate string":
+                predicate = value;
+                break;
+            default:
+                return;
+        }
+        Map<String, Object> args = new HashMap<>();
+        args.put("predicateString", predicate);
+        args.put("toVisible", true);
+        try {
+            driver.executeScript("mobile: scroll", args);
+        } catch (WebDriverException e) {
+            logger.debug("mobile: scroll to {} failed, scrolling with gestures: {}", locator, e.getMessage());
+        }
     }
 
     /**
-     * Perform a tap gesture using Selenium 4 Actions API
+     * Look up an element in a snapshot
      * 
-     * @param x X coordinate
-     * @param y Y coordinate
+     * @return Matching elements, or null if the locator cannot be resolved
+     *         against a snapshot
      */
-    private void performTap(int x, int y) {
-        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-        Sequence tap = new Sequence(finger, 1);
+    private static List<Element> findInSnapshot(PageSnapshot snapshot, By locator) {
+        try {
+            return snapshot.findAll(locator);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        tap.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), x, y));
-        tap.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
-        tap.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+    /**
+     * Distance, as a fraction of the window, that brings an off-screen
+     * element to the middle of the screen
+     */
+    private double distanceTo(Element element, GestureEngine.Direction direction) {
+        Dimension size = gestures.getWindowSize();
+        double centerX = (intAttribute(element, "x") + intAttribute(element, "width") / 2.0) / size.width;
+        double centerY = (intAttribute(element, "y") + intAttribute(element, "height") / 2.0) / size.height;
+        switch (direction) {
+            case DOWN:
+                return centerY - 0.5;
+            case UP:
+                return 0.5 - centerY;
+            case RIGHT:
+                return centerX - 0.5;
+            default:
+                return 0.5 - centerX;
+        }
+    }
 
-        driver.perform(Collections.singletonList(tap));
+    private static int intAttribute(Element element, String attribute) {
+        try {
+            return Integer.parseInt(element.getAttribute(attribute));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     /**
-     * Perform a long press gesture using Selenium 4 Actions API
+     * Get the gesture engine for custom, multi-finger or chained gestures
      * 
-     * @param x        X coordinate
-     * @param y        Y coordinate
-     * @param duration Duration in milliseconds
+     * @return GestureEngine instance
      */
-    private void performLongPress(int x, int y, int duration) {
-        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-        Sequence longPress = new Sequence(finger, 1);
-
-        longPress.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), x, y));
-        longPress.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
-        longPress
-                .addAction(finger.createPointerMove(Duration.ofMillis(duration), PointerInput.Origin.viewport(), x, y));
-        longPress.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
-
-        driver.perform(Collections.singletonList(longPress));
+    public GestureEngine getGestureEngine() {
+        return gestures;
     }
 }
@@ -0,0 +1,67 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ElementUtils.
+ * Verifies the bounded scroll search against a StubAppiumServer, whose
+ * screens do not scroll, so every swipe reaches the end of the list.
+ */
+public class ElementUtilsTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private ElementUtils elementUtils;
+
+    @BeforeEach
+    public void startSession() {
+        AppiumDriver driver = stub.newDriver();
+        elementUtils = new ElementUtils(driver);
+    }
+
+    @Test
+    @DisplayName("A visible element is returned without scrolling")
+    public void testVisibleElement() {
+        WebElement element = elementUtils.scrollToElement(AppiumBy.accessibilityId("Alert Views"));
+
+        assertThat(element.isDisplayed()).isTrue();
+        assertThat(stub.getServer().getCommandCount("performActions")).isZero();
+        assertThat(stub.getServer().getCommandCount("getPageSource")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The search stops at the end of the list instead of using every scroll")
+    public void testEndOfList() {
+        assertThatThrownBy(() -> elementUtils.scrollToElement(AppiumBy.accessibilityId("Missing")))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("end of the list");
+
+        assertThat(stub.getServer().getCommandCount("performActions")).isEqualTo(1);
+        assertThat(stub.getServer().getCommandCount("getPageSource")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("The search gives up after the maximum number of scrolls")
+    public void testMaxScrolls() {
+        assertThatThrownBy(() -> elementUtils.scrollToElement(AppiumBy.accessibilityId("Missing"),
+                GestureEngine.Direction.DOWN, 0, Duration.ofSeconds(10)))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("after 0 scroll(s)");
+
+        assertThat(stub.getServer().getCommandCount("performActions")).isZero();
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.SessionId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GestureEngine class performs touch gestures from {@link GestureTemplate}s.
+ * The window size is looked up once per session and shared by every engine
+ * on that session, and the encoded actions are sent to the server directly,
+ * so a repeated scroll or swipe costs a single command.
+ * With native_gestures enabled, scrolls and swipes use the XCUITest
+ * mobile: scroll and mobile: swipe commands instead, which the server runs
+ * without replaying pointer moves.
+ */
+public class GestureEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GestureEngine.class);
+    private static final Map<SessionId, Dimension> windowSizes = new ConcurrentHashMap<>();
+
+    static final double MIN_SCROLL_DISTANCE = 0.1;
+    static final double MAX_SCROLL_DISTANCE = 0.6;
+    private static final long MIN_SCROLL_DURATION_MS = 250;
+
+    private final AppiumDriver driver;
+    private final boolean nativeGestures;
+
+    /**
+     * Gesture direction. For scrolls it is the direction of travel through the
+     * content (DOWN reveals what is further down the list), for swipes the
+     * direction the finger moves in, as in the XCUITest mobile: commands.
+     */
+    public enum Direction {
+        UP, DOWN, LEFT, RIGHT;
+
+        String argument() {
+            return name().toLowerCase();
+        }
+    }
+
+    public GestureEngine(AppiumDriver driver) {
+        this(driver, ConfigManager.getInstance().isNativeGestures());
+    }
+
+    /**
+     * Constructor for GestureEngine
+     * 
+     * @param driver         Driver to perform gestures on
+     * @param nativeGestures Whether to use the mobile: scroll and mobile: swipe
+     *                       commands
+     */
+    public GestureEngine(AppiumDriver driver, boolean nativeGestures) {
+        this.driver = driver;
+        this.nativeGestures = nativeGestures;
+    }
+
+    public boolean isNativeGestures() {
+        return nativeGestures;
+    }
+
+    /**
+     * Get the window size of the session, looking it up on first use
+     * 
+     * @return Window size
+     */
+    public Dimension getWindowSize() {
+        SessionId sessionId = driver.getSessionId();
+        if (sessionId == null) {
+            return driver.manage().window().getSize();
+        }
+        return windowSizes.computeIfAbsent(sessionId, id -> driver.manage().window().getSize());
+    }
+
+    /**
+     * Forget the cached window size of the session, e.g. after a rotation
+     */
+    public void invalidateWindowSize() {
+        SessionId sessionId = driver.getSessionId();
+        if (sessionId != null) {
+            windowSizes.remove(sessionId);
+        }
+    }
+
+    /**
+     * Forget everything cached for a session that is being quit
+     * 
+     * @param driver Driver of the session
+     */
+    public static void forget(AppiumDriver driver) {
+        SessionId sessionId = driver.getSessionId();
+        if (sessionId != null) {
+            windowSizes.remove(sessionId);
+        }
+    }
+
+    /**
+     * Perform a gesture anchored at the window origin
+     * 
+     * @param gesture Gesture to perform
+     */
+    public void perform(GestureTemplate gesture) {
+        perform(gesture, 0, 0);
+    }
+
+    /**
+     * Perform a gesture in a single W3C actions command
+     * 
+     * @param gesture Gesture to perform
+     * @param anchorX X coordinate the gesture's pixel offsets refer to
+     * @param anchorY Y coordinate the gesture's pixel offsets refer to
+     */
+    public void perform(GestureTemplate gesture, int anchorX, int anchorY) {
+        driver.execute(DriverCommand.ACTIONS,
+                Collections.singletonMap("actions", gesture.encode(getWindowSize(), anchorX, anchorY)));
+    }
+
+    /**
+     * Scroll the screen content
+     * 
+     * @param direction Direction to scroll in
+     */
+    public void scroll(Direction direction) {
+        logger.debug("Scrolling {}", direction.argument());
+        if (nativeGestures) {
+            driver.executeScript("mobile: scroll", Collections.singletonMap("direction", direction.argument()));
+            return;
+        }
+        switch (direction) {
+            case DOWN:
+                perform(GestureTemplate.SCROLL_DOWN);
+                break;
+            case UP:
+                perform(GestureTemplate.SCROLL_UP);
+                break;
+            case LEFT:
+                perform(GestureTemplate.SWIPE_RIGHT);
+                break;
+            default:
+                perform(GestureTemplate.SWIPE_LEFT);
+                break;
+        }
+    }
+
+    /**
+     * Scroll the screen content by part of the window size with W3C actions.
+     * The move takes longer the further it goes, so short scrolls are quick
+     * and do not fling.
+     * 
+     * @param direction Direction to scroll in
+     * @param distance  Distance as a fraction of the window size (0.1 to 0.6)
+     */
+    public void scroll(Direction direction, double distance) {
+        double travel = Math.max(MIN_SCROLL_DISTANCE, Math.min(MAX_SCROLL_DISTANCE, distance));
+        long durationMs = Math.max(MIN_SCROLL_DURATION_MS, (long) (travel * 1000));
+        double from = 0.5 + travel / 2;
+        double to = 0.5 - travel / 2;
+        logger.debug("Scrolling {} by {}", direction.argument(), travel);
+        switch (direction) {
+            case DOWN:
+                perform(GestureTemplate.swipe(0.5, from, 0.5, to, durationMs));
+                break;
+            case UP:
+                perform(GestureTemplate.swipe(0.5, to, 0.5, from, durationMs));
+                break;
+            case RIGHT:
+                perform(GestureTemplate.swipe(from, 0.5, to, 0.5, durationMs));
+                break;
+            default:
+                perform(GestureTemplate.swipe(to, 0.5, from, 0.5, durationMs));
+                break;
+        }
+    }
+
+    /**
+     * Swipe across the screen
+     * 
+     * @param direction Direction the finger moves in
+     */
+    public void swipe(Direction direction) {
+        logger.debug("Swiping {}", direction.argument());
+        if (nativeGestures) {
+            driver.executeScript("mobile: swipe", Collections.singletonMap("direction", direction.argument()));
+            return;
+        }
+        switch (direction) {
+            case UP:
+                perform(GestureTemplate.SCROLL_DOWN);
+                break;
+            case DOWN:
+                perform(GestureTemplate.SCROLL_UP);
+                break;
+            case LEFT:
+                perform(GestureTemplate.SWIPE_LEFT);
+                break;
+            default:
+                perform(GestureTemplate.SWIPE_RIGHT);
+                break;
+        }
+    }
+
+    /**
+     * Tap on specific coordinates
+     * 
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void tap(int x, int y) {
+        perform(GestureTemplate.TAP, x, y);
+    }
+
+    /**
+     * Long press on specific coordinates
+     * 
+     * @param x          X coordinate
+     * @param y          Y coordinate
+     * @param durationMs Duration in milliseconds
+     */
+    public void longPress(int x, int y, long durationMs) {
+        perform(GestureTemplate.longPress(durationMs), x, y);
+    }
+}
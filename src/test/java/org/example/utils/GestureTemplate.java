@@ -0,0 +1,297 @@
+package org.example.utils;
+
+import org.openqa.selenium.Dimension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GestureTemplate class describes a touch gesture once, independently of the
+ * screen it is performed on. Each finger is a track of W3C pointer actions
+ * whose coordinates are fractions of the window size plus a pixel offset from
+ * an anchor point, so the same template serves every device:
+ * <pre>
+ * GestureTemplate zoomIn = GestureTemplate.builder()
+ *         .finger().moveTo(0.45, 0.5).down().moveTo(0.2, 0.5, 300).up()
+ *         .finger().moveTo(0.55, 0.5).down().moveTo(0.8, 0.5, 300).up()
+ *         .build();
+ * </pre>
+ * Templates are immutable. The encoded W3C actions of a template anchored at
+ * the window origin are cached per window size, so repeating a gesture
+ * allocates nothing; templates can be chained with {@link #then} into a
+ * single perform call.
+ */
+public final class GestureTemplate {
+
+    /**
+     * Swipe up from 80% to 20% of the height, scrolling the content down
+     */
+    public static final GestureTemplate SCROLL_DOWN = swipe(0.5, 0.8, 0.5, 0.2, 1000);
+
+    /**
+     * Swipe down from 20% to 80% of the height, scrolling the content up
+     */
+    public static final GestureTemplate SCROLL_UP = swipe(0.5, 0.2, 0.5, 0.8, 1000);
+
+    /**
+     * Swipe from 80% to 20% of the width
+     */
+    public static final GestureTemplate SWIPE_LEFT = swipe(0.8, 0.5, 0.2, 0.5, 1000);
+
+    /**
+     * Swipe from 20% to 80% of the width
+     */
+    public static final GestureTemplate SWIPE_RIGHT = swipe(0.2, 0.5, 0.8, 0.5, 1000);
+
+    /**
+     * Tap at the anchor point
+     */
+    public static final GestureTemplate TAP = builder().finger().moveBy(0, 0).down().up().build();
+
+    private static final Map<Long, GestureTemplate> longPresses = new ConcurrentHashMap<>();
+
+    private final List<List<Step>> fingers;
+    private final int ticks;
+    private final Map<Dimension, List<Map<String, Object>>> encoded = new ConcurrentHashMap<>();
+
+    private GestureTemplate(List<List<Step>> fingers) {
+        int length = 0;
+        for (List<Step> finger : fingers) {
+            length = Math.max(length, finger.size());
+        }
+        List<List<Step>> padded = new ArrayList<>();
+        for (List<Step> finger : fingers) {
+            List<Step> track = new ArrayList<>(finger);
+            while (track.size() < length) {
+                track.add(Step.pause(0));
+            }
+            padded.add(Collections.unmodifiableList(track));
+        }
+        this.fingers = Collections.unmodifiableList(padded);
+        this.ticks = length;
+    }
+
+    /**
+     * Create a one-finger swipe between two points given as fractions of the
+     * window size
+     * 
+     * @param startX     Start X as a fraction of the width
+     * @param startY     Start Y as a fraction of the height
+     * @param endX       End X as a fraction of the width
+     * @param endY       End Y as a fraction of the height
+     * @param durationMs Duration of the move in milliseconds
+     * @return GestureTemplate instance
+     */
+    public static GestureTemplate swipe(double startX, double startY, double endX, double endY, long durationMs) {
+        return builder().finger().moveTo(startX, startY).down().moveTo(endX, endY, durationMs).up().build();
+    }
+
+    /**
+     * Get the long press template for a duration; templates are shared per
+     * duration
+     * 
+     * @param durationMs Press duration in milliseconds
+     * @return GestureTemplate instance, performed at the anchor point
+     */
+    public static GestureTemplate longPress(long durationMs) {
+        return longPresses.computeIfAbsent(durationMs,
+                duration -> builder().finger().moveBy(0, 0).down().moveBy(0, 0, duration).up().build());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Chain another gesture after this one. Both run in one perform call; the
+     * fingers of the second gesture start once every finger of the first has
+     * finished.
+     * 
+     * @param next Gesture to perform afterwards
+     * @return Combined template
+     */
+    public GestureTemplate then(GestureTemplate next) {
+        List<List<Step>> combined = new ArrayList<>();
+        for (int i = 0; i < Math.max(fingers.size(), next.fingers.size()); i++) {
+            List<Step> track = new ArrayList<>();
+            appendTrack(track, this, i);
+            appendTrack(track, next, i);
+            combined.add(track);
+        }
+        return new GestureTemplate(combined);
+    }
+
+    public int getFingerCount() {
+        return fingers.size();
+    }
+
+    /**
+     * Encode the gesture as W3C pointer action sources
+     * 
+     * @param windowSize Window size the fractions refer to
+     * @param anchorX    X coordinate the pixel offsets refer to
+     * @param anchorY    Y coordinate the pixel offsets refer to
+     * @return Value of the "actions" parameter of the W3C actions command
+     */
+    public List<Map<String, Object>> encode(Dimension windowSize, int anchorX, int anchorY) {
+        if (anchorX == 0 && anchorY == 0) {
+            return encoded.computeIfAbsent(windowSize, size -> encodeTracks(size, 0, 0));
+        }
+        return encodeTracks(windowSize, anchorX, anchorY);
+    }
+
+    private List<Map<String, Object>> encodeTracks(Dimension windowSize, int anchorX, int anchorY) {
+        List<Map<String, Object>> sources = new ArrayList<>(fingers.size());
+        for (int i = 0; i < fingers.size(); i++) {
+            List<Map<String, Object>> actions = new ArrayList<>(ticks);
+            for (Step step : fingers.get(i)) {
+                actions.add(step.encode(windowSize, anchorX, anchorY));
+            }
+            Map<String, Object> source = new LinkedHashMap<>();
+            source.put("type", "pointer");
+            source.put("id", "finger" + (i + 1));
+            source.put("parameters", Collections.singletonMap("pointerType", "touch"));
+            source.put("actions", Collections.unmodifiableList(actions));
+            sources.add(Collections.unmodifiableMap(source));
+        }
+        return Collections.unmodifiableList(sources);
+    }
+
+    private static void appendTrack(List<Step> track, GestureTemplate template, int finger) {
+        if (finger < template.fingers.size()) {
+            track.addAll(template.fingers.get(finger));
+        } else {
+            for (int i = 0; i < template.ticks; i++) {
+                track.add(Step.pause(0));
+            }
+        }
+    }
+
+    /**
+     * Builder for gesture templates; every finger() call starts a new finger
+     */
+    public static final class Builder {
+
+        private final List<List<Step>> fingers = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder finger() {
+            fingers.add(new ArrayList<>());
+            return this;
+        }
+
+        /**
+         * Move instantly to a point given as fractions of the window size
+         */
+        public Builder moveTo(double x, double y) {
+            return moveTo(x, y, 0);
+        }
+
+        /**
+         * Move to a point given as fractions of the window size
+         */
+        public Builder moveTo(double x, double y, long durationMs) {
+            return add(new Step(Step.MOVE, x, y, 0, 0, durationMs));
+        }
+
+        /**
+         * Move instantly to a pixel offset from the anchor point
+         */
+        public Builder moveBy(int dx, int dy) {
+            return moveBy(dx, dy, 0);
+        }
+
+        /**
+         * Move to a pixel offset from the anchor point
+         */
+        public Builder moveBy(int dx, int dy, long durationMs) {
+            return add(new Step(Step.MOVE, 0, 0, dx, dy, durationMs));
+        }
+
+        public Builder down() {
+            return add(new Step(Step.DOWN, 0, 0, 0, 0, 0));
+        }
+
+        public Builder up() {
+            return add(new Step(Step.UP, 0, 0, 0, 0, 0));
+        }
+
+        public Builder pause(long durationMs) {
+            return add(Step.pause(durationMs));
+        }
+
+        public GestureTemplate build() {
+            if (fingers.isEmpty()) {
+                throw new IllegalStateException("A gesture needs at least one finger");
+            }
+            return new GestureTemplate(fingers);
+        }
+
+        private Builder add(Step step) {
+            if (fingers.isEmpty()) {
+                finger();
+            }
+            fingers.get(fingers.size() - 1).add(step);
+            return this;
+        }
+    }
+
+    /**
+     * One W3C pointer action of a finger
+     */
+    private static final class Step {
+
+        private static final String MOVE = "pointerMove";
+        private static final String DOWN = "pointerDown";
+        private static final String UP = "pointerUp";
+        private static final String PAUSE = "pause";
+
+        private final String type;
+        private final double fractionX;
+        private final double fractionY;
+        private final int offsetX;
+        private final int offsetY;
+        private final long durationMs;
+
+        Step(String type, double fractionX, double fractionY, int offsetX, int offsetY, long durationMs) {
+            this.type = type;
+            this.fractionX = fractionX;
+            this.fractionY = fractionY;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.durationMs = durationMs;
+        }
+
+        static Step pause(long durationMs) {
+            return new Step(PAUSE, 0, 0, 0, 0, durationMs);
+        }
+
+        Map<String, Object> encode(Dimension windowSize, int anchorX, int anchorY) {
+            Map<String, Object> action = new HashMap<>();
+            action.put("type", type);
+            switch (type) {
+                case MOVE:
+                    action.put("duration", durationMs);
+                    action.put("origin", "viewport");
+                    action.put("x", anchorX + (int) (windowSize.width * fractionX) + offsetX);
+                    action.put("y", anchorY + (int) (windowSize.height * fractionY) + offsetY);
+                    break;
+                case DOWN:
+                case UP:
+                    action.put("button", 0);
+                    break;
+                default:
+                    action.put("duration", durationMs);
+                    break;
+            }
+            return Collections.unmodifiableMap(action);
+        }
+    }
+}
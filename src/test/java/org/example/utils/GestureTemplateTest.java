@@ -0,0 +1,126 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Dimension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for GestureTemplate.
+ * Verifies the W3C pointer actions a template is encoded into.
+ */
+public class GestureTemplateTest {
+
+    private static final Dimension WINDOW = new Dimension(400, 800);
+
+    @Test
+    @DisplayName("A swipe is encoded as move, down, timed move and up in viewport coordinates")
+    public void testSwipeEncoding() {
+        List<Map<String, Object>> sources = GestureTemplate.swipe(0.5, 0.8, 0.5, 0.2, 1000).encode(WINDOW, 0, 0);
+
+        assertThat(sources).hasSize(1);
+        Map<String, Object> source = sources.get(0);
+        assertThat(source).containsEntry("type", "pointer").containsEntry("id", "finger1");
+        assertThat(source.get("parameters")).isEqualTo(Map.of("pointerType", "touch"));
+
+        List<Map<String, Object>> actions = actions(source);
+        assertThat(actions).hasSize(4);
+        assertThat(actions.get(0)).containsEntry("type", "pointerMove").containsEntry("origin", "viewport")
+                .containsEntry("x", 200).containsEntry("y", 640).containsEntry("duration", 0L);
+        assertThat(actions.get(1)).containsEntry("type", "pointerDown").containsEntry("button", 0);
+        assertThat(actions.get(2)).containsEntry("type", "pointerMove")
+                .containsEntry("x", 200).containsEntry("y", 160).containsEntry("duration", 1000L);
+        assertThat(actions.get(3)).containsEntry("type", "pointerUp").containsEntry("button", 0);
+    }
+
+    @Test
+    @DisplayName("Pixel offsets are relative to the anchor point")
+    public void testAnchorOffsets() {
+        List<Map<String, Object>> actions = actions(GestureTemplate.TAP.encode(WINDOW, 50, 60).get(0));
+
+        assertThat(actions).extracting(action -> action.get("type"))
+                .containsExactly("pointerMove", "pointerDown", "pointerUp");
+        assertThat(actions.get(0)).containsEntry("x", 50).containsEntry("y", 60);
+
+        GestureTemplate offset = GestureTemplate.builder().finger().moveBy(-10, 20).down().up().build();
+        assertThat(actions(offset.encode(WINDOW, 50, 60).get(0)).get(0))
+                .containsEntry("x", 40).containsEntry("y", 80);
+    }
+
+    @Test
+    @DisplayName("Encodings anchored at the origin are cached per window size")
+    public void testEncodingCache() {
+        GestureTemplate template = GestureTemplate.swipe(0.2, 0.5, 0.8, 0.5, 500);
+
+        List<Map<String, Object>> first = template.encode(WINDOW, 0, 0);
+        assertThat(template.encode(new Dimension(400, 800), 0, 0)).isSameAs(first);
+        assertThat(template.encode(new Dimension(800, 400), 0, 0)).isNotSameAs(first);
+        assertThat(template.encode(WINDOW, 1, 1)).isNotSameAs(first).isNotEqualTo(first);
+        assertThatThrownBy(() -> first.add(Map.of()))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Fingers are padded with pauses to the same length")
+    public void testMultiFingerPadding() {
+        GestureTemplate pinch = GestureTemplate.builder()
+                .finger().moveTo(0.45, 0.5).down().moveTo(0.2, 0.5, 300).up()
+                .finger().moveTo(0.55, 0.5).down()
+                .build();
+
+        List<Map<String, Object>> sources = pinch.encode(WINDOW, 0, 0);
+        assertThat(pinch.getFingerCount()).isEqualTo(2);
+        assertThat(sources).extracting(source -> source.get("id")).containsExactly("finger1", "finger2");
+        assertThat(actions(sources.get(1))).extracting(action -> action.get("type"))
+                .containsExactly("pointerMove", "pointerDown", "pause", "pause");
+        assertThat(actions(sources.get(1)).get(3)).containsEntry("duration", 0L);
+    }
+
+    @Test
+    @DisplayName("Chained gestures start once every finger of the first one has finished")
+    public void testThen() {
+        GestureTemplate twoFingerTap = GestureTemplate.builder()
+                .finger().moveTo(0.4, 0.5).down().up()
+                .finger().moveTo(0.6, 0.5).down().up()
+                .build();
+
+        List<Map<String, Object>> sources = GestureTemplate.SCROLL_DOWN.then(twoFingerTap).encode(WINDOW, 0, 0);
+
+        assertThat(sources).hasSize(2);
+        assertThat(actions(sources.get(0))).extracting(action -> action.get("type"))
+                .containsExactly("pointerMove", "pointerDown", "pointerMove", "pointerUp",
+                        "pointerMove", "pointerDown", "pointerUp");
+        assertThat(actions(sources.get(1))).extracting(action -> action.get("type"))
+                .containsExactly("pause", "pause", "pause", "pause",
+                        "pointerMove", "pointerDown", "pointerUp");
+    }
+
+    @Test
+    @DisplayName("Long press templates are shared per duration")
+    public void testLongPress() {
+        GestureTemplate longPress = GestureTemplate.longPress(1500);
+
+        assertThat(GestureTemplate.longPress(1500)).isSameAs(longPress);
+        assertThat(GestureTemplate.longPress(500)).isNotSameAs(longPress);
+        assertThat(actions(longPress.encode(WINDOW, 100, 100).get(0)).get(2))
+                .containsEntry("type", "pointerMove").containsEntry("duration", 1500L)
+                .containsEntry("x", 100).containsEntry("y", 100);
+    }
+
+    @Test
+    @DisplayName("A gesture needs a finger")
+    public void testEmptyGesture() {
+        assertThatThrownBy(() -> GestureTemplate.builder().build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> actions(Map<String, Object> source) {
+        return (List<Map<String, Object>>) source.get("actions");
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * ImplicitWaitScope class switches the implicit wait off for the duration of
+ * a presence/absence probe and restores the configured implicit wait when the
+ * scope is closed. A missing element then fails immediately instead of
+ * blocking for the whole implicit wait.
+ * Scopes nest: only the outermost scope on a thread changes the timeout.
+ * <pre>
+ * try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+ *     present = !driver.findElements(locator).isEmpty();
+ * }
+ * </pre>
+ */
+public class ImplicitWaitScope implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImplicitWaitScope.class);
+    private static final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+    private final AppiumDriver driver;
+    private final boolean outermost;
+    private boolean closed;
+
+    private ImplicitWaitScope(AppiumDriver driver) {
+        this.driver = driver;
+        this.outermost = depth.get() == 0;
+        depth.set(depth.get() + 1);
+        if (outermost) {
+            try {
+                driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            } catch (RuntimeException e) {
+                depth.set(depth.get() - 1);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Suspend the implicit wait until the returned scope is closed
+     * 
+     * @param driver AppiumDriver instance
+     * @return Scope to close when the probe is done
+     */
+    public static ImplicitWaitScope suspend(AppiumDriver driver) {
+        return new ImplicitWaitScope(driver);
+    }
+
+    /**
+     * Get the implicit wait that is restored when a scope closes
+     * 
+     * @return Configured implicit wait
+     */
+    public static Duration getConfiguredImplicitWait() {
+        return Duration.ofSeconds(ConfigManager.getInstance().getImplicitWait());
+    }
+
+    /**
+     * Check whether the implicit wait is currently suspended on this thread
+     * 
+     * @return true inside a scope
+     */
+    public static boolean isSuspended() {
+        return depth.get() > 0;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        depth.set(depth.get() - 1);
+        if (outermost) {
+            try {
+                driver.manage().timeouts().implicitlyWait(getConfiguredImplicitWait());
+            } catch (RuntimeException e) {
+                logger.warn("Could not restore implicit wait: {}", e.getMessage());
+            }
+        }
+    }
+}
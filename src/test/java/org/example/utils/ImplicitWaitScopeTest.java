@@ -0,0 +1,81 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.NoSuchElementException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ImplicitWaitScope.
+ * Verifies that a scope suspends the implicit wait of a stub server session
+ * and restores the configured one.
+ */
+public class ImplicitWaitScopeTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private AppiumDriver driver;
+    private Duration configured;
+
+    @BeforeEach
+    public void createSession() {
+        driver = stub.newDriver();
+        configured = Duration.ofSeconds(ConfigManager.getInstance().getImplicitWait());
+        driver.manage().timeouts().implicitlyWait(configured);
+    }
+
+    @Test
+    @DisplayName("A missing element is reported at once inside a scope")
+    public void testSuspend() {
+        long start = System.nanoTime();
+        try (ImplicitWaitScope ignored = ImplicitWaitScope.suspend(driver)) {
+            assertThat(ImplicitWaitScope.isSuspended()).isTrue();
+            assertThat(driver.manage().timeouts().getImplicitWaitTimeout()).isZero();
+            assertThat(driver.findElements(AppiumBy.accessibilityId("Missing"))).isEmpty();
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(ImplicitWaitScope.isSuspended()).isFalse();
+        assertThat(driver.manage().timeouts().getImplicitWaitTimeout()).isEqualTo(configured);
+    }
+
+    @Test
+    @DisplayName("Only the outermost scope restores the implicit wait")
+    public void testNestedScopes() {
+        try (ImplicitWaitScope outer = ImplicitWaitScope.suspend(driver)) {
+            try (ImplicitWaitScope inner = ImplicitWaitScope.suspend(driver)) {
+                assertThat(ImplicitWaitScope.isSuspended()).isTrue();
+            }
+            assertThat(ImplicitWaitScope.isSuspended()).isTrue();
+            assertThat(driver.manage().timeouts().getImplicitWaitTimeout()).isZero();
+        }
+
+        assertThat(driver.manage().timeouts().getImplicitWaitTimeout()).isEqualTo(configured);
+    }
+
+    @Test
+    @DisplayName("The implicit wait is restored when the probe fails and a scope closes once")
+    public void testRestoreAfterFailure() {
+        ImplicitWaitScope scope = ImplicitWaitScope.suspend(driver);
+        assertThatThrownBy(() -> {
+            try (scope) {
+                driver.findElement(AppiumBy.accessibilityId("Missing"));
+            }
+        }).isInstanceOf(NoSuchElementException.class);
+
+        scope.close();
+        assertThat(ImplicitWaitScope.isSuspended()).isFalse();
+        assertThat(driver.manage().timeouts().getImplicitWaitTimeout()).isEqualTo(configured);
+    }
+}
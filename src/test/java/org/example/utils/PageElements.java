@@ -0,0 +1,305 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * PageElements class holds the element handles of one page object instance,
+ * as described by its {@link PageMetadata}, and is the one element cache of
+ * the page objects. A handle is a plain WebElement that looks its element up
+ * on first use, so constructing a page sends no command and creates no proxy.
+ * With caching enabled a looked-up element is reused until one of the
+ * invalidating actions (by default "click", which may navigate) is performed
+ * through a handle or {@link #invalidate()} is called; a stale element is
+ * looked up again transparently. Without caching every call looks the
+ * element up, like the PageFactory proxies.
+ * Handles are bound to the fields directly (lazy_page_init) or handed to
+ * PageFactory by the {@link CachingFieldDecorator}. Lookups run without a
+ * lock, so a slow lookup does not hold up the other handles of the page.
+ */
+public class PageElements {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageElements.class);
+
+    private final AppiumDriver driver;
+    private final PageMetadata metadata;
+    private final boolean cached;
+    private final Collection<String> invalidatingActions;
+    private final AtomicReferenceArray<WebElement> resolved;
+
+    /**
+     * Constructor for PageElements
+     * 
+     * @param driver              Driver to look elements up with
+     * @param metadata            Element fields of the page class
+     * @param cached              Whether to reuse looked-up elements
+     * @param invalidatingActions Element methods after which cached elements
+     *                            are looked up again
+     */
+    public PageElements(AppiumDriver driver, PageMetadata metadata, boolean cached,
+            Collection<String> invalidatingActions) {
+        this.driver = driver;
+        this.metadata = metadata;
+        this.cached = cached;
+        this.invalidatingActions = invalidatingActions;
+        this.resolved = new AtomicReferenceArray<>(metadata.size());
+    }
+
+    /**
+     * Create the handle of an element field
+     * 
+     * @param index Index of the field in the page metadata
+     * @return Lazy WebElement
+     */
+    WebElement handle(int index) {
+        return new LazyElement(index);
+    }
+
+    /**
+     * Forget every looked-up element, e.g. after navigating to another screen
+     */
+    public void invalidate() {
+        for (int i = 0; i < resolved.length(); i++) {
+            resolved.set(i, null);
+        }
+    }
+
+    /**
+     * Get the number of elements looked up and cached so far
+     * 
+     * @return Number of cached elements
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < resolved.length(); i++) {
+            if (resolved.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private WebElement resolve(int index) {
+        WebElement element = resolved.get(index);
+        if (element == null) {
+            element = driver.findElement(metadata.getLocator(index));
+            if (cached) {
+                resolved.set(index, element);
+            }
+        }
+        return element;
+    }
+
+    private void evict(int index, WebElement stale) {
+        resolved.compareAndSet(index, stale, null);
+    }
+
+    /**
+     * Get the element to hand out unwrapped, where the stale retry of
+     * {@link #perform} cannot help any more. A cached element is checked with
+     * one command first and looked up again if it is stale; a fresh lookup is
+     * returned as is.
+     */
+    private WebElement unwrap(int index) {
+        WebElement element = resolved.get(index);
+        if (element == null) {
+            return resolve(index);
+        }
+        try {
+            element.isEnabled();
+            return element;
+        } catch (StaleElementReferenceException e) {
+            logger.debug("Cached element {} is stale, looking it up again", metadata.getFieldName(index));
+            evict(index, element);
+            return resolve(index);
+        }
+    }
+
+    private <T> T perform(int index, String action, Function<WebElement, T> call) {
+        WebElement element = resolve(index);
+        T result;
+        try {
+            result = call.apply(element);
+        } catch (StaleElementReferenceException e) {
+            if (!cached) {
+                throw e;
+            }
+            logger.debug("Cached element {} is stale, looking it up again", metadata.getFieldName(index));
+            evict(index, element);
+            result = call.apply(resolve(index));
+        }
+        if (cached && invalidatingActions.contains(action)) {
+            invalidate();
+        }
+        return result;
+    }
+
+    private void run(int index, String action, Consumer<WebElement> call) {
+        perform(index, action, element -> {
+            call.accept(element);
+            return null;
+        });
+    }
+
+    /**
+     * Handle of one page field; every call is forwarded to the looked-up
+     * element
+     */
+    private final class LazyElement implements WebElement, WrapsElement, Locatable {
+
+        private final int index;
+
+        LazyElement(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public WebElement getWrappedElement() {
+            return unwrap(index);
+        }
+
+        @Override
+        public void click() {
+            run(index, "click", WebElement::click);
+        }
+
+        @Override
+        public void submit() {
+            run(index, "submit", WebElement::submit);
+        }
+
+        @Override
+        public void sendKeys(CharSequence... keysToSend) {
+            run(index, "sendKeys", element -> element.sendKeys(keysToSend));
+        }
+
+        @Override
+        public void clear() {
+            run(index, "clear", WebElement::clear);
+        }
+
+        @Override
+        public String getTagName() {
+            return perform(index, "getTagName", WebElement::getTagName);
+        }
+
+        @Override
+        public String getDomProperty(String name) {
+            return perform(index, "getDomProperty", element -> element.getDomProperty(name));
+        }
+
+        @Override
+        public String getDomAttribute(String name) {
+            return perform(index, "getDomAttribute", element -> element.getDomAttribute(name));
+        }
+
+        @Override
+        public String getAttribute(String name) {
+            return perform(index, "getAttribute", element -> element.getAttribute(name));
+        }
+
+        @Override
+        public String getAriaRole() {
+            return perform(index, "getAriaRole", WebElement::getAriaRole);
+        }
+
+        @Override
+        public String getAccessibleName() {
+            return perform(index, "getAccessibleName", WebElement::getAccessibleName);
+        }
+
+        @Override
+        public boolean isSelected() {
+            return perform(index, "isSelected", WebElement::isSelected);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return perform(index, "isEnabled", WebElement::isEnabled);
+        }
+
+        @Override
+        public String getText() {
+            return perform(index, "getText", WebElement::getText);
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return perform(index, "findElements", element -> element.findElements(by));
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            return perform(index, "findElement", element -> element.findElement(by));
+        }
+
+        @Override
+        public SearchContext getShadowRoot() {
+            return perform(index, "getShadowRoot", WebElement::getShadowRoot);
+        }
+
+        @Override
+        public boolean isDisplayed() {
+            return perform(index, "isDisplayed", WebElement::isDisplayed);
+        }
+
+        @Override
+        public Point getLocation() {
+            return perform(index, "getLocation", WebElement::getLocation);
+        }
+
+        @Override
+        public Dimension getSize() {
+            return perform(index, "getSize", WebElement::getSize);
+        }
+
+        @Override
+        public Rectangle getRect() {
+            return perform(index, "getRect", WebElement::getRect);
+        }
+
+        @Override
+        public String getCssValue(String propertyName) {
+            return perform(index, "getCssValue", element -> element.getCssValue(propertyName));
+        }
+
+        @Override
+        public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+            return perform(index, "getScreenshotAs", element -> element.getScreenshotAs(target));
+        }
+
+        @Override
+        public Coordinates getCoordinates() {
+            return perform(index, "getCoordinates", element -> {
+                if (!(element instanceof Locatable)) {
+                    throw new WebDriverException("Element does not support coordinates: " + element);
+                }
+                return ((Locatable) element).getCoordinates();
+            });
+        }
+
+        @Override
+        public String toString() {
+            return "Lazy element " + metadata.getFieldName(index) + " (" + metadata.getLocator(index) + ")";
+        }
+    }
+}
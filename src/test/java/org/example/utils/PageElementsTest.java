@@ -0,0 +1,152 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.pages.AlertViewsPage;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for PageElements.
+ * Verifies caching, invalidation and the stale element retry of element
+ * handles against an in-process StubAppiumServer, whose two alerts both have
+ * an "OK" button.
+ */
+public class PageElementsTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private AppiumDriver driver;
+    private PageMetadata metadata;
+    private int okButton;
+
+    @BeforeEach
+    public void startSession() {
+        driver = stub.newDriver();
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
+        metadata = PageMetadata.of(AlertViewsPage.class);
+        okButton = IntStream.range(0, metadata.size())
+                .filter(i -> metadata.getFieldName(i).equals("alertOkayOption"))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("A handle sends no command until it is used and then caches its element")
+    public void testCaching() {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        WebElement ok = elements.handle(okButton);
+        assertThat(elements.size()).isZero();
+
+        openAlert("Simple");
+        assertThat(ok.getText()).isEqualTo("OK");
+        WebElement first = ((WrapsElement) ok).getWrappedElement();
+
+        assertThat(elements.size()).isEqualTo(1);
+        assertThat(((WrapsElement) ok).getWrappedElement()).isSameAs(first);
+        elements.invalidate();
+        assertThat(elements.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("An invalidating action drops the cached elements")
+    public void testInvalidatingAction() {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        WebElement ok = elements.handle(okButton);
+
+        openAlert("Simple");
+        ok.click();
+
+        assertThat(elements.size()).isZero();
+        assertThat(driver.findElements(AppiumBy.accessibilityId("Okay / Cancel"))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("A stale cached element is looked up again when the handle is used")
+    public void testStaleElementRetry() {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        WebElement ok = elements.handle(okButton);
+        openAlert("Simple");
+        String staleId = id(((WrapsElement) ok).getWrappedElement());
+
+        reopenAlert("Okay / Cancel");
+
+        assertThat(ok.getText()).isEqualTo("OK");
+        assertThat(id(((WrapsElement) ok).getWrappedElement())).isNotEqualTo(staleId);
+        assertThat(elements.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A stale cached element is looked up again before it is unwrapped")
+    public void testStaleElementUnwrap() {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        WebElement ok = elements.handle(okButton);
+        openAlert("Simple");
+        WebElement stale = ((WrapsElement) ok).getWrappedElement();
+
+        reopenAlert("Okay / Cancel");
+        WebElement unwrapped = ((WrapsElement) ok).getWrappedElement();
+
+        assertThat(id(unwrapped)).isNotEqualTo(id(stale));
+        assertThat(unwrapped.getText()).isEqualTo("OK");
+        assertThatThrownBy(stale::getText).isInstanceOf(StaleElementReferenceException.class);
+    }
+
+    @Test
+    @DisplayName("Without caching every call looks the element up")
+    public void testUncached() {
+        PageElements elements = new PageElements(driver, metadata, false, Collections.singleton("click"));
+        WebElement ok = elements.handle(okButton);
+        openAlert("Simple");
+        String firstId = id(((WrapsElement) ok).getWrappedElement());
+
+        reopenAlert("Okay / Cancel");
+
+        assertThat(ok.getText()).isEqualTo("OK");
+        assertThat(id(((WrapsElement) ok).getWrappedElement())).isNotEqualTo(firstId);
+        assertThat(elements.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("A handle whose element is gone fails like a plain lookup")
+    public void testMissingElement() {
+        PageElements elements = new PageElements(driver, metadata, true, Collections.singleton("click"));
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+
+        assertThatThrownBy(elements.handle(okButton)::getText).isInstanceOf(NoSuchElementException.class);
+        assertThat(elements.size()).isZero();
+    }
+
+    private void openAlert(String alert) {
+        driver.findElement(AppiumBy.accessibilityId("Alert Views")).click();
+        driver.findElement(AppiumBy.accessibilityId(alert)).click();
+    }
+
+    /**
+     * Dismiss the open alert with the driver directly, so the handles do not
+     * notice, and open another one
+     */
+    private void reopenAlert(String alert) {
+        driver.findElement(AppiumBy.accessibilityId("OK")).click();
+        driver.findElement(AppiumBy.accessibilityId(alert)).click();
+    }
+
+    private static String id(WebElement element) {
+        return ((RemoteWebElement) element).getId();
+    }
+}
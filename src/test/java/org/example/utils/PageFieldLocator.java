@@ -0,0 +1,61 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
+
+import java.lang.reflect.Field;
+
+/**
+ * PageFieldLocator class turns the @iOSXCUITFindBy annotation of a page field
+ * into the equivalent AppiumBy locator, so page fields can be resolved outside
+ * of the PageFactory proxies (from a page snapshot or a lookup cache).
+ */
+public class PageFieldLocator {
+
+    private PageFieldLocator() {
+    }
+
+    /**
+     * Check whether a field carries a locator this class can resolve
+     * 
+     * @param field Page field
+     * @return true if the field is annotated with @iOSXCUITFindBy
+     */
+    public static boolean isLocatable(Field field) {
+        return field.isAnnotationPresent(iOSXCUITFindBy.class);
+    }
+
+    /**
+     * Get the locator of an annotated page field
+     * 
+     * @param field Page field annotated with @iOSXCUITFindBy
+     * @return Equivalent AppiumBy locator
+     * @throws IllegalArgumentException if the field has no supported locator
+     */
+    public static By locatorOf(Field field) {
+        iOSXCUITFindBy findBy = field.getAnnotation(iOSXCUITFindBy.class);
+        if (findBy == null) {
+            throw new IllegalArgumentException("Field has no @iOSXCUITFindBy annotation: " + field.getName());
+        }
+        if (!findBy.accessibility().isEmpty()) {
+            return AppiumBy.accessibilityId(findBy.accessibility());
+        }
+        if (!findBy.id().isEmpty()) {
+            return AppiumBy.id(findBy.id());
+        }
+        if (!findBy.className().isEmpty()) {
+            return AppiumBy.className(findBy.className());
+        }
+        if (!findBy.iOSNsPredicate().isEmpty()) {
+            return AppiumBy.iOSNsPredicateString(findBy.iOSNsPredicate());
+        }
+        if (!findBy.iOSClassChain().isEmpty()) {
+            return AppiumBy.iOSClassChain(findBy.iOSClassChain());
+        }
+        if (!findBy.xpath().isEmpty()) {
+            return AppiumBy.xpath(findBy.xpath());
+        }
+        throw new IllegalArgumentException("Unsupported @iOSXCUITFindBy on field: " + field.getName());
+    }
+}
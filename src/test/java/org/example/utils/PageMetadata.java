@@ -0,0 +1,194 @@
+package org.example.utils;
+
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * PageMetadata class describes the locatable element fields of a page object
+ * class. It is built once per class and cached: the locators come from the
+ * {@code <Page>_Locators} class generated at compile time by the
+ * page-processor module, or from the {@code @iOSXCUITFindBy} annotations when
+ * there is no generated class. Binding a page then only assigns a lazy
+ * {@link PageElements} handle to each field, without the annotation scan and
+ * dynamic proxies of PageFactory.
+ * Classes with fields only PageFactory can handle (element lists, other
+ * locator annotations) report {@link #needsPageFactory()}.
+ */
+public final class PageMetadata {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageMetadata.class);
+    private static final String GENERATED_SUFFIX = "_Locators";
+    private static final String[] PAGE_FACTORY_PACKAGES = {
+            "io.appium.java_client.pagefactory.",
+            "org.openqa.selenium.support.",
+    };
+
+    private static final ClassValue<PageMetadata> metadata = new ClassValue<PageMetadata>() {
+        @Override
+        protected PageMetadata computeValue(Class<?> type) {
+            return new PageMetadata(type);
+        }
+    };
+
+    private final List<Field> fields = new ArrayList<>();
+    private final List<By> locators = new ArrayList<>();
+    private boolean needsPageFactory;
+    private int generatedClasses;
+
+    private PageMetadata(Class<?> pageClass) {
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (type.getName().startsWith("java.")) {
+                break;
+            }
+            Map<String, By> generated = generatedLocators(type);
+            if (generated != null) {
+                generatedClasses++;
+                for (Map.Entry<String, By> entry : generated.entrySet()) {
+                    add(fieldOf(type, entry.getKey()), entry.getValue());
+                }
+            } else {
+                scan(type);
+            }
+        }
+        logger.debug("Page metadata of {}: {} element field(s), {} generated locator class(es), PageFactory {}",
+                pageClass.getSimpleName(), fields.size(), generatedClasses,
+                needsPageFactory ? "needed" : "not needed");
+    }
+
+    /**
+     * Get the metadata of a page class, building it on first use
+     * 
+     * @param pageClass Page object class
+     * @return PageMetadata instance shared by all instances of the class
+     */
+    public static PageMetadata of(Class<?> pageClass) {
+        return metadata.get(pageClass);
+    }
+
+    /**
+     * Check whether the class has fields that must be initialized by PageFactory
+     * 
+     * @return true if lazy binding cannot initialize every field
+     */
+    public boolean needsPageFactory() {
+        return needsPageFactory;
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public By getLocator(int index) {
+        return locators.get(index);
+    }
+
+    public String getFieldName(int index) {
+        return fields.get(index).getName();
+    }
+
+    /**
+     * Get the index of an element field
+     * 
+     * @param field Field of the page class
+     * @return Index of the field, or -1 if it is not one of the element fields
+     */
+    public int indexOf(Field field) {
+        return fields.indexOf(field);
+    }
+
+    /**
+     * Get the element fields, in the order of their locators
+     * 
+     * @return Unmodifiable list of fields
+     */
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Assign a lazy element handle to every element field of a page
+     * 
+     * @param page     Page object of this class
+     * @param elements Element handles of the page
+     */
+    public void bind(Object page, PageElements elements) {
+        try {
+            for (int i = 0; i < fields.size(); i++) {
+                fields.get(i).set(page, elements.handle(i));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot bind page fields of " + page.getClass().getName(), e);
+        }
+    }
+
+    private void add(Field field, By locator) {
+        field.setAccessible(true);
+        fields.add(field);
+        locators.add(locator);
+    }
+
+    private void scan(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            boolean locatable = PageFieldLocator.isLocatable(field);
+            if (locatable && field.getType() == WebElement.class
+                    && !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+                    && !hasOtherLocator(field)) {
+                add(field, PageFieldLocator.locatorOf(field));
+            } else if (locatable || hasOtherLocator(field)) {
+                needsPageFactory = true;
+            }
+        }
+    }
+
+    private static boolean hasOtherLocator(Field field) {
+        for (Annotation annotation : field.getAnnotations()) {
+            String name = annotation.annotationType().getName();
+            if (annotation instanceof iOSXCUITFindBy) {
+                continue;
+            }
+            for (String prefix : PAGE_FACTORY_PACKAGES) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, By> generatedLocators(Class<?> type) {
+        Class<?> generated;
+        try {
+            generated = Class.forName(type.getName() + GENERATED_SUFFIX, true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return ((Supplier<Map<String, By>>) generated.getDeclaredConstructor().newInstance()).get();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.warn("Ignoring generated locators {}: {}", generated.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Field fieldOf(Class<?> type, String name) {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Generated locators of " + type.getName()
+                    + " refer to a missing field " + name + ", recompile the page", e);
+        }
+    }
+}
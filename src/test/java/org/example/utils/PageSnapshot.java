@@ -0,0 +1,198 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * PageSnapshot class holds the XCUITest element tree of a screen as returned
+ * by a single getPageSource() call, and answers element lookups, visibility
+ * and text queries locally. Verifying a whole screen through a snapshot costs
+ * one round-trip instead of one or more per element.
+ * A snapshot is a point-in-time copy: take a new one after any action that
+ * changes the screen.
+ */
+public class PageSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageSnapshot.class);
+
+    private final Element root;
+    private final long capturedAt;
+
+    private PageSnapshot(Document document) {
+        this.root = document.getDocumentElement();
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Capture a snapshot of the current screen
+     * 
+     * @param driver AppiumDriver instance
+     * @return PageSnapshot instance
+     */
+    public static PageSnapshot capture(AppiumDriver driver) {
+        long start = System.nanoTime();
+        PageSnapshot snapshot = fromXml(driver.getPageSource());
+        logger.debug("Captured page snapshot in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    /**
+     * Create a snapshot from page source XML
+     * 
+     * @param pageSource XCUITest page source
+     * @return PageSnapshot instance
+     */
+    public static PageSnapshot fromXml(String pageSource) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+            return new PageSnapshot(document);
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalStateException("Failed to parse page source", e);
+        }
+    }
+
+    /**
+     * Find all elements matching a locator strategy and value
+     * 
+     * @param using Locator strategy, e.g. "accessibility id"
+     * @param value Locator value
+     * @return Matching elements in document order
+     */
+    public List<Element> findAll(String using, String value) {
+        return XCUIElementLocator.find(root, using, value);
+    }
+
+    /**
+     * Find all elements matching a locator
+     * 
+     * @param locator Element locator, e.g. AppiumBy.accessibilityId("Settings")
+     * @return Matching elements in document order
+     */
+    public List<Element> findAll(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be resolved against a snapshot: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return findAll(parameters.using(), String.valueOf(parameters.value()));
+    }
+
+    /**
+     * Find all elements matching the @iOSXCUITFindBy annotation of a page field
+     * 
+     * @param field Annotated page field
+     * @return Matching elements in document order
+     */
+    public List<Element> findAll(Field field) {
+        return findAll(PageFieldLocator.locatorOf(field));
+    }
+
+    /**
+     * Check if an element matching the locator is present
+     * 
+     * @param locator Element locator
+     * @return true if element is present, false otherwise
+     */
+    public boolean isPresent(By locator) {
+        return !findAll(locator).isEmpty();
+    }
+
+    /**
+     * Check if the first element matching the locator is displayed
+     * 
+     * @param locator Element locator
+     * @return true if element is displayed, false otherwise
+     */
+    public boolean isDisplayed(By locator) {
+        return isFirstDisplayed(findAll(locator));
+    }
+
+    /**
+     * Get the text of the first element matching the locator
+     * 
+     * @param locator Element locator
+     * @return Element text or empty string if not found
+     */
+    public String getText(By locator) {
+        return getFirstText(findAll(locator));
+    }
+
+    /**
+     * Check if the first element in a lookup result is displayed
+     * 
+     * @param elements Lookup result
+     * @return true if there is a first element and it is displayed
+     */
+    public static boolean isFirstDisplayed(List<Element> elements) {
+        return !elements.isEmpty() && XCUIElementLocator.isVisible(elements.get(0));
+    }
+
+    /**
+     * Get the text of the first element in a lookup result
+     * 
+     * @param elements Lookup result
+     * @return Element text or empty string if there is no element
+     */
+    public static String getFirstText(List<Element> elements) {
+        return elements.isEmpty() ? "" : XCUIElementLocator.getText(elements.get(0));
+    }
+
+    /**
+     * Compute a fingerprint of the visible elements (type, name, label, value
+     * and position). Two snapshots with the same fingerprint show the same
+     * content, e.g. when a scroll did not move because the end of a list was
+     * reached.
+     * 
+     * @return Fingerprint of the visible content
+     */
+    public int getVisibleFingerprint() {
+        int hash = 1;
+        for (Node node = root.getFirstChild(); node != null; node = nextElementInOrder(node)) {
+            if (node instanceof Element && XCUIElementLocator.isVisible((Element) node)) {
+                Element element = (Element) node;
+                hash = 31 * hash + Objects.hash(element.getTagName(), element.getAttribute("name"),
+                        element.getAttribute("label"), element.getAttribute("value"),
+                        element.getAttribute("x"), element.getAttribute("y"));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Get the time the snapshot was taken
+     * 
+     * @return Capture time in epoch milliseconds
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    private Node nextElementInOrder(Node node) {
+        if (node.getFirstChild() != null) {
+            return node.getFirstChild();
+        }
+        for (Node current = node; current != null && current != root; current = current.getParentNode()) {
+            if (current.getNextSibling() != null) {
+                return current.getNextSibling();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.Element;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for PageSnapshot.
+ * Verifies the lookups, visibility and text answered from one page source.
+ */
+public class PageSnapshotTest {
+
+    private static final String PAGE_SOURCE = "<AppiumAUT>"
+            + "<XCUIElementTypeApplication type='XCUIElementTypeApplication' name='UIKitCatalog' visible='true'>"
+            + "<XCUIElementTypeStaticText type='XCUIElementTypeStaticText' name='Welcome' label='Welcome'"
+            + " value='Hello, tester' visible='true' x='0' y='100'/>"
+            + "<XCUIElementTypeButton type='XCUIElementTypeButton' name='Settings' label='Settings'"
+            + " enabled='true' visible='true' x='0' y='150'/>"
+            + "<XCUIElementTypeButton type='XCUIElementTypeButton' name='Profile' label='Profile'"
+            + " enabled='false' visible='false' x='0' y='2000'/>"
+            + "</XCUIElementTypeApplication>"
+            + "</AppiumAUT>";
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private final PageSnapshot snapshot = PageSnapshot.fromXml(PAGE_SOURCE);
+
+    @Test
+    @DisplayName("Elements are looked up by accessibility id, class name, predicate and class chain")
+    public void testLookups() {
+        assertThat(names(snapshot.findAll(AppiumBy.accessibilityId("Settings")))).containsExactly("Settings");
+        assertThat(names(snapshot.findAll(AppiumBy.className("XCUIElementTypeButton"))))
+                .containsExactly("Settings", "Profile");
+        assertThat(names(snapshot.findAll(AppiumBy.iOSNsPredicateString("enabled == false"))))
+                .containsExactly("Profile");
+        assertThat(names(snapshot.findAll(
+                AppiumBy.iOSClassChain("**/XCUIElementTypeButton[`label BEGINSWITH 'Sett'`]"))))
+                .containsExactly("Settings");
+        assertThat(names(snapshot.findAll("xpath", "//XCUIElementTypeStaticText"))).containsExactly("Welcome");
+        assertThat(snapshot.isPresent(AppiumBy.accessibilityId("Menu"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Visibility and text are answered from the snapshot")
+    public void testVisibilityAndText() {
+        assertThat(snapshot.isDisplayed(AppiumBy.accessibilityId("Settings"))).isTrue();
+        assertThat(snapshot.isPresent(AppiumBy.accessibilityId("Profile"))).isTrue();
+        assertThat(snapshot.isDisplayed(AppiumBy.accessibilityId("Profile"))).isFalse();
+        assertThat(snapshot.isDisplayed(AppiumBy.accessibilityId("Menu"))).isFalse();
+        assertThat(snapshot.getText(AppiumBy.accessibilityId("Welcome"))).isEqualTo("Hello, tester");
+        assertThat(snapshot.getText(AppiumBy.accessibilityId("Settings"))).isEqualTo("Settings");
+        assertThat(snapshot.getText(AppiumBy.accessibilityId("Menu"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Only locators with remote parameters can be resolved against a snapshot")
+    public void testUnsupportedLocator() {
+        By custom = new By() {
+            @Override
+            public List<WebElement> findElements(SearchContext context) {
+                return List.of();
+            }
+        };
+
+        assertThatThrownBy(() -> snapshot.findAll(custom)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageSnapshot.fromXml("<unclosed>")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("The fingerprint changes with the visible content only")
+    public void testVisibleFingerprint() {
+        PageSnapshot hiddenChange = PageSnapshot.fromXml(PAGE_SOURCE.replace("name='Profile'", "name='Account'"));
+        PageSnapshot visibleChange = PageSnapshot.fromXml(PAGE_SOURCE.replace("y='150'", "y='50'"));
+
+        assertThat(hiddenChange.getVisibleFingerprint()).isEqualTo(snapshot.getVisibleFingerprint());
+        assertThat(visibleChange.getVisibleFingerprint()).isNotEqualTo(snapshot.getVisibleFingerprint());
+    }
+
+    @Test
+    @DisplayName("A captured snapshot answers every query with one page source request")
+    public void testCapture() {
+        PageSnapshot captured = PageSnapshot.capture(stub.newDriver());
+
+        assertThat(captured.isDisplayed(AppiumBy.accessibilityId("Alert Views"))).isTrue();
+        assertThat(captured.isDisplayed(AppiumBy.accessibilityId("Activity Indicators"))).isTrue();
+        assertThat(captured.getText(AppiumBy.accessibilityId("Buttons"))).isEqualTo("Buttons");
+        assertThat(stub.getServer().getCommandCount("getPageSource")).isEqualTo(1);
+        assertThat(stub.getServer().getCommandCount("findElement")).isZero();
+    }
+
+    private static List<String> names(List<Element> elements) {
+        return elements.stream().map(element -> element.getAttribute("name")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,357 @@
+package org.example.utils;
+
+import org.example.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ScreenshotRetention class enforces the retention policy of the screenshots
+ * directory. Screenshots are partitioned into one subdirectory per day
+ * (screenshots/yyyy-MM-dd/), so expired days are dropped as a whole without
+ * looking at individual file timestamps.
+ * Two policies are supported, like logback's maxHistory and totalSizeCap: a
+ * number of days to keep, and a cap on the total size, which drops the oldest
+ * days first (today's directory is never dropped). The size counts every
+ * stored file once: a screenshot hard-linked to its blob, or kept by several
+ * days, is one file on disk. Files are deleted in parallel with bounded
+ * concurrency, and content-addressed blobs that no remaining manifest refers
+ * to are deleted afterwards.
+ */
+public class ScreenshotRetention {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotRetention.class);
+
+    private final Path root;
+    private final int daysToKeep;
+    private final long totalSizeCap;
+    private final int parallelism;
+    private final Supplier<ScreenshotStore> store;
+
+    /**
+     * Constructor for ScreenshotRetention
+     * 
+     * @param root         Screenshots directory
+     * @param daysToKeep   Number of days to keep (0 to keep all)
+     * @param totalSizeCap Maximum total size in bytes (0 for no cap)
+     * @param parallelism  Maximum number of concurrent deletions
+     * @param store        Store of the running suite whose blobs must be kept, or null
+     */
+    public ScreenshotRetention(Path root, int daysToKeep, long totalSizeCap, int parallelism, ScreenshotStore store) {
+        this(root, daysToKeep, totalSizeCap, parallelism, () -> store);
+    }
+
+    private ScreenshotRetention(Path root, int daysToKeep, long totalSizeCap, int parallelism,
+            Supplier<ScreenshotStore> store) {
+        this.root = root;
+        this.daysToKeep = daysToKeep;
+        this.totalSizeCap = totalSizeCap;
+        this.parallelism = Math.max(1, parallelism);
+        this.store = store;
+    }
+
+    /**
+     * Create the retention policy configured in appium-config.yml. The blobs
+     * of the running suite are taken from the shared ScreenshotWriter, if it
+     * has been created by the time blobs are deleted; creating the policy
+     * does not create the writer.
+     * 
+     * @return ScreenshotRetention instance
+     */
+    public static ScreenshotRetention fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        return new ScreenshotRetention(Paths.get(ScreenshotUtils.SCREENSHOT_DIR), config.getScreenshotRetentionDays(),
+                parseSize(config.getScreenshotTotalSizeCap()), config.getScreenshotCleanupThreads(),
+                ScreenshotWriter::getSharedStore);
+    }
+
+    /**
+     * Check whether any retention policy is configured
+     * 
+     * @return true if days or a size cap are set
+     */
+    public boolean isEnabled() {
+        return daysToKeep > 0 || totalSizeCap > 0;
+    }
+
+    /**
+     * Run the retention policy on a daemon thread so that it does not delay
+     * the first test
+     * 
+     * @return The started thread
+     */
+    public Thread startInBackground() {
+        Thread thread = new Thread(this::run, "screenshot-retention");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Apply the retention policy
+     */
+    public void run() {
+        if (!Files.isDirectory(root) || !isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        AtomicInteger deleted = new AtomicInteger();
+        try {
+            LocalDate today = LocalDate.now();
+            List<DayPartition> days = listDays();
+
+            if (daysToKeep > 0) {
+                LocalDate oldestKept = today.minusDays(daysToKeep);
+                List<DayPartition> expired = new ArrayList<>();
+                for (DayPartition day : days) {
+                    if (day.date.isBefore(oldestKept)) {
+                        expired.add(day);
+                    }
+                }
+                for (DayPartition day : expired) {
+                    deleted.addAndGet(deleteTree(day.path, pool));
+                }
+                days.removeAll(expired);
+                deleted.addAndGet(deleteLegacyFiles(oldestKept, pool));
+            }
+
+            if (totalSizeCap > 0) {
+                deleted.addAndGet(applySizeCap(days, today, pool));
+            }
+
+            deleted.addAndGet(deleteUnreferencedBlobs(pool));
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to apply screenshot retention: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Screenshot retention was interrupted");
+        } catch (ExecutionException e) {
+            logger.error("Failed to apply screenshot retention: {}", e.getCause().getMessage());
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Screenshot retention deleted {} file(s) in {} ms", deleted.get(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Parse a size such as "500MB" or "2GB" (plain numbers are bytes)
+     * 
+     * @param size Size string, empty or null for none
+     * @return Size in bytes, 0 for none
+     */
+    public static long parseSize(String size) {
+        if (size == null || size.trim().isEmpty()) {
+            return 0;
+        }
+        String value = size.trim().toUpperCase(Locale.ROOT).replace(" ", "");
+        long multiplier = 1;
+        if (value.endsWith("KB")) {
+            multiplier = 1024L;
+        } else if (value.endsWith("MB")) {
+            multiplier = 1024L * 1024;
+        } else if (value.endsWith("GB")) {
+            multiplier = 1024L * 1024 * 1024;
+        }
+        String number = value.replaceAll("[KMG]?B$", "");
+        try {
+            return (long) (Double.parseDouble(number) * multiplier);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size: " + size, e);
+        }
+    }
+
+    /**
+     * Drop the oldest days until the total size is under the cap. Days are
+     * measured in parallel; today's directory is always kept. Files are
+     * counted once per inode, so hard links to a blob add nothing, and
+     * dropping a day only frees the files no remaining day links to (their
+     * blobs are deleted as unreferenced afterwards).
+     */
+    private int applySizeCap(List<DayPartition> days, LocalDate today, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException, IOException {
+        pool.submit(() -> days.parallelStream().forEach(day -> day.files = filesOf(day.path))).get();
+        Map<Object, Long> sizes = new HashMap<>();
+        Map<Object, Integer> links = new HashMap<>();
+        for (DayPartition day : days) {
+            sizes.putAll(day.files);
+            for (Object file : day.files.keySet()) {
+                links.merge(file, 1, Integer::sum);
+            }
+        }
+        Path blobs = root.resolve(ScreenshotStore.BLOB_DIR);
+        if (Files.isDirectory(blobs)) {
+            filesOf(blobs).forEach(sizes::putIfAbsent);
+        }
+        long total = 0;
+        for (long size : sizes.values()) {
+            total += size;
+        }
+        int deleted = 0;
+        for (DayPartition day : days) {
+            if (total <= totalSizeCap || !day.date.isBefore(today)) {
+                break;
+            }
+            logger.info("Screenshots use {} bytes (cap {}), dropping {}", total, totalSizeCap, day.path.getFileName());
+            deleted += deleteTree(day.path, pool);
+            for (Object file : day.files.keySet()) {
+                if (links.merge(file, -1, Integer::sum) == 0) {
+                    total -= sizes.get(file);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete blobs that no manifest and no screenshot of the running suite
+     * refers to. The blob directory is listed before the references are read,
+     * so a blob written in the meantime is never considered.
+     */
+    private int deleteUnreferencedBlobs(ForkJoinPool pool)
+            throws IOException, InterruptedException, ExecutionException {
+        Path blobs = root.resolve(ScreenshotStore.BLOB_DIR);
+        if (!Files.isDirectory(blobs)) {
+            return 0;
+        }
+        // Taken before listing: a store created afterwards has not written any of the candidates
+        ScreenshotStore suiteStore = store.get();
+        List<Path> candidates = listFiles(blobs);
+        Set<Path> referenced = suiteStore != null
+                ? suiteStore.getReferencedBlobs()
+                : ScreenshotStore.readReferencedBlobs(root);
+        List<Path> unreferenced = candidates.stream()
+                .filter(path -> !referenced.contains(path))
+                .collect(Collectors.toList());
+        return deleteAll(unreferenced, pool);
+    }
+
+    /**
+     * Delete screenshots written before the date partitions were introduced
+     * (directly in the screenshots directory) by modification time
+     */
+    private int deleteLegacyFiles(LocalDate oldestKept, ForkJoinPool pool)
+            throws IOException, InterruptedException, ExecutionException {
+        long cutoffTime = oldestKept.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<Path> legacy = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, "*.{png,jpg}")) {
+            for (Path path : entries) {
+                if (Files.isRegularFile(path) && Files.getLastModifiedTime(path).toMillis() < cutoffTime) {
+                    legacy.add(path);
+                }
+            }
+        }
+        return deleteAll(legacy, pool);
+    }
+
+    private List<DayPartition> listDays() throws IOException {
+        List<DayPartition> days = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path path : entries) {
+                try {
+                    days.add(new DayPartition(LocalDate.parse(path.getFileName().toString()), path));
+                } catch (DateTimeParseException e) {
+                    // Not a day partition (e.g. the blob store)
+                }
+            }
+        }
+        days.sort(Comparator.comparing(day -> day.date));
+        return days;
+    }
+
+    private int deleteTree(Path directory, ForkJoinPool pool)
+            throws IOException, InterruptedException, ExecutionException {
+        int deleted = deleteAll(listFiles(directory), pool);
+        List<Path> directories;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            directories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        Collections.reverse(directories);
+        for (Path path : directories) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete screenshot directory: {}", path);
+            }
+        }
+        logger.info("Deleted screenshot directory {} ({} files)", directory.getFileName(), deleted);
+        return deleted;
+    }
+
+    private static int deleteAll(List<Path> files, ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        AtomicInteger deleted = new AtomicInteger();
+        pool.submit(() -> files.parallelStream().forEach(path -> {
+            try {
+                Files.deleteIfExists(path);
+                deleted.incrementAndGet();
+            } catch (IOException e) {
+                logger.warn("Failed to delete screenshot file: {}", path.getFileName());
+            }
+        })).get();
+        return deleted.get();
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Get the size of every file under a directory, keyed by the file's
+     * identity (its inode where the file system reports one, else its path)
+     */
+    private static Map<Object, Long> filesOf(Path directory) {
+        Map<Object, Long> files = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    Object key = attributes.fileKey();
+                    files.put(key != null ? key : path.toAbsolutePath(), attributes.size());
+                } catch (IOException e) {
+                    // Deleted concurrently
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private static class DayPartition {
+        private final LocalDate date;
+        private final Path path;
+        private Map<Object, Long> files;
+
+        DayPartition(LocalDate date, Path path) {
+            this.date = date;
+            this.path = path;
+        }
+    }
+}
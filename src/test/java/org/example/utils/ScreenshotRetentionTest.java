@@ -0,0 +1,112 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ScreenshotRetention.
+ * Verifies size parsing and which day directories the retention policy drops.
+ */
+public class ScreenshotRetentionTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Sizes are parsed with binary units")
+    public void testParseSize() {
+        assertThat(ScreenshotRetention.parseSize(null)).isZero();
+        assertThat(ScreenshotRetention.parseSize("  ")).isZero();
+        assertThat(ScreenshotRetention.parseSize("500")).isEqualTo(500);
+        assertThat(ScreenshotRetention.parseSize("500B")).isEqualTo(500);
+        assertThat(ScreenshotRetention.parseSize("1KB")).isEqualTo(1024);
+        assertThat(ScreenshotRetention.parseSize("500MB")).isEqualTo(500L * 1024 * 1024);
+        assertThat(ScreenshotRetention.parseSize("2GB")).isEqualTo(2L * 1024 * 1024 * 1024);
+        assertThat(ScreenshotRetention.parseSize(" 1.5 gb ")).isEqualTo(1536L * 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Invalid sizes are rejected")
+    public void testParseInvalidSize() {
+        assertThatThrownBy(() -> ScreenshotRetention.parseSize("lots"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("lots");
+        assertThatThrownBy(() -> ScreenshotRetention.parseSize("2TB"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Days older than the days to keep are dropped")
+    public void testDaysToKeep() throws IOException {
+        Path expired = writeScreenshot(day(10), "expired.png", 100);
+        Path kept = writeScreenshot(day(2), "kept.png", 100);
+
+        new ScreenshotRetention(root, 5, 0, 2, null).run();
+
+        assertThat(expired.getParent()).doesNotExist();
+        assertThat(kept).exists();
+    }
+
+    @Test
+    @DisplayName("The oldest days are dropped while the size cap is exceeded")
+    public void testSizeCap() throws IOException {
+        Path oldest = writeScreenshot(day(3), "a.png", 1000);
+        Path older = writeScreenshot(day(2), "b.png", 1000);
+        Path today = writeScreenshot(day(0), "c.png", 1000);
+
+        new ScreenshotRetention(root, 0, 2500, 2, null).run();
+
+        assertThat(oldest.getParent()).doesNotExist();
+        assertThat(older).exists();
+        assertThat(today).exists();
+    }
+
+    @Test
+    @DisplayName("Today is kept even when it alone exceeds the size cap")
+    public void testSizeCapKeepsToday() throws IOException {
+        Path today = writeScreenshot(day(0), "c.png", 5000);
+
+        new ScreenshotRetention(root, 0, 1000, 2, null).run();
+
+        assertThat(today).exists();
+    }
+
+    @Test
+    @DisplayName("Screenshots hard-linked to one blob count once towards the size cap")
+    public void testSizeCapCountsHardLinksOnce() throws IOException {
+        Path blob = root.resolve(ScreenshotStore.BLOB_DIR).resolve("ab").resolve("abcdef.png");
+        Files.createDirectories(blob.getParent());
+        Files.write(blob, new byte[1000]);
+        Path first = root.resolve(day(3)).resolve("first.png");
+        Path second = root.resolve(day(2)).resolve("second.png");
+        Files.createDirectories(first.getParent());
+        Files.createDirectories(second.getParent());
+        Files.createLink(first, blob);
+        Files.createLink(second, blob);
+
+        new ScreenshotRetention(root, 0, 1500, 2, null).run();
+
+        assertThat(first).exists();
+        assertThat(second).exists();
+    }
+
+    private static String day(int daysAgo) {
+        return LocalDate.now().minusDays(daysAgo).toString();
+    }
+
+    private Path writeScreenshot(String day, String name, int size) throws IOException {
+        Path file = root.resolve(day).resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        return file;
+    }
+}
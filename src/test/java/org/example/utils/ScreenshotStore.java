@@ -0,0 +1,222 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * ScreenshotStore class keeps screenshots in a content-addressed store so that
+ * identical images are stored once.
+ * Each image is saved as blobs/&lt;hash prefix&gt;/&lt;hash&gt;.&lt;ext&gt;,
+ * keyed by the SHA-256 of its bytes, and the usual timestamped file is
+ * created as a hard link to the blob (a copy where links are not supported).
+ * Every run writes a manifest next to its screenshots
+ * (&lt;date&gt;/manifest-&lt;run id&gt;.json) that maps each screenshot name to
+ * its blob; {@link ScreenshotRetention} uses the manifests to delete blobs
+ * that no retained run refers to.
+ */
+public class ScreenshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+    static final String BLOB_DIR = "blobs";
+    static final String MANIFEST_PREFIX = "manifest-";
+    private static final DateTimeFormatter RUN_ID_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private final Path root;
+    private final String runId;
+    private final LocalDate runDate;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, Object> blobLocks = new ConcurrentHashMap<>();
+    private final List<Map<String, Object>> entries = new ArrayList<>();
+
+    public ScreenshotStore(Path root) {
+        this.root = root;
+        this.runDate = LocalDate.now();
+        this.runId = LocalDateTime.now().format(RUN_ID_FORMATTER) + "_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Store a screenshot and link it into place
+     * 
+     * @param image  Encoded image
+     * @param target Timestamped screenshot file to create
+     * @return Path of the blob holding the image
+     * @throws IOException if the image cannot be stored
+     */
+    public Path put(byte[] image, Path target) throws IOException {
+        String hash = sha256(image);
+        Path blob = blobPath(hash, extensionOf(target));
+
+        Object lock = blobLocks.computeIfAbsent(blob.toString(), key -> new Object());
+        synchronized (lock) {
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Path temp = Files.createTempFile(blob.getParent(), hash, ".tmp");
+                try {
+                    Files.write(temp, image);
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                logger.debug("Stored new screenshot blob {}", blob.getFileName());
+            } else {
+                logger.debug("Screenshot {} is a duplicate of blob {}", target.getFileName(), blob.getFileName());
+            }
+            link(blob, target);
+        }
+        record(target, blob);
+        return blob;
+    }
+
+    /**
+     * Write this run's manifest. Called when pending screenshots are flushed.
+     */
+    public void writeManifest() {
+        List<Map<String, Object>> snapshot;
+        synchronized (entries) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            snapshot = new ArrayList<>(entries);
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("runId", runId);
+        manifest.put("screenshots", snapshot);
+        try {
+            Path manifestFile = root.resolve(runDate.toString()).resolve(MANIFEST_PREFIX + runId + ".json");
+            Files.createDirectories(manifestFile.getParent());
+            mapper.writeValue(manifestFile.toFile(), manifest);
+            logger.debug("Screenshot manifest written: {}", manifestFile);
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot manifest: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get every blob referenced by a manifest under the store root, plus the
+     * blobs this run has written or is writing
+     * 
+     * @return Referenced blob paths
+     * @throws IOException if the manifests cannot be listed
+     */
+    public Set<Path> getReferencedBlobs() throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        for (String blob : blobLocks.keySet()) {
+            referenced.add(Paths.get(blob));
+        }
+        referenced.addAll(readReferencedBlobs(root));
+        return referenced;
+    }
+
+    /**
+     * Get every blob referenced by the manifests stored under a root
+     * 
+     * @param root Screenshots directory
+     * @return Referenced blob paths
+     * @throws IOException if the manifests cannot be listed
+     */
+    public static Set<Path> readReferencedBlobs(Path root) throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        if (!Files.isDirectory(root)) {
+            return referenced;
+        }
+        ObjectMapper reader = new ObjectMapper();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(path -> path.getFileName().toString().startsWith(MANIFEST_PREFIX))
+                    .filter(path -> path.toString().endsWith(".json"))
+                    .forEach(path -> readReferences(reader, root, path, referenced));
+        }
+        return referenced;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    private Path blobPath(String hash, String extension) {
+        return root.resolve(BLOB_DIR).resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private void link(Path blob, Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, blob);
+        } catch (UnsupportedOperationException | IOException e) {
+            logger.debug("Hard link not possible, copying blob instead: {}", e.getMessage());
+            Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void record(Path target, Path blob) {
+        String file = target.getFileName().toString();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", file.substring(0, file.lastIndexOf('.')));
+        entry.put("file", root.relativize(target).toString());
+        entry.put("blob", root.relativize(blob).toString());
+        synchronized (entries) {
+            entries.add(entry);
+        }
+    }
+
+    private static void readReferences(ObjectMapper reader, Path root, Path manifestFile, Set<Path> referenced) {
+        try {
+            Map<String, Object> manifest = reader.readValue(manifestFile.toFile(),
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            Object screenshots = manifest.get("screenshots");
+            if (screenshots instanceof List) {
+                for (Object entry : (List<?>) screenshots) {
+                    if (entry instanceof Map && ((Map<?, ?>) entry).get("blob") != null) {
+                        referenced.add(root.resolve(((Map<?, ?>) entry).get("blob").toString()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read screenshot manifest {}: {}", manifestFile.getFileName(), e.getMessage());
+        }
+    }
+
+    private static String extensionOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1) : "png";
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
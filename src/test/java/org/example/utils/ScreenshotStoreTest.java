@@ -0,0 +1,82 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for ScreenshotStore.
+ * Verifies that identical screenshots share one blob, that every screenshot
+ * still appears under its own name and that the manifest refers to the blobs.
+ */
+public class ScreenshotStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Identical screenshots are stored once")
+    public void testDeduplication() throws Exception {
+        ScreenshotStore store = new ScreenshotStore(root);
+        Path first = root.resolve("2026-01-01").resolve("home_1.png");
+        Path second = root.resolve("2026-01-01").resolve("home_2.png");
+
+        Path blob = store.put(bytes("home screen"), first);
+        Path duplicate = store.put(bytes("home screen"), second);
+
+        assertThat(duplicate).isEqualTo(blob);
+        assertThat(blob).startsWith(root.resolve(ScreenshotStore.BLOB_DIR)).hasExtension("png");
+        assertThat(blobCount()).isEqualTo(1);
+        assertThat(first).hasBinaryContent(bytes("home screen"));
+        assertThat(second).hasBinaryContent(bytes("home screen"));
+    }
+
+    @Test
+    @DisplayName("Different screenshots get their own blobs")
+    public void testDistinctImages() throws Exception {
+        ScreenshotStore store = new ScreenshotStore(root);
+
+        Path home = store.put(bytes("home screen"), root.resolve("home.png"));
+        Path alert = store.put(bytes("alert screen"), root.resolve("alert.png"));
+
+        assertThat(home).isNotEqualTo(alert);
+        assertThat(blobCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("The manifest refers to the blobs of the run")
+    public void testManifest() throws Exception {
+        ScreenshotStore store = new ScreenshotStore(root);
+        Path blob = store.put(bytes("home screen"), root.resolve("2026-01-01").resolve("home_1.png"));
+        store.put(bytes("home screen"), root.resolve("2026-01-01").resolve("home_2.png"));
+
+        store.writeManifest();
+
+        assertThat(ScreenshotStore.readReferencedBlobs(root)).containsExactly(blob);
+        assertThat(store.getReferencedBlobs()).containsExactly(blob);
+    }
+
+    @Test
+    @DisplayName("Nothing is referenced before a manifest exists")
+    public void testNoManifest() throws Exception {
+        assertThat(ScreenshotStore.readReferencedBlobs(root)).isEmpty();
+        assertThat(ScreenshotStore.readReferencedBlobs(root.resolve("missing"))).isEmpty();
+    }
+
+    private long blobCount() throws Exception {
+        try (Stream<Path> files = Files.walk(root.resolve(ScreenshotStore.BLOB_DIR))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,32 +1,45 @@
 package org.example.utils;
 
 import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebDriverException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * ScreenshotUtils class provides utility methods for taking and managing
  * screenshots.
  * This class handles screenshot capture, file naming, and directory management.
+ * Only the capture itself runs on the test thread; with screenshot_async
+ * enabled, encoding and writing are handed to the {@link ScreenshotWriter}.
+ * Screenshots are written to one subdirectory per day
+ * (screenshots/yyyy-MM-dd/) so that retention can drop whole days.
  */
 public class ScreenshotUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotUtils.class);
-    private static final String SCREENSHOT_DIR = "screenshots";
+    static final String SCREENSHOT_DIR = "screenshots";
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
 
     private final AppiumDriver driver;
+    private final ScreenshotWriter writer;
+    private final boolean async;
 
     public ScreenshotUtils(AppiumDriver driver) {
         this.driver = driver;
+        this.writer = ScreenshotWriter.getInstance();
+        this.async = ConfigManager.getInstance().isScreenshotAsync();
         createScreenshotDirectory();
     }
 
@@ -58,29 +71,43 @@ public class ScreenshotUtils {
      * Take a screenshot with a custom filename
      * 
      * @param filename Base filename (without extension)
-     * @return Path to the saved screenshot file
+     * @return Path to the saved screenshot file (in async mode the file is
+     *         written shortly after this method returns)
      */
     public String takeScreenshot(String filename) {
         try {
             String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-            String fullFilename = String.format("%s_%s.png", filename, timestamp);
-            String filePath = Paths.get(SCREENSHOT_DIR, fullFilename).toString();
+            String fullFilename = String.format("%s_%s.%s", filename, timestamp, writer.getFileExtension());
+            Path filePath = Paths.get(SCREENSHOT_DIR, LocalDate.now().toString(), fullFilename);
 
             // Take screenshot using Appium driver
-            File screenshotFile = driver.getScreenshotAs(org.openqa.selenium.OutputType.FILE);
-
-            // Copy to our desired location
-            Files.copy(screenshotFile.toPath(), Paths.get(filePath));
-
-            logger.info("Screenshot saved: {}", filePath);
-            return filePath;
+            byte[] screenshot = driver.getScreenshotAs(OutputType.BYTES);
+
+            // Encode and write it, in the background when async
+            if (async) {
+                writer.submit(screenshot, filePath);
+                logger.info("Screenshot queued: {}", filePath);
+            } else {
+                writer.write(screenshot, filePath);
+                logger.info("Screenshot saved: {}", filePath);
+            }
+            return filePath.toString();
 
-        } catch (IOException e) {
+        } catch (IOException | WebDriverException | RejectedExecutionException e) {
             logger.error("Failed to take screenshot: {}", e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Wait until all queued screenshots have been written
+     * 
+     * @return true if all screenshots were written in time
+     */
+    public boolean flush() {
+        return writer.flush(Duration.ofSeconds(30));
+    }
+
     /**
      * Take a screenshot for test failure
      * 
@@ -127,40 +154,14 @@ public class ScreenshotUtils {
     }
 
     /**
-     * Clean up old screenshots (older than specified days)
+     * Clean up old screenshots (older than specified days). Whole day
+     * directories are dropped, and with deduplication enabled image blobs are
+     * only deleted once no retained run's manifest refers to them.
      * 
      * @param daysToKeep Number of days to keep screenshots
      */
     public void cleanupOldScreenshots(int daysToKeep) {
-        try {
-            Path screenshotPath = Paths.get(SCREENSHOT_DIR);
-            if (!Files.exists(screenshotPath)) {
-                return;
-            }
-
-            long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24L * 60L * 60L * 1000L);
-
-            Files.walk(screenshotPath)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".png"))
-                    .filter(path -> {
-                        try {
-                            return Files.getLastModifiedTime(path).toMillis() < cutoffTime;
-                        } catch (IOException e) {
-                            return false;
-                        }
-                    })
-                    .forEach(path -> {
-                        try {
-                            Files.delete(path);
-                            logger.info("Deleted old screenshot: {}", path.getFileName());
-                        } catch (IOException e) {
-                            logger.warn("Failed to delete old screenshot: {}", path.getFileName());
-                        }
-                    });
-
-        } catch (IOException e) {
-            logger.error("Failed to cleanup old screenshots: {}", e.getMessage());
-        }
+        new ScreenshotRetention(Paths.get(SCREENSHOT_DIR), daysToKeep, 0,
+                ConfigManager.getInstance().getScreenshotCleanupThreads(), writer.getStore()).run();
     }
 }
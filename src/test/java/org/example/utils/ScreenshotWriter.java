@@ -0,0 +1,265 @@
+package org.example.utils;
+
+import org.example.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ScreenshotWriter class encodes and writes screenshots off the test thread.
+ * The test thread only fetches the PNG bytes from the driver and hands them
+ * over; optional downscaling, recompression and the file write run on a small
+ * pool of background threads.
+ * The queue of pending screenshots is bounded: when it is full the submitting
+ * thread writes the screenshot itself, which throttles a test that produces
+ * screenshots faster than they can be written instead of buffering them
+ * without limit.
+ * When a {@link ScreenshotStore} is configured, images go through it so that
+ * identical screenshots are stored once.
+ * Once the writer is shut down, submitted screenshots are rejected with a
+ * RejectedExecutionException instead of being dropped silently.
+ */
+public class ScreenshotWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotWriter.class);
+    private static volatile boolean sharedCreated;
+
+    private final ThreadPoolExecutor executor;
+    private final double scale;
+    private final String format;
+    private final ScreenshotStore store;
+    private final Object pendingLock = new Object();
+    private int pending;
+
+    public ScreenshotWriter(int threads, int queueCapacity, double scale, String format, ScreenshotStore store) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Screenshot writer is shut down");
+                    }
+                    runnable.run();
+                });
+        this.scale = scale;
+        this.format = "jpeg".equalsIgnoreCase(format) ? "jpg" : format.toLowerCase(Locale.ROOT);
+        this.store = store;
+    }
+
+    private static final class Holder {
+        private static final ScreenshotWriter INSTANCE = createShared();
+    }
+
+    /**
+     * Get the shared writer, creating it from the configuration on first use.
+     * Pending screenshots are flushed when the JVM shuts down.
+     * 
+     * @return ScreenshotWriter instance
+     */
+    public static ScreenshotWriter getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Flush the shared writer if it has been created
+     * 
+     * @param timeout Maximum time to wait
+     */
+    public static void flushShared(Duration timeout) {
+        if (sharedCreated) {
+            Holder.INSTANCE.flush(timeout);
+        }
+    }
+
+    /**
+     * Get the store of the shared writer without creating the writer
+     * 
+     * @return ScreenshotStore, or null if the shared writer has not been
+     *         created or does not deduplicate
+     */
+    public static ScreenshotStore getSharedStore() {
+        return sharedCreated ? Holder.INSTANCE.getStore() : null;
+    }
+
+    private static ScreenshotWriter createShared() {
+        ConfigManager config = ConfigManager.getInstance();
+        ScreenshotStore store = config.isScreenshotDedup()
+                ? new ScreenshotStore(Paths.get(ScreenshotUtils.SCREENSHOT_DIR))
+                : null;
+        ScreenshotWriter writer = new ScreenshotWriter(config.getScreenshotWriterThreads(),
+                config.getScreenshotQueueCapacity(), config.getScreenshotScale(), config.getScreenshotFormat(), store);
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::shutdown, "screenshot-writer-shutdown"));
+        sharedCreated = true;
+        return writer;
+    }
+
+    /**
+     * Get the extension of the files this writer produces
+     * 
+     * @return File extension without the dot, e.g. "png"
+     */
+    public String getFileExtension() {
+        return format;
+    }
+
+    /**
+     * Get the content-addressed store screenshots are written through
+     * 
+     * @return ScreenshotStore, or null when deduplication is disabled
+     */
+    public ScreenshotStore getStore() {
+        return store;
+    }
+
+    /**
+     * Queue a screenshot for writing. Returns immediately unless the queue is
+     * full, in which case the screenshot is written on the calling thread.
+     * 
+     * @param png    Screenshot as returned by the driver
+     * @param target File to write
+     * @throws RejectedExecutionException if the writer has been shut down
+     */
+    public void submit(byte[] png, Path target) {
+        synchronized (pendingLock) {
+            pending++;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    write(png, target);
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Failed to write screenshot {}: {}", target, e.getMessage());
+                } finally {
+                    completed();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            completed();
+            logger.error("Screenshot {} not written: {}", target, e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            completed();
+            throw e;
+        }
+    }
+
+    /**
+     * Encode and write a screenshot on the calling thread
+     * 
+     * @param png    Screenshot as returned by the driver
+     * @param target File to write
+     * @throws IOException if the screenshot cannot be encoded or written
+     */
+    public void write(byte[] png, Path target) throws IOException {
+        byte[] image = encode(png);
+        if (store != null) {
+            store.put(image, target);
+        } else {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Files.write(target, image);
+        }
+        logger.debug("Screenshot written: {}", target);
+    }
+
+    /**
+     * Wait until every queued screenshot has been written, then write the
+     * run's manifest if screenshots go through a store
+     * 
+     * @param timeout Maximum time to wait
+     * @return true if all screenshots were written, false on timeout
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean flushed = true;
+        synchronized (pendingLock) {
+            while (pending > 0 && flushed) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    logger.warn("{} screenshot(s) still pending after flush timeout", pending);
+                    flushed = false;
+                    break;
+                }
+                try {
+                    pendingLock.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    flushed = false;
+                }
+            }
+        }
+        if (store != null) {
+            store.writeManifest();
+        }
+        return flushed;
+    }
+
+    /**
+     * Write the pending screenshots and stop the background threads
+     */
+    public void shutdown() {
+        flush(Duration.ofSeconds(30));
+        executor.shutdown();
+    }
+
+    /**
+     * Apply the configured scale and format; the driver's PNG is written
+     * unchanged when neither is needed
+     */
+    private byte[] encode(byte[] png) throws IOException {
+        if (scale == 1.0 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Screenshot is not a readable image");
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = output.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(output, format, out)) {
+            throw new IOException("Unsupported screenshot format: " + format);
+        }
+        return out.toByteArray();
+    }
+
+    private void completed() {
+        synchronized (pendingLock) {
+            pending--;
+            if (pending == 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ScreenshotWriter.
+ * Verifies that a full queue throttles the submitting thread, that flush
+ * waits for every queued screenshot and that a shut down writer rejects new
+ * ones.
+ */
+public class ScreenshotWriterTest {
+
+    @TempDir
+    Path root;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Map<Path, String> writtenBy = new ConcurrentHashMap<>();
+    private ScreenshotWriter writer;
+
+    @AfterEach
+    public void stopWriter() {
+        release.countDown();
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("A full queue makes the submitting thread write the screenshot itself")
+    public void testBackpressure() throws Exception {
+        writer = new ScreenshotWriter(1, 1, 1.0, "png", new BlockingStore(root));
+
+        writer.submit(png("first"), root.resolve("first.png"));
+        writer.submit(png("second"), root.resolve("second.png"));
+        writer.submit(png("third"), root.resolve("third.png"));
+
+        assertThat(writtenBy).containsOnlyKeys(root.resolve("third.png"));
+        assertThat(writtenBy.get(root.resolve("third.png"))).isEqualTo(Thread.currentThread().getName());
+        assertThat(writer.flush(Duration.ofMillis(100))).isFalse();
+
+        release.countDown();
+        assertThat(writer.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(writtenBy).hasSize(3);
+        assertThat(root.resolve("second.png")).hasContent("second");
+    }
+
+    @Test
+    @DisplayName("A shut down writer rejects screenshots and does not hold up flush")
+    public void testRejectAfterShutdown() {
+        writer = new ScreenshotWriter(1, 1, 1.0, "png", null);
+        writer.shutdown();
+
+        assertThatThrownBy(() -> writer.submit(png("late"), root.resolve("late.png")))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        long start = System.nanoTime();
+        assertThat(writer.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(root.resolve("late.png")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Without a store screenshots are written to their target file")
+    public void testPlainWrite() throws Exception {
+        writer = new ScreenshotWriter(2, 4, 1.0, "png", null);
+        Path target = root.resolve("2026-01-01").resolve("plain.png");
+
+        writer.submit(png("plain"), target);
+
+        assertThat(writer.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(png("plain"));
+    }
+
+    private static byte[] png(String content) {
+        // PNG output at scale 1.0 is written unchanged, so any bytes will do
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Store that holds up the background threads until released, and
+     * records which thread wrote each screenshot
+     */
+    private class BlockingStore extends ScreenshotStore {
+
+        BlockingStore(Path root) {
+            super(root);
+        }
+
+        @Override
+        public Path put(byte[] image, Path target) throws IOException {
+            if (Thread.currentThread().getName().startsWith("screenshot-writer-")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            writtenBy.put(target, Thread.currentThread().getName());
+            return super.put(image, target);
+        }
+    }
+}
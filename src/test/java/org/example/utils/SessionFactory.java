@@ -0,0 +1,268 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.example.config.DeviceConfig;
+import org.example.metrics.CommandMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * SessionFactory class creates driver sessions asynchronously. At most
+ * session_create_concurrency sessions are started at the same time on each
+ * Appium server (WebDriverAgent builds and simulator boots compete for the
+ * same host), and a session that fails to start with a known transient error,
+ * such as a WDA launch failure or timeout, a busy port or a refused
+ * connection, is retried after an exponential backoff with full jitter. Other
+ * errors, including timeouts that do not concern WDA or the simulator, fail at
+ * once.
+ * Sessions are created on the factory's threads with the logging MDC of the
+ * caller, and the commands of a session created by {@link #create} are
+ * attributed to the caller's test in {@link CommandMetrics}.
+ * The futures returned by {@link #createAsync} let a caller start a session
+ * ahead of the test that needs it.
+ */
+public class SessionFactory implements SessionPool.DriverFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionFactory.class);
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+    private static final String[] TRANSIENT_ERRORS = {
+            "xcodebuild failed",
+            "unable to launch webdriveragent",
+            "could not proxy",
+            "econnrefused",
+            "econnreset",
+            "eaddrinuse",
+            "address already in use",
+            "socket hang up",
+    };
+    // A timeout is only transient when it concerns WebDriverAgent or the simulator
+    private static final String[] TIMEOUT_ERRORS = {
+            "timed out",
+            "timeout",
+    };
+    private static final String[] TIMEOUT_SUBJECTS = {
+            "webdriveragent",
+            "wda",
+            "xcodebuild",
+            "simulator",
+    };
+
+    private final SessionPool.DriverFactory driverFactory;
+    private final Function<DeviceConfig, String> serverOf;
+    private final int maxConcurrentPerServer;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final Map<String, Semaphore> serverPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for SessionFactory
+     * 
+     * @param driverFactory          Creates a session synchronously
+     * @param serverOf               Appium server a device's sessions are created on
+     * @param maxConcurrentPerServer Sessions started at the same time per server
+     * @param maxAttempts            Attempts per session, including the first
+     * @param baseDelay              Backoff before the first retry, doubled for
+     *                               every further retry
+     */
+    public SessionFactory(SessionPool.DriverFactory driverFactory, Function<DeviceConfig, String> serverOf,
+            int maxConcurrentPerServer, int maxAttempts, Duration baseDelay) {
+        this.driverFactory = driverFactory;
+        this.serverOf = serverOf;
+        this.maxConcurrentPerServer = Math.max(1, maxConcurrentPerServer);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(0, baseDelay.toMillis());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "session-factory-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a factory from the configuration
+     * 
+     * @param driverFactory Creates a session synchronously
+     * @return SessionFactory instance
+     */
+    public static SessionFactory fromConfig(SessionPool.DriverFactory driverFactory) {
+        ConfigManager config = ConfigManager.getInstance();
+        return new SessionFactory(driverFactory,
+                device -> config.isStubServerEnabled() ? "stub" : String.valueOf(device.getAppiumServerUrl()),
+                config.getSessionCreateConcurrency(),
+                config.getSessionCreateAttempts(),
+                Duration.ofMillis(config.getSessionRetryDelay()));
+    }
+
+    /**
+     * Start creating a session
+     * 
+     * @param device Device to create the session on
+     * @return Future completed with the driver, or exceptionally with the error
+     *         of the last attempt
+     */
+    @Override
+    public CompletableFuture<AppiumDriver> createAsync(DeviceConfig device) {
+        return attempt(device, 1, inCallerContext(() -> createWithPermit(device), false));
+    }
+
+    /**
+     * Create a session, waiting until it has started
+     * 
+     * @param device Device to create the session on
+     * @return AppiumDriver instance
+     * @throws MalformedURLException if the Appium server URL is malformed
+     */
+    @Override
+    public AppiumDriver create(DeviceConfig device) throws MalformedURLException {
+        try {
+            return attempt(device, 1, inCallerContext(() -> createWithPermit(device), true)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MalformedURLException) {
+                throw (MalformedURLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether a session creation error is worth retrying
+     * 
+     * @param error Error thrown while creating the session
+     * @return true if the error or one of its causes is a known transient
+     *         startup failure
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null) {
+                String lowerCase = message.toLowerCase(Locale.ROOT);
+                if (containsAny(lowerCase, TRANSIENT_ERRORS)
+                        || containsAny(lowerCase, TIMEOUT_ERRORS) && containsAny(lowerCase, TIMEOUT_SUBJECTS)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAny(String message, String[] fragments) {
+        for (String fragment : fragments) {
+            if (message.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<AppiumDriver> attempt(DeviceConfig device, int attempt, Supplier<AppiumDriver> task) {
+        CompletableFuture<CompletableFuture<AppiumDriver>> outcome = CompletableFuture
+                .supplyAsync(task, executor)
+                .handle((driver, error) -> error == null
+                        ? CompletableFuture.completedFuture(driver)
+                        : retryOrFail(device, attempt, task, error));
+        return outcome.thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<AppiumDriver> retryOrFail(DeviceConfig device, int attempt, Supplier<AppiumDriver> task,
+            Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (attempt >= maxAttempts || !isTransient(cause)) {
+            return CompletableFuture.failedFuture(cause);
+        }
+        long delayMs = backoff(attempt);
+        logger.warn("Session creation on device {} failed (attempt {} of {}), retrying in {} ms: {}",
+                device.getUdid(), attempt, maxAttempts, delayMs, cause.getMessage());
+        CompletableFuture<CompletableFuture<AppiumDriver>> retry = CompletableFuture.supplyAsync(
+                () -> attempt(device, attempt + 1, task),
+                CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor));
+        return retry.thenCompose(Function.identity());
+    }
+
+    /**
+     * Full jitter: a random delay up to the exponential backoff of the attempt
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(MAX_RETRY_DELAY_MS, baseDelayMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Run a task on a factory thread with the calling thread's logging MDC,
+     * and optionally with its commands attributed to the calling thread's test
+     */
+    private static Supplier<AppiumDriver> inCallerContext(Supplier<AppiumDriver> task, boolean attributeCommands) {
+        Map<String, String> callerMdc = MDC.getCopyOfContextMap();
+        Supplier<AppiumDriver> attributed = attributeCommands
+                ? CommandMetrics.getInstance().inCurrentTest(task)
+                : task;
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setMdc(callerMdc);
+            try {
+                return attributed.get();
+            } finally {
+                setMdc(previous);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private AppiumDriver createWithPermit(DeviceConfig device) {
+        String server = serverOf.apply(device);
+        Semaphore permits = serverPermits.computeIfAbsent(server, s -> new Semaphore(maxConcurrentPerServer, true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return driverFactory.create(device);
+        } catch (MalformedURLException e) {
+            throw new CompletionException(e);
+        } finally {
+            permits.release();
+        }
+    }
+}
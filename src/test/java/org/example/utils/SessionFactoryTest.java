@@ -0,0 +1,178 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.metrics.CommandMetrics;
+import org.example.metrics.InstrumentedIOSDriver;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.MDC;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for SessionFactory.
+ * Verifies which startup errors are retried and that sessions are created in
+ * the caller's context, creating the eventual sessions on an in-process
+ * StubAppiumServer.
+ */
+public class SessionFactoryTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    @DisplayName("Known WebDriverAgent and network startup failures are transient")
+    public void testTransientErrors() {
+        assertThat(SessionFactory.isTransient(new SessionNotCreatedException(
+                "Unable to launch WebDriverAgent because of xcodebuild failure: xcodebuild failed with code 65")))
+                .isTrue();
+        assertThat(SessionFactory.isTransient(new WebDriverException("listen EADDRINUSE: address already in use")))
+                .isTrue();
+        assertThat(SessionFactory.isTransient(new WebDriverException(new ConnectException("Connection refused"))))
+                .isTrue();
+        assertThat(SessionFactory.isTransient(new WebDriverException("wrapped",
+                new IllegalStateException("outer", new SocketTimeoutException())))).isTrue();
+        assertThat(SessionFactory.isTransient(new SessionNotCreatedException(
+                "Timed out waiting for WebDriverAgent to start on port 8100"))).isTrue();
+        assertThat(SessionFactory.isTransient(new WebDriverException("Simulator did not boot: timeout of 120000ms")))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Other failures are not transient")
+    public void testPermanentErrors() {
+        assertThat(SessionFactory.isTransient(new SessionNotCreatedException(
+                "'platformVersion' must be a valid version number"))).isFalse();
+        assertThat(SessionFactory.isTransient(new NoSuchElementException("Alert Views"))).isFalse();
+        assertThat(SessionFactory.isTransient(new IllegalStateException())).isFalse();
+        assertThat(SessionFactory.isTransient(new WebDriverException("New session request timed out")))
+                .isFalse();
+        assertThat(SessionFactory.isTransient(new ScriptTimeoutException("Script timed out"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("A session failing with a transient error is retried until it starts")
+    public void testRetryTransientFailure() throws Exception {
+        SessionFactory factory = createFactory(3, target -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new SessionNotCreatedException("Unable to launch WebDriverAgent");
+            }
+            return stub.newDriver(target);
+        });
+
+        AppiumDriver driver = factory.create(stub.getDevice());
+
+        assertThat(driver.getSessionId()).isNotNull();
+        assertThat(attempts).hasValue(3);
+        assertThat(stub.getServer().getSessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A transient failure fails once the attempts are used up")
+    public void testRetryGivesUp() {
+        SessionFactory factory = createFactory(2, target -> {
+            attempts.incrementAndGet();
+            throw new SessionNotCreatedException("Could not proxy command to the remote server");
+        });
+
+        assertThatThrownBy(() -> factory.create(stub.getDevice()))
+                .isInstanceOf(SessionNotCreatedException.class)
+                .hasMessageContaining("Could not proxy");
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A permanent failure is not retried")
+    public void testNoRetryOfPermanentFailure() {
+        SessionFactory factory = createFactory(5, target -> {
+            attempts.incrementAndGet();
+            throw new SessionNotCreatedException("'deviceName' capability is required");
+        });
+
+        assertThatThrownBy(() -> factory.createAsync(stub.getDevice()).join())
+                .hasCauseInstanceOf(SessionNotCreatedException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("At most the configured number of sessions start at once on a server")
+    public void testConcurrencyPerServer() throws Exception {
+        AtomicInteger starting = new AtomicInteger();
+        AtomicInteger mostStarting = new AtomicInteger();
+        SessionFactory factory = createFactory(1, target -> {
+            mostStarting.accumulateAndGet(starting.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(100);
+                return stub.newDriver(target);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                starting.decrementAndGet();
+            }
+        });
+
+        CompletableFuture<AppiumDriver> first = factory.createAsync(stub.getDevice());
+        CompletableFuture<AppiumDriver> second = factory.createAsync(stub.getDevice());
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertThat(mostStarting).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Sessions are created with the caller's MDC and their commands count towards the caller's test")
+    public void testCallerContext(@TempDir Path reports) throws Exception {
+        Map<String, String> seenMdc = new ConcurrentHashMap<>();
+        CommandMetrics metrics = CommandMetrics.getInstance();
+        SessionFactory factory = createFactory(1, target -> {
+            seenMdc.putAll(MDC.getCopyOfContextMap());
+            return new InstrumentedIOSDriver(stub.getServer().getUrl(), new XCUITestOptions()
+                    .setDeviceName(target.getDeviceName())
+                    .setUdid(target.getUdid()));
+        });
+        MDC.put("test", "testCallerContext");
+        metrics.startTest("testCallerContext");
+        try {
+            AppiumDriver driver = factory.create(stub.getDevice());
+            driver.quit();
+        } finally {
+            metrics.finishTest();
+            MDC.remove("test");
+        }
+
+        assertThat(seenMdc).containsEntry("test", "testCallerContext");
+        metrics.export(reports);
+        JsonNode tests = new ObjectMapper().readTree(reports.resolve("command-latency.json").toFile()).get("tests");
+        assertThat(tests).filteredOn(test -> test.get("test").asText().equals("testCallerContext"))
+                .singleElement()
+                .satisfies(test -> assertThat(test.get("commands").has("newSession")).isTrue());
+    }
+
+    private static SessionFactory createFactory(int maxAttempts, SessionPool.DriverFactory driverFactory) {
+        return new SessionFactory(driverFactory, target -> "stub", 1, maxAttempts, Duration.ZERO);
+    }
+}
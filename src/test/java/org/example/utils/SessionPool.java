@@ -0,0 +1,494 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.DeviceConfig;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SessionPool class keeps a bounded set of warm driver sessions that are leased
+ * to tests and reset on return instead of being quit.
+ * Sessions are health-checked before every lease and evicted after a maximum
+ * number of uses or when they have been idle for too long.
+ * Every session runs on a device taken from a {@link DeviceAllocator}, so the
+ * pool holds at most one session per configured device.
+ * {@link #invalidateAll()} retires every existing session, e.g. after the
+ * configured capabilities changed: idle sessions are quit at once and leased
+ * sessions are quit when they are returned.
+ * {@link #prestart()} creates a session on a free device in the background,
+ * so that the next lease finds it idle instead of waiting for its startup.
+ * Resetting by terminate and activate needs the app's bundle id; without a
+ * configured one it is taken from the session capabilities, and a session that
+ * has none either is quit instead of reset. A pool with a maximum of one use
+ * never reuses sessions and quits each one when it is returned.
+ */
+public class SessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionPool.class);
+
+    /**
+     * Creates new driver sessions for the pool
+     */
+    public interface DriverFactory {
+        AppiumDriver create(DeviceConfig device) throws MalformedURLException;
+
+        /**
+         * Start creating a session without waiting for it
+         * 
+         * @param device Device to create the session on
+         * @return Future completed with the driver
+         */
+        default CompletableFuture<AppiumDriver> createAsync(DeviceConfig device) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return create(device);
+                } catch (MalformedURLException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+    }
+
+    private final DeviceAllocator deviceAllocator;
+    private final DriverFactory driverFactory;
+    private final int maxUses;
+    private final Duration idleTimeout;
+    private final SessionResetStrategy resetStrategy;
+    private final String bundleId;
+    private final AtomicBoolean missingBundleIdLogged = new AtomicBoolean();
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition sessionAvailable = lock.newCondition();
+    private final Deque<PooledSession> idleSessions = new ArrayDeque<>();
+    private final Map<AppiumDriver, PooledSession> leasedSessions = new IdentityHashMap<>();
+    private boolean shutdown;
+    private int generation;
+
+    /**
+     * Constructor for SessionPool
+     * 
+     * @param deviceAllocator Devices the sessions run on
+     * @param driverFactory   Creates new sessions
+     * @param maxUses         Leases after which a session is quit; 1 quits
+     *                        every session when it is returned
+     * @param idleTimeout     Idle time after which a session is quit
+     * @param resetStrategy   How a returned session is reset
+     * @param bundleId        Bundle id of the app under test, or null to take it
+     *                        from the session capabilities
+     */
+    public SessionPool(DeviceAllocator deviceAllocator, DriverFactory driverFactory, int maxUses,
+            Duration idleTimeout, SessionResetStrategy resetStrategy, String bundleId) {
+        this.deviceAllocator = deviceAllocator;
+        this.driverFactory = driverFactory;
+        this.maxUses = Math.max(1, maxUses);
+        this.idleTimeout = idleTimeout;
+        this.resetStrategy = resetStrategy;
+        this.bundleId = bundleId;
+    }
+
+    /**
+     * Lease a session from the pool. Reuses a healthy idle session when one is
+     * available, creates a new one while a device is free, and otherwise blocks
+     * until another test returns its session.
+     * 
+     * @return AppiumDriver leased to the caller
+     * @throws MalformedURLException if the Appium server URL is malformed
+     */
+    public AppiumDriver lease() throws MalformedURLException {
+        while (true) {
+            Candidate candidate = takeIdleSessionOrFreeDevice();
+            if (candidate.freeDevice != null) {
+                return createSession(candidate.freeDevice);
+            }
+            PooledSession idle = candidate.idleSession;
+            if (isUsable(idle)) {
+                markLeased(idle);
+                deviceAllocator.setPreferredDevice(idle.device);
+                logger.info("Reusing pooled session on {} (use {} of {})",
+                        idle.device.getUdid(), idle.uses + 1, maxUses);
+                return idle.driver;
+            }
+            discard(idle);
+        }
+    }
+
+    /**
+     * Start creating a session on a free device in the background; it joins
+     * the idle sessions once it has started. Does nothing when every device
+     * is in use.
+     * 
+     * @return true if a session is being created
+     */
+    public boolean prestart() {
+        DeviceConfig device;
+        int sessionGeneration;
+        lock.lock();
+        try {
+            if (shutdown) {
+                return false;
+            }
+            // Keep the calling thread's preference for the device it is running on
+            DeviceConfig preferred = deviceAllocator.getPreferredDevice();
+            device = deviceAllocator.tryAcquire();
+            deviceAllocator.setPreferredDevice(preferred);
+            sessionGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+        if (device == null) {
+            return false;
+        }
+
+        logger.info("Starting a session on device {} ahead of the next lease", device.getUdid());
+        driverFactory.createAsync(device).whenComplete((driver, error) -> {
+            if (error != null) {
+                logger.warn("Failed to start a session ahead of time on device {}: {}",
+                        device.getUdid(), error.getMessage());
+                releaseDevice(device);
+                return;
+            }
+            lock.lock();
+            try {
+                if (!shutdown) {
+                    idleSessions.offerLast(new PooledSession(driver, device, sessionGeneration));
+                    sessionAvailable.signal();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            quitQuietly(driver);
+            deviceAllocator.release(device);
+        });
+        return true;
+    }
+
+    /**
+     * Return a leased session to the pool. The application state is reset with
+     * the configured strategy; sessions that reached their use limit or fail to
+     * reset are quit. Drivers that were not leased from this pool are quit.
+     * 
+     * @param driver Driver previously obtained from {@link #lease()}
+     */
+    public void release(AppiumDriver driver) {
+        PooledSession session;
+        lock.lock();
+        try {
+            session = leasedSessions.remove(driver);
+        } finally {
+            lock.unlock();
+        }
+
+        if (session == null) {
+            logger.warn("Released driver does not belong to the session pool, quitting it");
+            quitQuietly(driver);
+            return;
+        }
+
+        session.uses++;
+        if (isRetired(session)) {
+            logger.info("Evicting session created before the pool was invalidated");
+            discard(session);
+            return;
+        }
+        if (session.uses >= maxUses) {
+            logger.info("Quitting session after {} use(s)", session.uses);
+            discard(session);
+            return;
+        }
+
+        String sessionBundleId = bundleId != null && !bundleId.isEmpty() ? bundleId : AppBundle.fromSession(driver);
+        if (sessionBundleId == null && resetStrategy == SessionResetStrategy.TERMINATE_ACTIVATE) {
+            if (missingBundleIdLogged.compareAndSet(false, true)) {
+                logger.error("Cannot reset a pooled session without a bundle id, quitting it instead: set "
+                        + "bundle_id, or choose the \"none\" session_reset_strategy");
+            } else {
+                logger.debug("Quitting session on device {}: no bundle id to reset it with",
+                        session.device.getUdid());
+            }
+            discard(session);
+            return;
+        }
+
+        try {
+            resetStrategy.reset(driver, sessionBundleId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reset pooled session, evicting it: {}", e.getMessage());
+            discard(session);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (!shutdown) {
+                session.lastReturned = System.nanoTime();
+                idleSessions.offerFirst(session);
+                sessionAvailable.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        quitQuietly(driver);
+        deviceAllocator.release(session.device);
+    }
+
+    /**
+     * Retire every session created so far. Idle sessions are quit now, leased
+     * sessions when they are released; later leases create fresh sessions.
+     */
+    public void invalidateAll() {
+        List<PooledSession> sessions;
+        lock.lock();
+        try {
+            generation++;
+            sessions = new ArrayList<>(idleSessions);
+            idleSessions.clear();
+            // The devices may have changed as well, so let waiting leases look again
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Session pool invalidated, quitting {} idle session(s)", sessions.size());
+        for (PooledSession session : sessions) {
+            discard(session);
+        }
+    }
+
+    /**
+     * Get the device a leased driver is running on
+     * 
+     * @param driver Driver previously obtained from {@link #lease()}
+     * @return Device, or null if the driver is not leased from this pool
+     */
+    public DeviceConfig getDevice(AppiumDriver driver) {
+        lock.lock();
+        try {
+            PooledSession session = leasedSessions.get(driver);
+            return session != null ? session.device : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quit every session owned by the pool and reject further leases
+     */
+    public void shutdown() {
+        List<PooledSession> sessions = new ArrayList<>();
+        lock.lock();
+        try {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            sessions.addAll(idleSessions);
+            sessions.addAll(leasedSessions.values());
+            idleSessions.clear();
+            leasedSessions.clear();
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        logger.info("Shutting down session pool, quitting {} session(s)", sessions.size());
+        for (PooledSession session : sessions) {
+            quitQuietly(session.driver);
+            deviceAllocator.release(session.device);
+        }
+    }
+
+    /**
+     * Take an idle session, preferring one on the device the current thread used
+     * last, or allocate a free device for a new session when there is none
+     * 
+     * @return Idle session, or the device allocated for a new session
+     */
+    private Candidate takeIdleSessionOrFreeDevice() {
+        lock.lock();
+        try {
+            while (true) {
+                if (shutdown) {
+                    throw new IllegalStateException("Session pool has been shut down");
+                }
+                PooledSession idle = pollIdleSession(deviceAllocator.getPreferredDevice());
+                if (idle != null) {
+                    return new Candidate(idle, null);
+                }
+                DeviceConfig device = deviceAllocator.tryAcquire();
+                if (device != null) {
+                    return new Candidate(null, device);
+                }
+                logger.debug("All {} devices have leased sessions, waiting for one to be returned",
+                        deviceAllocator.getDevices().size());
+                sessionAvailable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a pooled session", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove an idle session from the pool, preferring the given device and
+     * otherwise taking the most recently returned session
+     * 
+     * @param preferred Preferred device, may be null
+     * @return Idle session, or null if there is none
+     */
+    private PooledSession pollIdleSession(DeviceConfig preferred) {
+        if (preferred != null) {
+            Iterator<PooledSession> iterator = idleSessions.iterator();
+            while (iterator.hasNext()) {
+                PooledSession session = iterator.next();
+                if (session.device == preferred) {
+                    iterator.remove();
+                    return session;
+                }
+            }
+        }
+        return idleSessions.pollFirst();
+    }
+
+    /**
+     * Create a session on an allocated device and lease it
+     * 
+     * @param device Device allocated for the session
+     * @return Newly created driver
+     * @throws MalformedURLException if the Appium server URL is malformed
+     */
+    private AppiumDriver createSession(DeviceConfig device) throws MalformedURLException {
+        AppiumDriver driver;
+        try {
+            driver = driverFactory.create(device);
+        } catch (MalformedURLException | RuntimeException e) {
+            releaseDevice(device);
+            throw e;
+        }
+
+        markLeased(new PooledSession(driver, device, currentGeneration()));
+        logger.info("Created pooled session on device {}", device.getUdid());
+        return driver;
+    }
+
+    /**
+     * Check whether an idle session may be leased again
+     * 
+     * @param session Idle session
+     * @return true if the session is current, within its idle timeout and responds
+     */
+    private boolean isUsable(PooledSession session) {
+        if (isRetired(session)) {
+            logger.info("Evicting session created before the pool was invalidated");
+            return false;
+        }
+        long idleNanos = System.nanoTime() - session.lastReturned;
+        if (idleNanos > idleTimeout.toNanos()) {
+            logger.info("Evicting session that was idle for {} s", Duration.ofNanos(idleNanos).getSeconds());
+            return false;
+        }
+        try {
+            session.driver.manage().window().getSize();
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Evicting unhealthy pooled session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isRetired(PooledSession session) {
+        return session.generation != currentGeneration();
+    }
+
+    private int currentGeneration() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markLeased(PooledSession session) {
+        lock.lock();
+        try {
+            leasedSessions.put(session.driver, session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(PooledSession session) {
+        quitQuietly(session.driver);
+        releaseDevice(session.device);
+    }
+
+    private void releaseDevice(DeviceConfig device) {
+        deviceAllocator.release(device);
+        lock.lock();
+        try {
+            sessionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void quitQuietly(AppiumDriver driver) {
+        GestureEngine.forget(driver);
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Failed to quit driver session: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A driver session together with its pool bookkeeping
+     */
+    private static class PooledSession {
+        private final AppiumDriver driver;
+        private final DeviceConfig device;
+        private final int generation;
+        private int uses;
+        private long lastReturned;
+
+        private PooledSession(AppiumDriver driver, DeviceConfig device, int generation) {
+            this.driver = driver;
+            this.device = device;
+            this.generation = generation;
+            this.lastReturned = System.nanoTime();
+        }
+    }
+
+    /**
+     * What a lease starts from: an idle session, or a free device to create one on
+     */
+    private static class Candidate {
+        private final PooledSession idleSession;
+        private final DeviceConfig freeDevice;
+
+        private Candidate(PooledSession idleSession, DeviceConfig freeDevice) {
+            this.idleSession = idleSession;
+            this.freeDevice = freeDevice;
+        }
+    }
+}
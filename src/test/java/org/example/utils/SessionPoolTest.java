@@ -0,0 +1,228 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.example.config.DeviceConfig;
+import org.example.stub.StubApp;
+import org.example.stub.StubAppiumServer;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for SessionPool.
+ * Leases, resets and evicts real driver sessions against an in-process
+ * StubAppiumServer with one device.
+ */
+public class SessionPoolTest {
+
+    private static final String APP_WITHOUT_BUNDLE_ID = "<app initialScreen='Home'>"
+            + "<screen name='Home'><XCUIElementTypeApplication name='App'/></screen>"
+            + "</app>";
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private final AtomicInteger created = new AtomicInteger();
+    private StubAppiumServer server;
+    private DeviceConfig device;
+    private SessionPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        server = stub.getServer();
+        device = stub.getDevice();
+    }
+
+    @AfterEach
+    public void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A released session is leased again")
+    public void testReuse() throws Exception {
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        assertThat(pool.getDevice(first)).isSameAs(device);
+        pool.release(first);
+        AppiumDriver second = pool.lease();
+
+        assertThat(second).isSameAs(first);
+        assertThat(created).hasValue(1);
+        assertThat(server.getSessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Terminate and activate takes the bundle id from the session and relaunches the app")
+    public void testTerminateActivateWithBundleIdFromSession() throws Exception {
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.TERMINATE_ACTIVATE, null);
+
+        AppiumDriver driver = pool.lease();
+        driver.findElement(AppiumBy.accessibilityId("Alert Views")).click();
+        assertThat(driver.findElements(AppiumBy.accessibilityId("Activity Indicators"))).isEmpty();
+        pool.release(driver);
+
+        AppiumDriver reused = pool.lease();
+        assertThat(reused).isSameAs(driver);
+        assertThat(reused.findElements(AppiumBy.accessibilityId("Activity Indicators"))).hasSize(1);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A session that fails to reset is quit and replaced")
+    public void testResetFailure() throws Exception {
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.TERMINATE_ACTIVATE, "com.example.other");
+
+        AppiumDriver first = pool.lease();
+        pool.release(first);
+
+        assertThat(server.getSessionCount()).isZero();
+        AppiumDriver second = pool.lease();
+        assertThat(second).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Without any bundle id the pool quits sessions instead of resetting them")
+    public void testMissingBundleIdFallsBackToQuit() throws Exception {
+        server.setApp(StubApp.fromXml(
+                new ByteArrayInputStream(APP_WITHOUT_BUNDLE_ID.getBytes(StandardCharsets.UTF_8))));
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.TERMINATE_ACTIVATE, null);
+
+        AppiumDriver first = pool.lease();
+        pool.release(first);
+        assertThat(server.getSessionCount()).isZero();
+
+        AppiumDriver second = pool.lease();
+        assertThat(second).isNotSameAs(first);
+        pool.release(second);
+        assertThat(server.getSessionCount()).isZero();
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A session without a bundle id does not stop later sessions from being reset")
+    public void testMissingBundleIdAffectsOnlyThatSession() throws Exception {
+        StubApp app = StubApp.fromResource("stub/uikit-catalog.xml");
+        server.setApp(StubApp.fromXml(
+                new ByteArrayInputStream(APP_WITHOUT_BUNDLE_ID.getBytes(StandardCharsets.UTF_8))));
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.TERMINATE_ACTIVATE, null);
+
+        AppiumDriver first = pool.lease();
+        server.setApp(app);
+        pool.release(first);
+
+        AppiumDriver second = pool.lease();
+        pool.release(second);
+        assertThat(pool.lease()).isSameAs(second);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A pool with one use per session quits every returned session")
+    public void testSingleUse() throws Exception {
+        pool = createPool(1, Duration.ofMinutes(5), SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        pool.release(first);
+
+        assertThat(server.getSessionCount()).isZero();
+        assertThat(pool.lease()).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A session idle for longer than the idle timeout is replaced")
+    public void testIdleExpiry() throws Exception {
+        pool = createPool(5, Duration.ZERO, SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        pool.release(first);
+        TimeUnit.MILLISECONDS.sleep(5);
+        AppiumDriver second = pool.lease();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+        assertThat(server.getSessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A session is quit once it reached its maximum number of uses")
+    public void testMaxUses() throws Exception {
+        pool = createPool(2, Duration.ofMinutes(5), SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        pool.release(first);
+        assertThat(pool.lease()).isSameAs(first);
+        pool.release(first);
+
+        assertThat(server.getSessionCount()).isZero();
+        assertThat(pool.lease()).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("A lease waits for a returned session when every device is in use")
+    public void testLeaseWaitsForRelease() throws Exception {
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        CompletableFuture<AppiumDriver> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.lease();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(waiting).isNotDone();
+
+        pool.release(first);
+        assertThat(waiting.get(10, TimeUnit.SECONDS)).isSameAs(first);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Invalidated and shut down pools do not hand out old sessions")
+    public void testInvalidateAndShutdown() throws Exception {
+        pool = createPool(5, Duration.ofMinutes(5), SessionResetStrategy.NONE, null);
+
+        AppiumDriver first = pool.lease();
+        pool.invalidateAll();
+        pool.release(first);
+        assertThat(server.getSessionCount()).isZero();
+
+        AppiumDriver second = pool.lease();
+        assertThat(second).isNotSameAs(first);
+        pool.shutdown();
+        assertThat(server.getSessionCount()).isZero();
+        assertThatThrownBy(pool::lease).isInstanceOf(IllegalStateException.class);
+    }
+
+    private SessionPool createPool(int maxUses, Duration idleTimeout, SessionResetStrategy resetStrategy,
+            String bundleId) {
+        SessionPool.DriverFactory factory = target -> {
+            created.incrementAndGet();
+            return stub.newDriver(target);
+        };
+        return new SessionPool(new DeviceAllocator(Collections.singletonList(device)), factory, maxUses,
+                idleTimeout, resetStrategy, bundleId);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
+
+/**
+ * SessionResetStrategy defines how a pooled driver session is brought back to a
+ * clean state when a test returns it to the {@link SessionPool}.
+ */
+public enum SessionResetStrategy {
+
+    /**
+     * Terminate and re-activate the application under test
+     */
+    TERMINATE_ACTIVATE {
+        @Override
+        public void reset(AppiumDriver driver, String bundleId) {
+            if (bundleId == null || bundleId.isEmpty()) {
+                throw new IllegalStateException("A bundle_id is required to terminate and activate the app");
+            }
+            InteractsWithApps apps = (InteractsWithApps) driver;
+            apps.terminateApp(bundleId);
+            apps.activateApp(bundleId);
+        }
+    },
+
+    /**
+     * Leave the application as it is
+     */
+    NONE {
+        @Override
+        public void reset(AppiumDriver driver, String bundleId) {
+            // Nothing to do
+        }
+    };
+
+    /**
+     * Configuration value that turns reuse off: the pool quits every session
+     * when it is returned instead of resetting it
+     */
+    public static final String QUIT = "quit";
+
+    /**
+     * Reset the application state of a session before it is leased again
+     * 
+     * @param driver   Driver session to reset
+     * @param bundleId Bundle ID of the application under test
+     */
+    public abstract void reset(AppiumDriver driver, String bundleId);
+
+    /**
+     * Check whether a configuration value turns session reuse off
+     * 
+     * @param value Configuration value
+     * @return true if the value is "quit"
+     */
+    public static boolean isQuit(String value) {
+        return value != null && value.trim().equalsIgnoreCase(QUIT);
+    }
+
+    /**
+     * Resolve a strategy from its configuration value (e.g. "terminate_activate")
+     * 
+     * @param value Configuration value
+     * @return Matching strategy, or TERMINATE_ACTIVATE if the value is empty;
+     *         NONE for "quit", whose sessions are never reset
+     */
+    public static SessionResetStrategy fromConfig(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return TERMINATE_ACTIVATE;
+        }
+        if (isQuit(value)) {
+            return NONE;
+        }
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.example.config.ConfigManager;
+import org.example.config.DeviceConfig;
+import org.example.metrics.TestTimings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.net.MalformedURLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionWarmup class creates a session on every configured device at the
+ * same time before the first test runs, so that WebDriverAgent is built and
+ * launched and the app is installed while no test is waiting for them.
+ * With the session pool enabled the warm sessions are handed to the pool for
+ * the tests to reuse; otherwise they are quit, and later sessions start
+ * faster because WDA is prebuilt and the app is already installed (see
+ * {@link DriverManager}). A failed warm-up is logged and the tests create
+ * their sessions as usual. The wall-clock time of the warm-up is recorded in
+ * the test timing report, separately from the time of the tests.
+ */
+public class SessionWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionWarmup.class);
+    private static final AtomicBoolean done = new AtomicBoolean();
+
+    private SessionWarmup() {
+    }
+
+    /**
+     * Warm up every device, once per JVM
+     * 
+     * @param timeout How long to wait for the warm-up of all devices
+     */
+    public static void runOnce(Duration timeout) {
+        if (done.compareAndSet(false, true)) {
+            run(timeout);
+        }
+    }
+
+    private static void run(Duration timeout) {
+        List<DeviceConfig> devices = ConfigManager.getInstance().getDevices();
+        boolean pooled = ConfigManager.getInstance().isSessionPoolEnabled();
+        logger.info("Warming up sessions on {} device(s)", devices.size());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(devices.size(), runnable -> {
+            Thread thread = new Thread(runnable, "session-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            long deadline = start + timeout.toNanos();
+            int warmed;
+            if (pooled) {
+                List<CompletableFuture<AppiumDriver>> sessions = new ArrayList<>();
+                for (int i = 0; i < devices.size(); i++) {
+                    sessions.add(CompletableFuture.supplyAsync(SessionWarmup::leasePooled, executor));
+                }
+                // Lease every session before returning any, so that each device gets one
+                warmed = await(sessions, deadline);
+                SessionPool pool = DriverManager.getSessionPool();
+                for (CompletableFuture<AppiumDriver> session : sessions) {
+                    session.thenAccept(pool::release);
+                }
+            } else {
+                List<CompletableFuture<Void>> warmUps = new ArrayList<>();
+                for (int i = 0; i < devices.size(); i++) {
+                    warmUps.add(CompletableFuture.runAsync(SessionWarmup::warmUp, executor));
+                }
+                warmed = await(warmUps, deadline);
+            }
+            logger.info("Warmed up {} of {} device(s) in {} ms", warmed, devices.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            TestTimings.recordWarmUp(System.nanoTime() - start);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Wait for the warm-up tasks until a deadline; unfinished tasks carry on in
+     * the background
+     * 
+     * @return Number of devices warmed up successfully
+     */
+    private static int await(List<? extends CompletableFuture<?>> tasks, long deadline) {
+        int warmed = 0;
+        for (CompletableFuture<?> task : tasks) {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                warmed++;
+            } catch (ExecutionException e) {
+                logger.warn("Session warm-up failed: {}", e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                logger.warn("Session warm-up did not finish in time, continuing in the background");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for the session warm-up");
+                break;
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * Lease a session from the pool; it is returned once every device has one
+     */
+    private static AppiumDriver leasePooled() {
+        SessionPool pool = DriverManager.getSessionPool();
+        try {
+            AppiumDriver driver = pool.lease();
+            logger.info("Warmed up pooled session on device {}", pool.getDevice(driver).getUdid());
+            return driver;
+        } catch (MalformedURLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Create and quit a session on a free device
+     */
+    private static void warmUp() {
+        DeviceAllocator allocator = DriverManager.getDeviceAllocator();
+        DeviceConfig device = allocator.acquire();
+        MDC.put(DriverManager.DEVICE_MDC_KEY, String.valueOf(device.getUdid()));
+        try {
+            AppiumDriver driver = DriverManager.getSessionFactory().create(device);
+            GestureEngine.forget(driver);
+            driver.quit();
+            logger.info("Warmed up device {}", device.getUdid());
+        } catch (MalformedURLException e) {
+            throw new CompletionException(e);
+        } finally {
+            allocator.release(device);
+            MDC.remove(DriverManager.DEVICE_MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.config.ConfigManager;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SharedHttpClientFactory class gives every session against the same Appium
+ * server the same HTTP client, so the sessions share one pool of keep-alive
+ * connections instead of each opening its own. The clients use the configured
+ * connect and read timeouts and HTTP backend (Selenium's default, or e.g.
+ * "jdk-http-client"); the JDK client's connection pool size and keep-alive
+ * timeout are set through its system properties before the first client is
+ * created. Sessions cannot close a shared client; the clients are closed when
+ * the JVM shuts down.
+ * Clients are shared per server, proxy and credentials, so sessions with a
+ * different proxy or credentials get their own client. The filters of the
+ * first session's configuration apply to all sessions of a client; a later
+ * configuration with other filters is logged as a warning.
+ * Requests, failures and concurrent requests are counted per server and
+ * exported with the command metrics when the test run finishes.
+ */
+public class SharedHttpClientFactory implements HttpClient.Factory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedHttpClientFactory.class);
+
+    static final String STATS_FILE = "http-clients.json";
+
+    private final HttpClient.Factory backend;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Map<ClientKey, SharedClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for SharedHttpClientFactory
+     * 
+     * @param backend        Factory creating the underlying clients
+     * @param connectTimeout Timeout for opening a connection
+     * @param readTimeout    Timeout for a response, which must cover the slowest
+     *                       command (session creation)
+     */
+    public SharedHttpClientFactory(HttpClient.Factory backend, Duration connectTimeout, Duration readTimeout) {
+        this.backend = backend;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAll, "http-client-shutdown"));
+    }
+
+    private static class Holder {
+        private static final SharedHttpClientFactory INSTANCE = fromConfig();
+    }
+
+    /**
+     * Get the process-wide factory configured from appium-config.yml
+     * 
+     * @return SharedHttpClientFactory instance
+     */
+    public static SharedHttpClientFactory getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static SharedHttpClientFactory fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        // Read once by the JDK HTTP client, so they must be set before its first use
+        setDefaultProperty("jdk.httpclient.connectionPoolSize", config.getHttpConnectionPoolSize());
+        setDefaultProperty("jdk.httpclient.keepalive.timeout", config.getHttpKeepAliveTimeout());
+
+        String backendName = config.getHttpClientBackend();
+        HttpClient.Factory backend = backendName == null || backendName.isEmpty()
+                ? HttpClient.Factory.createDefault()
+                : HttpClient.Factory.create(backendName);
+        logger.info("Sharing HTTP clients per Appium server ({} backend)",
+                backendName == null || backendName.isEmpty() ? "default" : backendName);
+        return new SharedHttpClientFactory(backend,
+                Duration.ofSeconds(config.getHttpConnectTimeout()),
+                Duration.ofSeconds(config.getHttpReadTimeout()));
+    }
+
+    private static void setDefaultProperty(String name, int value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Get the client for the server, proxy and credentials a configuration
+     * points at, creating it for the first session that uses them
+     * 
+     * @param config Client configuration of a session
+     * @return Shared client; closing it has no effect
+     */
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        ClientKey key = new ClientKey(config);
+        SharedClient client = clients.computeIfAbsent(key, k -> {
+            logger.info("Creating shared HTTP client for {}", k.uri);
+            return new SharedClient(k.uri, config.filter(), backend.createClient(
+                    config.connectionTimeout(connectTimeout).readTimeout(readTimeout)));
+        });
+        if (config.filter() != client.filter && client.filterWarned.compareAndSet(false, true)) {
+            logger.warn("A session against {} uses other HTTP filters than the shared client, "
+                    + "which keeps the filters of the first session", key.uri);
+        }
+        client.sessions.increment();
+        return client;
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        backend.cleanupIdleClients();
+    }
+
+    /**
+     * Check whether any session used a shared client
+     * 
+     * @return true if there are statistics to export
+     */
+    public boolean hasData() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Get the usage of each server's client
+     * 
+     * @return Rows of server, sessions, requests, failures, peak concurrent
+     *         requests and mean request time
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (SharedClient client : clients.values()) {
+            long requests = client.requests.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("server", client.uri.toString());
+            row.put("sessions", client.sessions.sum());
+            row.put("requests", requests);
+            row.put("failures", client.failures.sum());
+            row.put("inFlight", client.inFlight.get());
+            row.put("peakInFlight", client.peakInFlight.get());
+            row.put("meanMs", requests == 0 ? 0.0
+                    : Math.round(client.totalNanos.sum() / requests / 10_000.0) / 100.0);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Log the client usage and write it to a directory as http-clients.json
+     * 
+     * @param directory Output directory, created if needed
+     * @throws IOException if the file cannot be written
+     */
+    public void exportStats(Path directory) throws IOException {
+        List<Map<String, Object>> stats = getStats();
+        for (Map<String, Object> row : stats) {
+            logger.info("HTTP client for {}: {} session(s), {} request(s), {} failure(s), peak {} concurrent",
+                    row.get("server"), row.get("sessions"), row.get("requests"), row.get("failures"),
+                    row.get("peakInFlight"));
+        }
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve(STATS_FILE).toFile(), stats);
+    }
+
+    private void closeAll() {
+        for (SharedClient client : clients.values()) {
+            try {
+                client.delegate.close();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close HTTP client for {}: {}", client.uri, e.getMessage());
+            }
+        }
+        clients.clear();
+    }
+
+    /**
+     * Identifies the clients that sessions may share
+     */
+    private static final class ClientKey {
+        private final URI uri;
+        private final Object proxy;
+        private final Object credentials;
+
+        ClientKey(ClientConfig config) {
+            this.uri = config.baseUri();
+            this.proxy = config.proxy();
+            this.credentials = config.credentials();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey key = (ClientKey) other;
+            return uri.equals(key.uri) && Objects.equals(proxy, key.proxy)
+                    && Objects.equals(credentials, key.credentials);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, proxy, credentials);
+        }
+    }
+
+    /**
+     * Client handed to the sessions of one server; counts its requests and
+     * ignores close()
+     */
+    private static final class SharedClient implements HttpClient {
+        private final URI uri;
+        private final Filter filter;
+        private final AtomicBoolean filterWarned = new AtomicBoolean();
+        private final HttpClient delegate;
+        private final LongAdder sessions = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        SharedClient(URI uri, Filter filter, HttpClient delegate) {
+            this.uri = uri;
+            this.filter = filter;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) throws UncheckedIOException {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            long start = System.nanoTime();
+            try {
+                return delegate.execute(request);
+            } catch (RuntimeException e) {
+                failures.increment();
+                throw e;
+            } finally {
+                totalNanos.add(System.nanoTime() - start);
+                requests.increment();
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared with other sessions, closed at JVM shutdown
+        }
+    }
+}
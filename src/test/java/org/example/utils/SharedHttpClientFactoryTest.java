@@ -0,0 +1,91 @@
+package org.example.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.example.stub.StubServerExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for SharedHttpClientFactory.
+ * Verifies that sessions against one StubAppiumServer share a single HTTP
+ * client that survives their quit, and that other servers get their own.
+ */
+public class SharedHttpClientFactoryTest {
+
+    @RegisterExtension
+    final StubServerExtension stub = new StubServerExtension();
+
+    private final AtomicInteger createdClients = new AtomicInteger();
+    private SharedHttpClientFactory factory;
+
+    @BeforeEach
+    public void createFactory() {
+        HttpClient.Factory backend = HttpClient.Factory.createDefault();
+        factory = new SharedHttpClientFactory(new HttpClient.Factory() {
+            @Override
+            public HttpClient createClient(ClientConfig config) {
+                createdClients.incrementAndGet();
+                return backend.createClient(config);
+            }
+        }, Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Sessions against one server share one client that their quit does not close")
+    public void testSharedPerServer() {
+        AppiumDriver first = newDriver();
+        AppiumDriver second = newDriver();
+        first.getPageSource();
+        first.quit();
+
+        second.getPageSource();
+        AppiumDriver third = newDriver();
+        third.getPageSource();
+
+        assertThat(createdClients).hasValue(1);
+        assertThat(stub.getServer().getSessionCount()).isEqualTo(2);
+        assertThat(factory.getStats()).hasSize(1);
+        Map<String, Object> stats = factory.getStats().get(0);
+        assertThat(stats.get("sessions")).isEqualTo(3L);
+        assertThat((Long) stats.get("requests")).isGreaterThanOrEqualTo(7L);
+        assertThat(stats.get("failures")).isEqualTo(0L);
+        assertThat(stats.get("inFlight")).isEqualTo(0);
+        second.quit();
+        third.quit();
+    }
+
+    @Test
+    @DisplayName("Each server gets its own client")
+    public void testClientPerServer() {
+        ClientConfig config = ClientConfig.defaultConfig();
+
+        HttpClient first = factory.createClient(config.baseUri(URI.create("http://127.0.0.1:4723")));
+        HttpClient again = factory.createClient(config.baseUri(URI.create("http://127.0.0.1:4723")));
+        HttpClient other = factory.createClient(config.baseUri(URI.create("http://127.0.0.1:4724")));
+
+        assertThat(again).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(createdClients).hasValue(2);
+        assertThat(factory.getStats()).hasSize(2);
+    }
+
+    private AppiumDriver newDriver() {
+        XCUITestOptions options = new XCUITestOptions()
+                .setDeviceName(stub.getDevice().getDeviceName())
+                .setUdid(stub.getDevice().getUdid());
+        return new IOSDriver(stub.getServer().getUrl(), factory, options);
+    }
+}
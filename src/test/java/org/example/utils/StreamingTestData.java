@@ -0,0 +1,55 @@
+package org.example.utils;
+
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Supplies the rows of a test data file to a parameterized test one at a time,
+ * without loading the file into memory. Supports JSON (an array of objects),
+ * JSON Lines and CSV with a header row.
+ * <pre>
+ * &#64;ParameterizedTest
+ * &#64;StreamingTestData(value = "logins.jsonl", columns = { "username", "password" })
+ * void login(String username, String password) { ... }
+ * </pre>
+ * Without columns, each row is passed as a single {@code Map<String, Object>}.
+ * With sharded = true, only the rows of the current worker are supplied (see
+ * {@link StreamingTestDataProvider}).
+ */
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(StreamingTestDataProvider.class)
+public @interface StreamingTestData {
+
+    /**
+     * File name, relative to test-data/ (external directory first, then the
+     * classpath)
+     */
+    String value();
+
+    /**
+     * File format; AUTO picks it from the extension (.json, .jsonl/.ndjson,
+     * .csv)
+     */
+    Format format() default Format.AUTO;
+
+    /**
+     * Row fields to pass as the test method's arguments, in order
+     */
+    String[] columns() default {};
+
+    /**
+     * Whether to supply only this worker's share of the rows
+     */
+    boolean sharded() default false;
+
+    enum Format {
+        AUTO, JSON, JSON_LINES, CSV
+    }
+}
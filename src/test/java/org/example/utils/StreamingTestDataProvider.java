@@ -0,0 +1,226 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * StreamingTestDataProvider class backs {@link StreamingTestData}. Rows are
+ * read with a streaming Jackson parser as the test engine asks for them, so
+ * memory use does not grow with the size of the file and the first test runs
+ * before the whole file has been read.
+ * Sharding splits the rows between workers by row number: worker
+ * test.shard.index (0-based) of test.shard.count gets every row whose number
+ * modulo the count equals its index. Both are system properties, set by
+ * ./gradlew test -PshardIndex=0 -PshardCount=4.
+ */
+public class StreamingTestDataProvider implements ArgumentsProvider, AnnotationConsumer<StreamingTestData> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingTestDataProvider.class);
+    private static final ObjectMapper jsonMapper = new ObjectMapper();
+    private static final CsvMapper csvMapper = new CsvMapper();
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private StreamingTestData source;
+
+    @Override
+    public void accept(StreamingTestData source) {
+        this.source = source;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) throws IOException {
+        int shardIndex = source.sharded() ? Integer.getInteger("test.shard.index", 0) : 0;
+        int shardCount = source.sharded() ? Math.max(1, Integer.getInteger("test.shard.count", 1)) : 1;
+        RowIterator rows = open(source.value(), resolveFormat());
+        logger.info("Streaming test data from {} (shard {} of {})", source.value(), shardIndex + 1, shardCount);
+
+        Iterator<Map<String, Object>> shard = new Iterator<Map<String, Object>>() {
+            private long rowNumber;
+            private Map<String, Object> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    Map<String, Object> row = rows.next();
+                    if (rowNumber++ % shardCount == shardIndex) {
+                        next = row;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, Object> row = next;
+                next = null;
+                return row;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(shard, Spliterator.ORDERED), false)
+                .map(this::toArguments)
+                .onClose(rows::close);
+    }
+
+    private Arguments toArguments(Map<String, Object> row) {
+        String[] columns = source.columns();
+        if (columns.length == 0) {
+            return Arguments.of(row);
+        }
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = row.get(columns[i]);
+        }
+        return Arguments.of(values);
+    }
+
+    private StreamingTestData.Format resolveFormat() {
+        if (source.format() != StreamingTestData.Format.AUTO) {
+            return source.format();
+        }
+        String name = source.value().toLowerCase();
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return StreamingTestData.Format.JSON_LINES;
+        }
+        if (name.endsWith(".csv")) {
+            return StreamingTestData.Format.CSV;
+        }
+        return StreamingTestData.Format.JSON;
+    }
+
+    /**
+     * Open a test data file, preferring the external test-data/ directory over
+     * the classpath
+     */
+    private static RowIterator open(String fileName, StreamingTestData.Format format) throws IOException {
+        String path = "test-data/" + fileName;
+        File externalFile = new File(path);
+        InputStream inputStream = externalFile.exists()
+                ? new FileInputStream(externalFile)
+                : StreamingTestDataProvider.class.getClassLoader().getResourceAsStream(path);
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Test data file not found: " + fileName);
+        }
+        try {
+            if (format == StreamingTestData.Format.CSV) {
+                MappingIterator<Map<String, Object>> iterator = csvMapper.readerFor(ROW_TYPE)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .readValues(inputStream);
+                return new RowIterator(iterator::hasNextValue, iterator::nextValue, iterator);
+            }
+            JsonParser parser = jsonMapper.getFactory().createParser(inputStream);
+            return jsonRows(parser, format == StreamingTestData.Format.JSON);
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Iterate the objects of a JSON array, or the root-level objects of a JSON
+     * Lines file
+     */
+    private static RowIterator jsonRows(JsonParser parser, boolean array) throws IOException {
+        if (array && parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Expected a JSON array of rows");
+        }
+        return new RowIterator(
+                () -> {
+                    JsonToken token = parser.nextToken();
+                    return token != null && token != JsonToken.END_ARRAY;
+                },
+                () -> parser.readValueAs(ROW_TYPE),
+                parser);
+    }
+
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    /**
+     * Iterator over the rows of an open file; closes the file when exhausted
+     * or when the stream is closed
+     */
+    private static class RowIterator implements Iterator<Map<String, Object>>, Closeable {
+
+        private final IOSupplier<Boolean> advance;
+        private final IOSupplier<Map<String, Object>> read;
+        private final Closeable resource;
+        private Boolean hasNext;
+
+        RowIterator(IOSupplier<Boolean> advance, IOSupplier<Map<String, Object>> read, Closeable resource) {
+            this.advance = advance;
+            this.read = read;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                try {
+                    hasNext = advance.get();
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException("Failed to read test data", e);
+                }
+                if (!hasNext) {
+                    close();
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            try {
+                return read.get();
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Failed to read test data row", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close test data file: {}", e.getMessage());
+            }
+        }
+    }
+}
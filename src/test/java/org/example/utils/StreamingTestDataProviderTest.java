@@ -0,0 +1,136 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for StreamingTestDataProvider.
+ * Verifies that rows are read from JSON, JSON Lines and CSV files, that the
+ * requested columns become the arguments and that sharding gives every row
+ * to exactly one worker.
+ */
+public class StreamingTestDataProviderTest {
+
+    private static final String SHARD_INDEX = "test.shard.index";
+    private static final String SHARD_COUNT = "test.shard.count";
+
+    private final String shardIndex = System.getProperty(SHARD_INDEX);
+    private final String shardCount = System.getProperty(SHARD_COUNT);
+
+    @AfterEach
+    public void restoreShard() {
+        restore(SHARD_INDEX, shardIndex);
+        restore(SHARD_COUNT, shardCount);
+    }
+
+    @Test
+    @DisplayName("Every format yields the same rows in file order")
+    public void testFormats() throws Exception {
+        assertThat(rows("jsonLines")).containsExactly("user0", "user1", "user2", "user3", "user4");
+        assertThat(rows("jsonArray")).containsExactly("user0", "user1", "user2", "user3", "user4");
+        assertThat(rows("csv")).containsExactly("user0", "user1", "user2", "user3", "user4");
+    }
+
+    @Test
+    @DisplayName("The requested columns are passed in order")
+    public void testColumns() throws Exception {
+        List<Object[]> arguments = arguments("columns");
+
+        assertThat(arguments).hasSize(5);
+        assertThat(arguments.get(2)).containsExactly("pass2", "user2");
+    }
+
+    @Test
+    @DisplayName("The shards of all workers together hold every row exactly once")
+    public void testSharding() throws Exception {
+        System.setProperty(SHARD_COUNT, "2");
+
+        System.setProperty(SHARD_INDEX, "0");
+        List<String> first = rows("sharded");
+        System.setProperty(SHARD_INDEX, "1");
+        List<String> second = rows("sharded");
+
+        assertThat(first).containsExactly("user0", "user2", "user4");
+        assertThat(second).containsExactly("user1", "user3");
+    }
+
+    @Test
+    @DisplayName("Unsharded sources ignore the shard of the worker")
+    public void testUnshardedIgnoresShard() throws Exception {
+        System.setProperty(SHARD_COUNT, "2");
+        System.setProperty(SHARD_INDEX, "1");
+
+        assertThat(rows("jsonLines")).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("A missing file is reported")
+    public void testMissingFile() {
+        assertThatThrownBy(() -> rows("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @StreamingTestData(value = "sample-logins.jsonl", columns = { "username", "password" })
+    @DisplayName("Parameterized tests receive the rows as arguments")
+    public void testParameterized(String username, String password) {
+        assertThat(password).isEqualTo(username.replace("user", "pass"));
+    }
+
+    @StreamingTestData("sample-logins.jsonl")
+    void jsonLines() {
+    }
+
+    @StreamingTestData("sample-logins.json")
+    void jsonArray() {
+    }
+
+    @StreamingTestData("sample-logins.csv")
+    void csv() {
+    }
+
+    @StreamingTestData(value = "sample-logins.jsonl", columns = { "password", "username" })
+    void columns() {
+    }
+
+    @StreamingTestData(value = "sample-logins.csv", sharded = true)
+    void sharded() {
+    }
+
+    @StreamingTestData("missing.jsonl")
+    void missing() {
+    }
+
+    private static List<String> rows(String source) throws Exception {
+        return arguments(source).stream()
+                .map(values -> String.valueOf(((Map<?, ?>) values[0]).get("username")))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Object[]> arguments(String source) throws Exception {
+        StreamingTestDataProvider provider = new StreamingTestDataProvider();
+        provider.accept(StreamingTestDataProviderTest.class.getDeclaredMethod(source)
+                .getAnnotation(StreamingTestData.class));
+        try (Stream<? extends Arguments> arguments = provider.provideArguments(null)) {
+            return arguments.map(Arguments::get).collect(Collectors.toList());
+        }
+    }
+
+    private static void restore(String key, String value) {
+        if (value != null) {
+            System.setProperty(key, value);
+        } else {
+            System.clearProperty(key);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * TestDataCompiler class precompiles YAML and JSON test data into Jackson's
+ * binary Smile format, which {@link TestDataUtils} reads instead of parsing the
+ * text. Run by the precompileTestData Gradle task:
+ * <pre>
+ * ./gradlew precompileTestData test
+ * </pre>
+ * Each file &lt;name&gt;.yml or &lt;name&gt;.json is written to the output
+ * directory as &lt;name&gt;.yml.smile or &lt;name&gt;.json.smile, keeping its
+ * relative path. Only the extensions TestDataUtils looks up are compiled, so
+ * .yaml files are left alone.
+ */
+public class TestDataCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestDataCompiler.class);
+
+    private TestDataCompiler() {
+    }
+
+    /**
+     * Compile every test data file of a directory
+     * 
+     * @param args Source directory and output directory
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: TestDataCompiler <source dir> <output dir>");
+        }
+        int compiled = compile(Paths.get(args[0]), Paths.get(args[1]));
+        logger.info("Precompiled {} test data file(s)", compiled);
+    }
+
+    /**
+     * Compile every test data file of a directory
+     * 
+     * @param sourceDir Directory holding .yml/.json files
+     * @param outputDir Directory to write the .smile files to
+     * @return Number of files compiled
+     * @throws IOException if a file cannot be read or written
+     */
+    public static int compile(Path sourceDir, Path outputDir) throws IOException {
+        if (!Files.isDirectory(sourceDir)) {
+            return 0;
+        }
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        ObjectMapper jsonMapper = new ObjectMapper();
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(sourceDir)) {
+            sources = files.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().matches(".*\\.(yml|json)$"))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path source : sources) {
+            ObjectMapper textMapper = source.toString().endsWith(".json") ? jsonMapper : yamlMapper;
+            Object data = textMapper.readValue(source.toFile(), Object.class);
+            Path target = outputDir.resolve(sourceDir.relativize(source).toString()
+                    + TestDataUtils.PRECOMPILED_EXTENSION);
+            Files.createDirectories(target.getParent());
+            smileMapper.writeValue(target.toFile(), data);
+            logger.debug("Precompiled {} -> {}", source, target);
+        }
+        return sources.size();
+    }
+}
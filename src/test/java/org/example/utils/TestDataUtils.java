@@ -1,6 +1,8 @@
 package org.example.utils;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,83 +10,204 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TestDataUtils class provides utility methods for loading and managing test
  * data.
  * This class supports loading test data from YAML and JSON files.
+ * Parsed files are kept in a process-wide cache keyed by file and modification
+ * time, so each file is parsed once per run however many tests load it. When
+ * the precompileTestData build step has produced a Smile copy of a bundled
+ * file (test-data/&lt;name&gt;.yml.smile), the binary copy is read instead of
+ * the text. The cached data is deeply unmodifiable, so tests sharing it
+ * cannot change what other tests see. Data can also be bound to a typed class
+ * with {@link #loadTestDataFromYaml(String, Class)}; every call binds a new
+ * object from the cached data.
  */
 public class TestDataUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(TestDataUtils.class);
     private static final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
     private static final ObjectMapper jsonMapper = new ObjectMapper();
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+    static final String PRECOMPILED_EXTENSION = ".smile";
+
+    private static final Map<String, CachedTestData> cache = new ConcurrentHashMap<>();
 
     /**
      * Load test data from a YAML file
      * 
      * @param fileName Name of the YAML file (without extension)
-     * @return Map containing the test data
+     * @return Deeply unmodifiable map containing the test data
      */
     public static Map<String, Object> loadTestDataFromYaml(String fileName) {
-        try {
-            // Try to load from external file first
-            File configFile = new File("test-data/" + fileName + ".yml");
-            if (configFile.exists()) {
-                Map<String, Object> data = yamlMapper.readValue(configFile, Map.class);
-                logger.info("Test data loaded from external file: {}", configFile.getAbsolutePath());
-                return data;
-            } else {
-                // Load from resources
-                InputStream inputStream = TestDataUtils.class.getClassLoader()
-                        .getResourceAsStream("test-data/" + fileName + ".yml");
-                if (inputStream != null) {
-                    Map<String, Object> data = yamlMapper.readValue(inputStream, Map.class);
-                    logger.info("Test data loaded from resources: {}", fileName);
-                    return data;
-                } else {
-                    logger.warn("Test data file not found: {}", fileName);
-                    return Map.of();
-                }
-            }
-        } catch (IOException e) {
-            logger.error("Failed to load test data from YAML file {}: {}", fileName, e.getMessage());
-            return Map.of();
-        }
+        CachedTestData data = load(fileName, ".yml", yamlMapper);
+        return data != null ? data.values : Map.of();
     }
 
     /**
      * Load test data from a JSON file
      * 
      * @param fileName Name of the JSON file (without extension)
-     * @return Map containing the test data
+     * @return Deeply unmodifiable map containing the test data
      */
     public static Map<String, Object> loadTestDataFromJson(String fileName) {
+        CachedTestData data = load(fileName, ".json", jsonMapper);
+        return data != null ? data.values : Map.of();
+    }
+
+    /**
+     * Load test data from a YAML file and bind it to a typed class. Each call
+     * returns a new object, which the caller may modify.
+     * 
+     * @param fileName Name of the YAML file (without extension)
+     * @param type     Class to bind the data to
+     * @param <T>      Test data type
+     * @return Bound test data, or null if the file is not found or invalid
+     */
+    public static <T> T loadTestDataFromYaml(String fileName, Class<T> type) {
+        return bind(load(fileName, ".yml", yamlMapper), type);
+    }
+
+    /**
+     * Load test data from a JSON file and bind it to a typed class. Each call
+     * returns a new object, which the caller may modify.
+     * 
+     * @param fileName Name of the JSON file (without extension)
+     * @param type     Class to bind the data to
+     * @param <T>      Test data type
+     * @return Bound test data, or null if the file is not found or invalid
+     */
+    public static <T> T loadTestDataFromJson(String fileName, Class<T> type) {
+        return bind(load(fileName, ".json", jsonMapper), type);
+    }
+
+    /**
+     * Drop every cached test data file
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Load a test data file through the cache. External files under
+     * test-data/ take precedence over classpath resources.
+     * 
+     * @param fileName  Name of the file (without extension)
+     * @param extension File extension including the dot
+     * @param mapper    Mapper for the text format
+     * @return Cached data, or null if the file is not found or invalid
+     */
+    private static CachedTestData load(String fileName, String extension, ObjectMapper mapper) {
+        String path = "test-data/" + fileName + extension;
         try {
             // Try to load from external file first
-            File configFile = new File("test-data/" + fileName + ".json");
-            if (configFile.exists()) {
-                Map<String, Object> data = jsonMapper.readValue(configFile, Map.class);
-                logger.info("Test data loaded from external file: {}", configFile.getAbsolutePath());
+            File externalFile = new File(path);
+            if (externalFile.exists()) {
+                long lastModified = externalFile.lastModified();
+                CachedTestData cached = cache.get(externalFile.getAbsolutePath());
+                if (cached != null && cached.lastModified == lastModified) {
+                    return cached;
+                }
+                CachedTestData data = new CachedTestData(lastModified, mapper.readValue(externalFile, MAP_TYPE));
+                cache.put(externalFile.getAbsolutePath(), data);
+                logger.info("Test data loaded from external file: {}", externalFile.getAbsolutePath());
                 return data;
+            }
+
+            // Load from resources, preferring an up-to-date precompiled copy
+            URL resource = TestDataUtils.class.getClassLoader().getResource(path);
+            if (resource == null) {
+                logger.warn("Test data file not found: {}", fileName);
+                return null;
+            }
+            long lastModified = lastModified(resource);
+            CachedTestData cached = cache.get(resource.toString());
+            if (cached != null && cached.lastModified == lastModified) {
+                return cached;
+            }
+            URL precompiled = TestDataUtils.class.getClassLoader().getResource(path + PRECOMPILED_EXTENSION);
+            Map<String, Object> values;
+            if (precompiled != null && lastModified(precompiled) >= lastModified) {
+                values = read(smileMapper, precompiled);
+                logger.info("Test data loaded from precompiled resource: {}", fileName);
             } else {
-                // Load from resources
-                InputStream inputStream = TestDataUtils.class.getClassLoader()
-                        .getResourceAsStream("test-data/" + fileName + ".json");
-                if (inputStream != null) {
-                    Map<String, Object> data = jsonMapper.readValue(inputStream, Map.class);
-                    logger.info("Test data loaded from resources: {}", fileName);
-                    return data;
-                } else {
-                    logger.warn("Test data file not found: {}", fileName);
-                    return Map.of();
-                }
+                values = read(mapper, resource);
+                logger.info("Test data loaded from resources: {}", fileName);
             }
+            CachedTestData data = new CachedTestData(lastModified, values);
+            cache.put(resource.toString(), data);
+            return data;
         } catch (IOException e) {
-            logger.error("Failed to load test data from JSON file {}: {}", fileName, e.getMessage());
-            return Map.of();
+            logger.error("Failed to load test data from {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static <T> T bind(CachedTestData data, Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return jsonMapper.convertValue(data.values, type);
+        } catch (IllegalArgumentException e) {
+            logger.error("Failed to bind test data to {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Object> read(ObjectMapper mapper, URL resource) throws IOException {
+        try (InputStream inputStream = resource.openStream()) {
+            return mapper.readValue(inputStream, MAP_TYPE);
+        }
+    }
+
+    /**
+     * Get the modification time of a resource without opening it. Only
+     * resources in a directory can change while the tests run; those inside a
+     * jar are built together with their precompiled copies.
+     */
+    private static long lastModified(URL resource) {
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                return new File(resource.toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                logger.debug("Cannot check {} for changes: {}", resource, e.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Copy a parsed tree into unmodifiable maps and lists
+     */
+    @SuppressWarnings("unchecked")
+    private static Object deepFreeze(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                copy.put(entry.getKey(), deepFreeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
         }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object element : (List<Object>) value) {
+                copy.add(deepFreeze(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
     }
 
     /**
@@ -160,6 +283,20 @@ public class TestDataUtils {
         return false;
     }
 
+    /**
+     * Parsed test data file together with its modification time
+     */
+    private static class CachedTestData {
+        private final long lastModified;
+        private final Map<String, Object> values;
+
+        @SuppressWarnings("unchecked")
+        private CachedTestData(long lastModified, Map<String, Object> values) {
+            this.lastModified = lastModified;
+            this.values = (Map<String, Object>) deepFreeze(values);
+        }
+    }
+
     /**
      * Create test data directory if it doesn't exist
      */
@@ -0,0 +1,110 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for TestDataUtils.
+ * Verifies that test data files are parsed once and shared read-only, that
+ * typed bindings are not shared and that the compiler only precompiles the
+ * files TestDataUtils looks up.
+ */
+public class TestDataUtilsTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void clearCache() {
+        TestDataUtils.clearCache();
+    }
+
+    @Test
+    @DisplayName("A file is parsed once and the cached data is shared")
+    public void testCaching() {
+        Map<String, Object> first = TestDataUtils.loadTestDataFromYaml("sample-user");
+        Map<String, Object> second = TestDataUtils.loadTestDataFromYaml("sample-user");
+
+        assertThat(second).isSameAs(first);
+        assertThat(TestDataUtils.getStringValue(first, "username")).isEqualTo("standard_user");
+        assertThat(TestDataUtils.getIntValue(first, "retries")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("The cached data cannot be modified at any depth")
+    @SuppressWarnings("unchecked")
+    public void testDeeplyUnmodifiable() {
+        Map<String, Object> data = TestDataUtils.loadTestDataFromYaml("sample-user");
+        List<Object> tags = (List<Object>) data.get("tags");
+        Map<String, Object> address = (Map<String, Object>) data.get("address");
+
+        assertThatThrownBy(() -> data.put("username", "other")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> tags.add("regression")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> address.put("city", "Shelbyville"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Every typed load returns a new object")
+    public void testBindingNotShared() {
+        User first = TestDataUtils.loadTestDataFromYaml("sample-user", User.class);
+        first.tags.add("regression");
+        first.address.put("city", "Shelbyville");
+
+        User second = TestDataUtils.loadTestDataFromYaml("sample-user", User.class);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.tags).containsExactly("smoke", "alerts");
+        assertThat(second.address).containsEntry("city", "Springfield");
+        assertThat(TestDataUtils.loadTestDataFromYaml("sample-user").get("tags")).asList().hasSize(2);
+    }
+
+    @Test
+    @DisplayName("A missing file yields empty data")
+    public void testMissingFile() {
+        assertThat(TestDataUtils.loadTestDataFromYaml("missing")).isEmpty();
+        assertThat(TestDataUtils.loadTestDataFromJson("missing", User.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Only .yml and .json files are precompiled")
+    public void testCompilerExtensions() throws Exception {
+        Path source = directory.resolve("source");
+        Path output = directory.resolve("output");
+        Files.createDirectories(source.resolve("nested"));
+        write(source.resolve("users.yml"), "username: a\n");
+        write(source.resolve("nested").resolve("devices.json"), "{\"count\": 2}");
+        write(source.resolve("ignored.yaml"), "username: b\n");
+
+        assertThat(TestDataCompiler.compile(source, output)).isEqualTo(2);
+        assertThat(output.resolve("users.yml.smile")).exists();
+        assertThat(output.resolve("nested").resolve("devices.json.smile")).exists();
+        assertThat(output.resolve("ignored.yaml.smile")).doesNotExist();
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Typed form of the sample test data
+     */
+    public static class User {
+        public String username;
+        public String password;
+        public int retries;
+        public List<String> tags;
+        public Map<String, Object> address;
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.utils;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * XCUIElementLocator class resolves WebDriver/Appium locator strategies against
+ * an XCUITest page source tree (the XML returned by getPageSource()).
+ * Supported strategies: accessibility id, id, name, class name, xpath,
+ * -ios predicate string and a subset of -ios class chain.
+ */
+public class XCUIElementLocator {
+
+    private XCUIElementLocator() {
+    }
+
+    /**
+     * Find all descendants of a root element that match a locator
+     *
+     * @param root  Element to search from (not included in the results)
+     * @param using Locator strategy, e.g. "accessibility id"
+     * @param value Locator value
+     * @return Matching elements in document order
+     * @throws IllegalArgumentException if the strategy is not supported
+     */
+    public static List<Element> find(Element root, String using, String value) {
+        switch (using) {
+            case "accessibility id":
+            case "id":
+            case "name":
+                return filter(root, element -> value.equals(element.getAttribute("name")));
+            case "class name":
+                return filter(root, element -> value.equals(XCUIPredicate.attributeValue(element, "type")));
+            case "-ios predicate string":
+                XCUIPredicate predicate = XCUIPredicate.parse(value);
+                return filter(root, predicate::matches);
+            case "-ios class chain":
+                return findByClassChain(root, value);
+            case "xpath":
+                return findByXPath(root, value);
+            default:
+                throw new IllegalArgumentException("Unsupported locator strategy: " + using);
+        }
+    }
+
+    /**
+     * Check whether an element is reported as visible
+     *
+     * @param element Page source element
+     * @return true if the visible attribute is "true"
+     */
+    public static boolean isVisible(Element element) {
+        return "true".equals(element.getAttribute("visible"));
+    }
+
+    /**
+     * Get the text WebDriverAgent reports for an element: its value, or its
+     * label when the value is empty
+     *
+     * @param element Page source element
+     * @return Element text
+     */
+    public static String getText(Element element) {
+        String value = element.getAttribute("value");
+        return value.isEmpty() ? element.getAttribute("label") : value;
+    }
+
+    private interface Matcher {
+        boolean matches(Element element);
+    }
+
+    private static List<Element> filter(Element root, Matcher matcher) {
+        List<Element> matches = new ArrayList<>();
+        collect(root, matcher, matches);
+        return matches;
+    }
+
+    private static void collect(Element parent, Matcher matcher, List<Element> matches) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                Element element = (Element) child;
+                if (matcher.matches(element)) {
+                    matches.add(element);
+                }
+                collect(element, matcher, matches);
+            }
+        }
+    }
+
+    private static List<Element> findByXPath(Element root, String xpath) {
+        try {
+            NodeList nodes = (NodeList) XPathFactory.newInstance().newXPath()
+                    .evaluate(xpath, root, XPathConstants.NODESET);
+            List<Element> matches = new ArrayList<>();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                if (nodes.item(i) instanceof Element && nodes.item(i) != root) {
+                    matches.add((Element) nodes.item(i));
+                }
+            }
+            return matches;
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Invalid xpath: " + xpath, e);
+        }
+    }
+
+    /**
+     * Resolve a class chain such as "**&#47;XCUIElementTypeCell[`name == 'Alert Views'`]".
+     * Segments are separated by "/", "**" matches any depth, "*" matches any
+     * type, and each segment may carry a backtick predicate and/or an index.
+     */
+    private static List<Element> findByClassChain(Element root, String chain) {
+        List<Element> current = Collections.singletonList(root);
+        boolean anyDepth = false;
+        for (String segment : splitClassChain(chain)) {
+            if ("**".equals(segment)) {
+                anyDepth = true;
+                continue;
+            }
+
+            String type = segment;
+            String predicate = null;
+            Integer index = null;
+            int bracket = segment.indexOf('[');
+            if (bracket >= 0) {
+                type = segment.substring(0, bracket);
+                String conditions = segment.substring(bracket);
+                int start = conditions.indexOf('`');
+                if (start >= 0) {
+                    predicate = conditions.substring(start + 1, conditions.indexOf('`', start + 1));
+                    conditions = conditions.substring(conditions.indexOf('`', start + 1) + 1);
+                }
+                int open = conditions.indexOf('[');
+                if (open >= 0 && conditions.indexOf(']', open) > open + 1) {
+                    String number = conditions.substring(open + 1, conditions.indexOf(']', open)).trim();
+                    if (!number.isEmpty()) {
+                        index = Integer.parseInt(number);
+                    }
+                }
+            }
+
+            String expectedType = type;
+            XCUIPredicate compiled = predicate != null ? XCUIPredicate.parse(predicate) : null;
+            Matcher matcher = element -> ("*".equals(expectedType)
+                    || expectedType.equals(XCUIPredicate.attributeValue(element, "type")))
+                    && (compiled == null || compiled.matches(element));
+
+            List<Element> next = new ArrayList<>();
+            for (Element parent : current) {
+                List<Element> candidates = anyDepth ? filter(parent, matcher) : children(parent, matcher);
+                if (index != null) {
+                    int position = index > 0 ? index - 1 : candidates.size() + index;
+                    if (position >= 0 && position < candidates.size()) {
+                        next.add(candidates.get(position));
+                    }
+                } else {
+                    next.addAll(candidates);
+                }
+            }
+            current = next;
+            anyDepth = false;
+        }
+        return current;
+    }
+
+    private static List<Element> children(Element parent, Matcher matcher) {
+        List<Element> matches = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && matcher.matches((Element) child)) {
+                matches.add((Element) child);
+            }
+        }
+        return matches;
+    }
+
+    private static List<String> splitClassChain(String chain) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        boolean inPredicate = false;
+        for (char c : chain.toCharArray()) {
+            if (c == '`') {
+                inPredicate = !inPredicate;
+            }
+            if (c == '/' && !inPredicate) {
+                if (segment.length() > 0) {
+                    segments.add(segment.toString());
+                }
+                segment.setLength(0);
+            } else {
+                segment.append(c);
+            }
+        }
+        if (segment.length() > 0) {
+            segments.add(segment.toString());
+        }
+        return segments;
+    }
+}
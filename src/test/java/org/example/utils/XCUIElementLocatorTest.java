@@ -0,0 +1,154 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for XCUIElementLocator and XCUIPredicate.
+ * Verifies how locator strategies and predicate strings are evaluated against
+ * an XCUITest page source tree.
+ */
+public class XCUIElementLocatorTest {
+
+    private static final String PAGE_SOURCE = "<AppiumAUT>"
+            + "<XCUIElementTypeApplication name='UIKitCatalog'>"
+            + "<XCUIElementTypeNavigationBar name='UIKitCatalog' label='UIKitCatalog'/>"
+            + "<XCUIElementTypeTable>"
+            + "<XCUIElementTypeCell name='Activity Indicators' label='Activity Indicators' enabled='true'/>"
+            + "<XCUIElementTypeCell name='Alert Views' label='Alert Views' enabled='true'/>"
+            + "<XCUIElementTypeCell name='Buttons' label='Buttons' enabled='false'/>"
+            + "</XCUIElementTypeTable>"
+            + "<XCUIElementTypeButton name='Alerts' label='Show alerts' enabled='true' visible='true'/>"
+            + "</XCUIElementTypeApplication>"
+            + "</AppiumAUT>";
+
+    private Element root;
+
+    @BeforeEach
+    public void parsePageSource() throws Exception {
+        root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(PAGE_SOURCE.getBytes(StandardCharsets.UTF_8)))
+                .getDocumentElement();
+    }
+
+    @Test
+    @DisplayName("Accessibility id, name and class name strategies")
+    public void testSimpleStrategies() {
+        assertThat(names(XCUIElementLocator.find(root, "accessibility id", "Alert Views")))
+                .containsExactly("Alert Views");
+        assertThat(names(XCUIElementLocator.find(root, "name", "UIKitCatalog")))
+                .containsExactly("UIKitCatalog", "UIKitCatalog");
+        assertThat(names(XCUIElementLocator.find(root, "class name", "XCUIElementTypeCell")))
+                .containsExactly("Activity Indicators", "Alert Views", "Buttons");
+        assertThat(XCUIElementLocator.find(root, "accessibility id", "Missing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Predicate strings combine comparisons with AND, OR, NOT and parentheses")
+    public void testPredicateStrings() {
+        assertThat(names(XCUIElementLocator.find(root, "-ios predicate string",
+                "type == 'XCUIElementTypeCell' AND name BEGINSWITH 'A'")))
+                .containsExactly("Activity Indicators", "Alert Views");
+        assertThat(names(XCUIElementLocator.find(root, "-ios predicate string",
+                "type == 'XCUIElementTypeButton' OR (type == 'XCUIElementTypeCell' AND NOT enabled == YES)")))
+                .containsExactly("Buttons", "Alerts");
+        assertThat(names(XCUIElementLocator.find(root, "-ios predicate string", "label CONTAINS 'alert'")))
+                .containsExactly("Alerts");
+        assertThat(names(XCUIElementLocator.find(root, "-ios predicate string", "label CONTAINS[c] 'alert'")))
+                .containsExactly("Alert Views", "Alerts");
+    }
+
+    @Test
+    @DisplayName("Predicate operators and attribute aliases")
+    public void testPredicateOperators() {
+        Element alertViews = XCUIElementLocator.find(root, "accessibility id", "Alert Views").get(0);
+
+        assertThat(XCUIPredicate.parse("name ENDSWITH 'Views'").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("name LIKE 'Al?rt*'").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("name MATCHES 'Alert\\\\s\\\\w+'").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("name != 'Alert Views'").matches(alertViews)).isFalse();
+        assertThat(XCUIPredicate.parse("wdName == \"Alert Views\"").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("identifier == 'Alert Views'").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("elementType == 'XCUIElementTypeCell'").matches(alertViews)).isTrue();
+        assertThat(XCUIPredicate.parse("enabled == 1 && name BEGINSWITH[c] 'alert'").matches(alertViews)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Invalid predicates are rejected")
+    public void testInvalidPredicates() {
+        assertThatThrownBy(() -> XCUIPredicate.parse("name == 'Alert Views' AND"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected end");
+        assertThatThrownBy(() -> XCUIPredicate.parse("name == 'Alert Views"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unterminated string");
+        assertThatThrownBy(() -> XCUIPredicate.parse("(name == 'Alert Views'"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Missing ')'");
+        assertThatThrownBy(() -> XCUIPredicate.parse("name IN 'Alert Views'"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported operator");
+    }
+
+    @Test
+    @DisplayName("Class chains with any depth, direct children, predicates and indexes")
+    public void testClassChains() {
+        assertThat(names(XCUIElementLocator.find(root, "-ios class chain",
+                "**/XCUIElementTypeCell[`name BEGINSWITH 'A'`]")))
+                .containsExactly("Activity Indicators", "Alert Views");
+        assertThat(names(XCUIElementLocator.find(root, "-ios class chain",
+                "XCUIElementTypeApplication/XCUIElementTypeTable/XCUIElementTypeCell[2]")))
+                .containsExactly("Alert Views");
+        assertThat(names(XCUIElementLocator.find(root, "-ios class chain", "**/XCUIElementTypeCell[-1]")))
+                .containsExactly("Buttons");
+        assertThat(names(XCUIElementLocator.find(root, "-ios class chain",
+                "XCUIElementTypeApplication/*[`name == 'Alerts'`]")))
+                .containsExactly("Alerts");
+        assertThat(XCUIElementLocator.find(root, "-ios class chain", "XCUIElementTypeCell")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("XPath is evaluated below the root element")
+    public void testXPath() {
+        assertThat(names(XCUIElementLocator.find(root, "xpath", "//XCUIElementTypeCell[@enabled='false']")))
+                .containsExactly("Buttons");
+        assertThatThrownBy(() -> XCUIElementLocator.find(root, "xpath", "//["))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Unsupported strategies are rejected")
+    public void testUnsupportedStrategy() {
+        assertThatThrownBy(() -> XCUIElementLocator.find(root, "css selector", "button"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("css selector");
+    }
+
+    @Test
+    @DisplayName("Visibility and text are read like WebDriverAgent reports them")
+    public void testVisibilityAndText() {
+        Element button = XCUIElementLocator.find(root, "accessibility id", "Alerts").get(0);
+        Element cell = XCUIElementLocator.find(root, "accessibility id", "Buttons").get(0);
+
+        assertThat(XCUIElementLocator.isVisible(button)).isTrue();
+        assertThat(XCUIElementLocator.isVisible(cell)).isFalse();
+        assertThat(XCUIElementLocator.getText(button)).isEqualTo("Show alerts");
+        button.setAttribute("value", "On");
+        assertThat(XCUIElementLocator.getText(button)).isEqualTo("On");
+    }
+
+    private static List<String> names(List<Element> elements) {
+        return elements.stream().map(element -> element.getAttribute("name")).collect(Collectors.toList());
+    }
+}
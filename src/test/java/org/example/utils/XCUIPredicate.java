@@ -0,0 +1,295 @@
+package org.example.utils;
+
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * XCUIPredicate class evaluates iOS NSPredicate strings (as used by the
+ * "-ios predicate string" locator strategy) against elements of an XCUITest
+ * page source tree.
+ * The common subset is supported: comparisons on element attributes with
+ * ==, !=, BEGINSWITH, ENDSWITH, CONTAINS, LIKE and MATCHES (optionally with
+ * the [c] and [d] modifiers), combined with AND, OR, NOT and parentheses.
+ * A predicate is parsed once and can be matched against any number of
+ * elements.
+ */
+public class XCUIPredicate {
+
+    private final Node root;
+    private final String source;
+
+    private XCUIPredicate(Node root, String source) {
+        this.root = root;
+        this.source = source;
+    }
+
+    /**
+     * Parse a predicate string
+     *
+     * @param predicate NSPredicate string, e.g. "type == 'XCUIElementTypeButton' AND name BEGINSWITH 'Al'"
+     * @return Parsed predicate
+     * @throws IllegalArgumentException if the predicate cannot be parsed
+     */
+    public static XCUIPredicate parse(String predicate) {
+        Parser parser = new Parser(tokenize(predicate), predicate);
+        Node node = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected token '" + parser.peek() + "' in predicate: " + predicate);
+        }
+        return new XCUIPredicate(node, predicate);
+    }
+
+    /**
+     * Check whether an element matches this predicate
+     *
+     * @param element Page source element
+     * @return true if the element matches
+     */
+    public boolean matches(Element element) {
+        return root.matches(element);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Read an attribute the way WebDriverAgent exposes it to predicates
+     *
+     * @param element   Page source element
+     * @param attribute Attribute name, with or without the "wd" prefix
+     * @return Attribute value, or an empty string if it is not set
+     */
+    static String attributeValue(Element element, String attribute) {
+        String name = attribute;
+        if (name.startsWith("wd") && name.length() > 2) {
+            name = Character.toLowerCase(name.charAt(2)) + name.substring(3);
+        }
+        if ("identifier".equals(name)) {
+            name = "name";
+        }
+        if ("elementType".equals(name)) {
+            name = "type";
+        }
+        if ("type".equals(name) && !element.hasAttribute("type")) {
+            return element.getTagName();
+        }
+        return element.getAttribute(name);
+    }
+
+    private interface Node {
+        boolean matches(Element element);
+    }
+
+    private static List<String> tokenize(String predicate) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < predicate.length()) {
+            char c = predicate.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = i + 1;
+                StringBuilder literal = new StringBuilder();
+                while (end < predicate.length() && predicate.charAt(end) != c) {
+                    if (predicate.charAt(end) == '\\' && end + 1 < predicate.length()) {
+                        end++;
+                    }
+                    literal.append(predicate.charAt(end));
+                    end++;
+                }
+                if (end >= predicate.length()) {
+                    throw new IllegalArgumentException("Unterminated string in predicate: " + predicate);
+                }
+                tokens.add(c + literal.toString());
+                i = end + 1;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if ("=!<>&|".indexOf(c) >= 0) {
+                int end = i + 1;
+                while (end < predicate.length() && "=!<>&|".indexOf(predicate.charAt(end)) >= 0) {
+                    end++;
+                }
+                tokens.add(predicate.substring(i, end));
+                i = end;
+            } else {
+                int end = i;
+                while (end < predicate.length()
+                        && !Character.isWhitespace(predicate.charAt(end))
+                        && "()=!<>&|'\"".indexOf(predicate.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(predicate.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Recursive descent parser over the token list
+     */
+    private static class Parser {
+        private final List<String> tokens;
+        private final String source;
+        private int position;
+
+        private Parser(List<String> tokens, String source) {
+            this.tokens = tokens;
+            this.source = source;
+        }
+
+        private boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        private String peek() {
+            return atEnd() ? null : tokens.get(position);
+        }
+
+        private String next() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Unexpected end of predicate: " + source);
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean accept(String... keywords) {
+            String token = peek();
+            if (token == null) {
+                return false;
+            }
+            for (String keyword : keywords) {
+                if (keyword.equalsIgnoreCase(token)) {
+                    position++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Node parseOr() {
+            Node left = parseAnd();
+            while (accept("OR", "||")) {
+                Node l = left;
+                Node r = parseAnd();
+                left = element -> l.matches(element) || r.matches(element);
+            }
+            return left;
+        }
+
+        private Node parseAnd() {
+            Node left = parseNot();
+            while (accept("AND", "&&")) {
+                Node l = left;
+                Node r = parseNot();
+                left = element -> l.matches(element) && r.matches(element);
+            }
+            return left;
+        }
+
+        private Node parseNot() {
+            if (accept("NOT", "!")) {
+                Node inner = parseNot();
+                return element -> !inner.matches(element);
+            }
+            if (accept("(")) {
+                Node inner = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')' in predicate: " + source);
+                }
+                return inner;
+            }
+            return parseComparison();
+        }
+
+        private Node parseComparison() {
+            String attribute = next();
+            String operator = next().toUpperCase(Locale.ROOT);
+            boolean caseInsensitive = false;
+            if (operator.contains("[")) {
+                caseInsensitive = operator.substring(operator.indexOf('[')).contains("C");
+                operator = operator.substring(0, operator.indexOf('['));
+            }
+            String expected = literal(next());
+            boolean ignoreCase = caseInsensitive;
+
+            switch (operator) {
+                case "==":
+                case "=":
+                    return element -> equalsValue(attributeValue(element, attribute), expected, ignoreCase);
+                case "!=":
+                case "<>":
+                    return element -> !equalsValue(attributeValue(element, attribute), expected, ignoreCase);
+                case "BEGINSWITH":
+                    return element -> normalise(attributeValue(element, attribute), ignoreCase)
+                            .startsWith(normalise(expected, ignoreCase));
+                case "ENDSWITH":
+                    return element -> normalise(attributeValue(element, attribute), ignoreCase)
+                            .endsWith(normalise(expected, ignoreCase));
+                case "CONTAINS":
+                    return element -> normalise(attributeValue(element, attribute), ignoreCase)
+                            .contains(normalise(expected, ignoreCase));
+                case "LIKE":
+                    Pattern like = Pattern.compile(likeToRegex(expected), ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+                    return element -> like.matcher(attributeValue(element, attribute)).matches();
+                case "MATCHES":
+                    Pattern regex = Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+                    return element -> regex.matcher(attributeValue(element, attribute)).matches();
+                default:
+                    throw new IllegalArgumentException("Unsupported operator '" + operator + "' in predicate: " + source);
+            }
+        }
+
+        private String literal(String token) {
+            if (token.startsWith("'") || token.startsWith("\"")) {
+                return token.substring(1);
+            }
+            if ("YES".equalsIgnoreCase(token) || "TRUE".equalsIgnoreCase(token)) {
+                return "true";
+            }
+            if ("NO".equalsIgnoreCase(token) || "FALSE".equalsIgnoreCase(token)) {
+                return "false";
+            }
+            return token;
+        }
+
+        private static boolean equalsValue(String actual, String expected, boolean ignoreCase) {
+            if ("true".equals(expected) || "1".equals(expected)) {
+                if ("true".equals(actual) || "1".equals(actual)) {
+                    return true;
+                }
+            }
+            if ("false".equals(expected) || "0".equals(expected)) {
+                if ("false".equals(actual) || "0".equals(actual)) {
+                    return true;
+                }
+            }
+            return ignoreCase ? actual.equalsIgnoreCase(expected) : actual.equals(expected);
+        }
+
+        private static String normalise(String value, boolean ignoreCase) {
+            return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+        }
+
+        private static String likeToRegex(String like) {
+            StringBuilder regex = new StringBuilder();
+            for (char c : like.toCharArray()) {
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return regex.toString();
+        }
+    }
+}